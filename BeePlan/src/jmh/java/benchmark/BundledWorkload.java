@@ -0,0 +1,22 @@
+package benchmark;
+
+import datastructures.Instructor;
+import datastructures.Schedule;
+import loader.CourseLoader;
+import loader.InstructorLoader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+// The real department data shipped in bee-plan-v2/data, as a fixed benchmark workload
+public final class BundledWorkload {
+    private BundledWorkload() {}
+
+    public static Workload load(Path dataDir) throws IOException {
+        Schedule schedule = new Schedule();
+        CourseLoader.load(dataDir.resolve("courses.json"), schedule, p -> { }).addTo(schedule);
+        List<Instructor> instructors = InstructorLoader.load(dataDir.resolve("instructors.json"), schedule, p -> { });
+        return new Workload("bundled", schedule, instructors);
+    }
+}
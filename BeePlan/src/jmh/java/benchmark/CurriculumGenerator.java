@@ -0,0 +1,131 @@
+package benchmark;
+
+import datastructures.Course;
+import datastructures.Instructor;
+import datastructures.Schedule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Seeded synthetic curricula. Cohorts and teaching loads are sized to the default week
+// so that the generated instances stay feasible for the hard rules at every scale.
+public class CurriculumGenerator {
+    private static final int MIN_TEACHING_DAYS = 3;
+
+    private final long seed;
+    private int coursesPerCohort = 6;
+    private int coursesPerInstructor = 2;
+    private double dayAvailability = 0.85;
+    private double slotAvailability = 0.9;
+    private int coreLecturers;
+
+    public CurriculumGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public int getCoursesPerCohort() { return coursesPerCohort; }
+    public void setCoursesPerCohort(int coursesPerCohort) { this.coursesPerCohort = coursesPerCohort; }
+
+    public int getCoursesPerInstructor() { return coursesPerInstructor; }
+    public void setCoursesPerInstructor(int coursesPerInstructor) { this.coursesPerInstructor = coursesPerInstructor; }
+
+    // probability that an instructor teaches on a given day, and that a slot of such a day is free
+    public void setAvailability(double dayAvailability, double slotAvailability) {
+        this.dayAvailability = dayAvailability;
+        this.slotAvailability = slotAvailability;
+    }
+
+    // adds a core of lecturers teaching only on Mon and Wed, two 4-hour courses each, all in one extra cohort.
+    // The daily limit spreads every course over both days: two lecturers take 8 of the cohort's 10 Mon/Wed
+    // slots, three need 12, an infeasibility the prechecks do not see since one more course of the cohort on
+    // Tue/Thu keeps its weekly hours within the week. 0 (the default) adds nothing.
+    public int getCoreLecturers() { return coreLecturers; }
+    public void setCoreLecturers(int coreLecturers) { this.coreLecturers = coreLecturers; }
+
+    public Workload generate(int courseCount) {
+        SplittableRandom random = new SplittableRandom(seed ^ courseCount);
+        Schedule schedule = new Schedule();
+        List<Integer> cohortOrder = shuffledIndices(courseCount, random);
+        List<Integer> instructorOrder = shuffledIndices(courseCount, random);
+        int[] cohortOf = new int[courseCount];
+        int[] instructorOf = new int[courseCount];
+        for (int i = 0; i < courseCount; i++) {
+            cohortOf[cohortOrder.get(i)] = i / coursesPerCohort;
+            instructorOf[instructorOrder.get(i)] = i / coursesPerInstructor;
+        }
+
+        for (int i = 0; i < courseCount; i++) {
+            int theory = 2 + 2 * random.nextInt(2);
+            int lab = random.nextInt(10) < 3 ? 2 : 0;
+            Course.Type type = random.nextInt(4) == 0 ? Course.Type.ELECTIVE : Course.Type.MANDATORY;
+            Course c = new Course(String.format("C%05d", i), "Course " + i, theory, lab, "I" + instructorOf[i], type);
+            c.setCohort("Y" + cohortOf[i]);
+            if (lab > 0) c.setLabCapacity(20 + random.nextInt(21));
+            schedule.addCourse(c);
+        }
+
+        int instructorCount = (courseCount + coursesPerInstructor - 1) / coursesPerInstructor;
+        List<Instructor> instructors = new ArrayList<>(instructorCount);
+        for (int i = 0; i < instructorCount; i++) {
+            Map<String, List<String>> availability = new HashMap<>();
+            // at least MIN_TEACHING_DAYS of Mon-Thu so the weekly theory load always fits
+            boolean[] teaches = new boolean[schedule.getDayCount()];
+            int weekdays = 0;
+            for (int d = 0; d < teaches.length; d++) {
+                teaches[d] = random.nextDouble() < dayAvailability;
+                if (teaches[d] && d < teaches.length - 1) weekdays++;
+            }
+            while (weekdays < MIN_TEACHING_DAYS) {
+                int d = random.nextInt(teaches.length - 1);
+                if (!teaches[d]) {
+                    teaches[d] = true;
+                    weekdays++;
+                }
+            }
+            for (int d = 0; d < teaches.length; d++) {
+                if (!teaches[d]) continue;
+                List<String> free = new ArrayList<>();
+                for (String slot : schedule.getTimeslots()) {
+                    if (random.nextDouble() < slotAvailability) free.add(slot);
+                }
+                availability.put(schedule.getCalendar().dayName(d), free);
+            }
+            instructors.add(new Instructor("I" + i, availability));
+        }
+        if (coreLecturers > 0) addCore(schedule, instructors);
+        String name = "synthetic-" + courseCount + (coreLecturers > 0 ? "-core" + coreLecturers : "");
+        return new Workload(name, schedule, instructors);
+    }
+
+    private void addCore(Schedule schedule, List<Instructor> instructors) {
+        for (int l = 0; l < coreLecturers; l++) {
+            instructors.add(new Instructor("K" + l, fullDays(schedule, 0, 2)));
+            for (int i = 0; i < 2; i++) {
+                Course c = new Course("K" + l + "_" + i, "Core " + l + "/" + i, 4, 0, "K" + l, Course.Type.MANDATORY);
+                c.setCohort("K");
+                schedule.addCourse(c);
+            }
+        }
+        instructors.add(new Instructor("KW", fullDays(schedule, 1, 3)));
+        Course c = new Course("KW", "Core wide", 2, 0, "KW", Course.Type.MANDATORY);
+        c.setCohort("K");
+        schedule.addCourse(c);
+    }
+
+    private static Map<String, List<String>> fullDays(Schedule schedule, int... days) {
+        Map<String, List<String>> availability = new HashMap<>();
+        for (int d : days) availability.put(schedule.getCalendar().dayName(d), new ArrayList<>(schedule.getTimeslots()));
+        return availability;
+    }
+
+    private static List<Integer> shuffledIndices(int n, SplittableRandom random) {
+        List<Integer> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(i);
+        for (int i = n - 1; i > 0; i--) Collections.swap(out, i, random.nextInt(i + 1));
+        return out;
+    }
+}
@@ -0,0 +1,115 @@
+package benchmark;
+
+import datastructures.Constraint;
+import datastructures.Instructor;
+import datastructures.Schedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import solver.BacktrackingSolver;
+import solver.Problem;
+import solver.SolverResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Core operations on synthetic curricula of growing size and on the bundled department data.
+// Run from the BeePlan directory: mvn -Pjmh test-compile exec:exec
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchedulingBenchmark {
+    private static final int PROBES = 1024;
+
+    // number of synthetic courses, or "bundled" for ../bee-plan-v2/data
+    @Param({"bundled", "50", "500", "5000", "20000"})
+    public String workload;
+
+    @Param({"42"})
+    public long seed;
+
+    private Workload input;
+    private Schedule scratch;
+    private Schedule solved;
+    private Problem problem;
+    private Constraint constraint;
+    private Instructor[] probeInstructors;
+    private String[] probeDays;
+    private String[] probeSlots;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        input = "bundled".equals(workload)
+                ? BundledWorkload.load(Path.of(System.getProperty("beeplan.data", "../bee-plan-v2/data")))
+                : new CurriculumGenerator(seed).generate(Integer.parseInt(workload));
+        constraint = new Constraint();
+        scratch = copyCourses(input.getSchedule());
+        problem = new Problem(input.getSchedule(), input.getInstructors(), constraint);
+
+        // a placed schedule for the constraint checks (partial if the solver runs out of time)
+        solved = copyCourses(input.getSchedule());
+        SolverResult result = new BacktrackingSolver().solve(problem);
+        result.applyTo(solved);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Instructor> instructors = input.getInstructors();
+        List<String> days = input.getSchedule().getCalendar().getDays();
+        List<String> timeslots = input.getSchedule().getTimeslots();
+        probeInstructors = new Instructor[PROBES];
+        probeDays = new String[PROBES];
+        probeSlots = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeInstructors[i] = instructors.get(random.nextInt(instructors.size()));
+            probeDays[i] = days.get(random.nextInt(days.size()));
+            probeSlots[i] = timeslots.get(random.nextInt(timeslots.size()));
+        }
+    }
+
+    private static Schedule copyCourses(Schedule source) {
+        Schedule copy = new Schedule(source.getCalendar());
+        copy.getCourseList().addAll(source.getCourseList());
+        return copy;
+    }
+
+    @Benchmark
+    public long placeCoursesAuto() {
+        scratch.clearPlacements();
+        scratch.placeCoursesAuto(scratch.getTimeslots());
+        return scratch.usedSlotsMask();
+    }
+
+    @Benchmark
+    public List<String> constraintRunAll() {
+        return constraint.runAll(solved);
+    }
+
+    // PROBES lookups per invocation
+    @Benchmark
+    public void instructorIsAvailable(Blackhole bh) {
+        for (int i = 0; i < PROBES; i++) {
+            bh.consume(probeInstructors[i].isAvailable(probeDays[i], probeSlots[i]));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverResult backtrackingSolve() {
+        return new BacktrackingSolver().solve(problem);
+    }
+}
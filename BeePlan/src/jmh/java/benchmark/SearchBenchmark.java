@@ -0,0 +1,93 @@
+package benchmark;
+
+import datastructures.Constraint;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import solver.BacktrackingSolver;
+import solver.Problem;
+import solver.SolverConfig;
+import solver.SolverResult;
+
+import java.util.concurrent.TimeUnit;
+
+// The backtracking search on hard instances, chronological against conflict-directed backjumping.
+// Scarce lecturer availability (0.6 of the days, 0.7 of their slots) and either "tight": nine courses per
+// cohort, solvable only after deep backtracking (seed 24 is the hardest found), or "infeasible": six per
+// cohort plus CurriculumGenerator's Mon/Wed core of three lecturers, which only the search can refute.
+// "nogoods" turns on SolverConfig's nogood learning, off by default. One solve per iteration; the
+// nodes and timeouts counters are totals over the measured iterations (divide by Cnt for one solve).
+// Run from the BeePlan directory: mvn -Pjmh test-compile exec:exec -Djmh.include=SearchBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchBenchmark {
+    private static final int NOGOOD_CAPACITY = 1 << 14;
+
+    @Param({"tight", "infeasible"})
+    public String instance;
+
+    // chronological, backjumping, or backjumping with nogood learning
+    @Param({"chronological", "backjumping", "nogoods"})
+    public String search;
+
+    @Param({"100"})
+    public int courses;
+
+    @Param({"24"})
+    public long seed;
+
+    @Param({"3000"})
+    public long timeLimitMillis;
+
+    private Problem problem;
+    private SolverConfig config;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Search {
+        public long nodes;
+        public long timeouts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+            timeouts = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CurriculumGenerator generator = new CurriculumGenerator(seed);
+        generator.setAvailability(0.6, 0.7);
+        if ("infeasible".equals(instance)) generator.setCoreLecturers(3);
+        else generator.setCoursesPerCohort(9);
+        Workload input = generator.generate(courses);
+        problem = new Problem(input.getSchedule(), input.getInstructors(), new Constraint());
+        config = new SolverConfig();
+        config.setTimeLimitMillis(timeLimitMillis);
+        config.setBackjumping(!"chronological".equals(search));
+        config.setNogoodCapacity("nogoods".equals(search) ? NOGOOD_CAPACITY : 0);
+    }
+
+    @Benchmark
+    public SolverResult solve(Search counters) {
+        SolverResult result = new BacktrackingSolver(config).solve(problem);
+        counters.nodes += result.getNodes();
+        if (result.getStatus() == SolverResult.Status.TIMEOUT) counters.timeouts++;
+        return result;
+    }
+}
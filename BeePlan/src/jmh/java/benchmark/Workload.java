@@ -0,0 +1,28 @@
+package benchmark;
+
+import datastructures.Instructor;
+import datastructures.Schedule;
+
+import java.util.List;
+
+// A benchmark input: a schedule holding the courses (no placements) plus the instructors
+public class Workload {
+    private final String name;
+    private final Schedule schedule;
+    private final List<Instructor> instructors;
+
+    public Workload(String name, Schedule schedule, List<Instructor> instructors) {
+        this.name = name;
+        this.schedule = schedule;
+        this.instructors = instructors;
+    }
+
+    public String getName() { return name; }
+    public Schedule getSchedule() { return schedule; }
+    public List<Instructor> getInstructors() { return instructors; }
+
+    @Override
+    public String toString() {
+        return name + " (" + schedule.getCourseList().size() + " courses, " + instructors.size() + " instructors)";
+    }
+}
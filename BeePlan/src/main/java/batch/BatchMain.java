@@ -0,0 +1,112 @@
+package batch;
+
+import solver.SolveCache;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Headless entry point: solves every department of a directory on a bounded thread pool and writes one
+// schedule CSV per department plus summary.csv. Exit code 0 when every department was solved, 1 otherwise,
+// 2 on bad arguments.
+public class BatchMain {
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        BatchOptions options;
+        try {
+            options = BatchOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(BatchOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            List<DepartmentReport> reports = run(options);
+            System.exit(reports.stream().allMatch(DepartmentReport::isSolved) ? 0 : 1);
+        } catch (IOException e) {
+            System.err.println("Batch failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    public static List<DepartmentReport> run(BatchOptions options) throws IOException {
+        long begin = System.nanoTime();
+        List<Path> departments = departments(options.getInput());
+        if (departments.isEmpty()) throw new IOException("no department with a courses file in " + options.getInput());
+        options.resolve(departments.size());
+        Files.createDirectories(options.getOutput());
+        SolveCache cache = options.getCacheDirectory() == null ? null : new SolveCache(options.getCacheDirectory(), SolveCache.DEFAULT_MAX_ENTRIES);
+
+        System.out.println("Solving " + departments.size() + " departments, " + options.getParallel() + " at a time, "
+                + options.getWorkersPerDepartment() + " searches each");
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(options.getParallel(), r -> {
+            Thread t = new Thread(r, "beeplan-batch-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        List<DepartmentReport> reports = new ArrayList<>();
+        try {
+            ExecutorCompletionService<DepartmentReport> completion = new ExecutorCompletionService<>(pool);
+            for (Path dir : departments) completion.submit(new DepartmentJob(dir, options.getOutput(), options, cache));
+            for (int i = 0; i < departments.size(); i++) {
+                DepartmentReport r = completion.take().get();
+                System.out.println("[" + (i + 1) + "/" + departments.size() + "] " + r);
+                reports.add(r);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("department job failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        reports.sort(Comparator.comparing(DepartmentReport::getDepartment));
+        writeSummary(reports, options.getOutput().resolve("summary.csv"));
+
+        long solved = reports.stream().filter(DepartmentReport::isSolved).count();
+        System.out.println(solved + "/" + reports.size() + " departments solved in "
+                + (System.nanoTime() - begin) / 1_000_000L + " ms; summary in " + options.getOutput().resolve("summary.csv"));
+        return reports;
+    }
+
+    // sub-directories with a courses file, or the input itself when it is one department
+    static List<Path> departments(Path input) throws IOException {
+        List<Path> out = new ArrayList<>();
+        if (DepartmentJob.isDepartment(input)) {
+            out.add(input);
+            return out;
+        }
+        try (Stream<Path> list = Files.list(input)) {
+            list.filter(Files::isDirectory).filter(DepartmentJob::isDepartment).sorted().forEach(out::add);
+        }
+        return out;
+    }
+
+    static void writeSummary(List<DepartmentReport> reports, Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println(DepartmentReport.CSV_HEADER);
+            for (DepartmentReport r : reports) out.println(r.toCsv());
+        }
+    }
+
+    // quotes a CSV field when needed
+    static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,87 @@
+package batch;
+
+import java.nio.file.Path;
+
+// Command line settings of a batch run
+public class BatchOptions {
+    private Path input;
+    private Path output;
+    private int parallel = 0;                   // 0 = min(departments, cores)
+    private int workersPerDepartment = 0;       // 0 = cores / parallel
+    private long timeLimitMillis = 60_000L;
+    private long optimizeMillis = 2_000L;
+    private long seed = 0L;
+    private Path cacheDirectory;                // null = no solve cache
+
+    public static final String USAGE = String.join("\n",
+            "usage: batch.BatchMain <input-dir> <output-dir> [options]",
+            "  <input-dir> holds one directory per department (or is one): courses.(json|csv) and optionally",
+            "  common.*, instructors.*, rooms.*, calendar.json",
+            "options:",
+            "  --parallel N       departments solved at the same time (default: min(departments, cores))",
+            "  --workers N        parallel searches per department (default: cores / parallel)",
+            "  --time-limit MS    search time limit per department (default 60000)",
+            "  --optimize MS      annealing budget per solved department, 0 to skip (default 2000)",
+            "  --seed N           base seed (default 0)",
+            "  --cache DIR        reuse and fill a solve cache in DIR");
+
+    public static BatchOptions parse(String[] args) {
+        BatchOptions o = new BatchOptions();
+        int positional = 0;
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if (!a.startsWith("--")) {
+                if (positional == 0) o.input = Path.of(a);
+                else if (positional == 1) o.output = Path.of(a);
+                else throw new IllegalArgumentException("unexpected argument " + a);
+                positional++;
+                continue;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException(a + " needs a value");
+            String v = args[++i];
+            switch (a) {
+                case "--parallel": o.parallel = positiveInt(a, v); break;
+                case "--workers": o.workersPerDepartment = positiveInt(a, v); break;
+                case "--time-limit": o.timeLimitMillis = nonNegativeLong(a, v); break;
+                case "--optimize": o.optimizeMillis = nonNegativeLong(a, v); break;
+                case "--seed": o.seed = nonNegativeLong(a, v); break;
+                case "--cache": o.cacheDirectory = Path.of(v); break;
+                default: throw new IllegalArgumentException("unknown option " + a);
+            }
+        }
+        if (positional < 2) throw new IllegalArgumentException("input and output directories are required");
+        return o;
+    }
+
+    private static int positiveInt(String option, String value) {
+        long v = nonNegativeLong(option, value);
+        if (v < 1 || v > Integer.MAX_VALUE) throw new IllegalArgumentException(option + " must be >= 1");
+        return (int) v;
+    }
+
+    private static long nonNegativeLong(String option, String value) {
+        try {
+            long v = Long.parseLong(value);
+            if (v < 0) throw new IllegalArgumentException(option + " must not be negative");
+            return v;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " expects a number, got " + value);
+        }
+    }
+
+    // fills the defaults that depend on the number of departments
+    void resolve(int departments) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (parallel == 0) parallel = Math.max(1, Math.min(departments, cores));
+        if (workersPerDepartment == 0) workersPerDepartment = Math.max(1, cores / parallel);
+    }
+
+    public Path getInput() { return input; }
+    public Path getOutput() { return output; }
+    public int getParallel() { return parallel; }
+    public int getWorkersPerDepartment() { return workersPerDepartment; }
+    public long getTimeLimitMillis() { return timeLimitMillis; }
+    public long getOptimizeMillis() { return optimizeMillis; }
+    public long getSeed() { return seed; }
+    public Path getCacheDirectory() { return cacheDirectory; }
+}
@@ -0,0 +1,143 @@
+package batch;
+
+import datastructures.Constraint;
+import datastructures.Instructor;
+import datastructures.Placement;
+import datastructures.Room;
+import datastructures.Schedule;
+import loader.CalendarLoader;
+import loader.CourseLoader;
+import loader.InstructorLoader;
+import loader.RoomLoader;
+import solver.AnnealingOptimizer;
+import solver.AnnealingResult;
+import solver.PortfolioSolver;
+import solver.Problem;
+import solver.RoomAssigner;
+import solver.RoomAssignment;
+import solver.SolveCache;
+import solver.SolverResult;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.IntConsumer;
+
+// Loads, solves, optimises and writes the schedule of one department directory:
+//   courses.(json|csv)       curriculum (required)
+//   common.(json|csv)        common courses with fixed slots
+//   instructors.(json|csv)   availability
+//   rooms.(json|csv)         rooms for the room-assignment stage
+// The schedule goes to <output>/<department>.csv, one row per placed block.
+public class DepartmentJob implements Callable<DepartmentReport> {
+    private static final IntConsumer NO_PROGRESS = p -> { };
+
+    private final Path directory;
+    private final Path output;
+    private final BatchOptions options;
+    private final SolveCache cache;
+
+    public DepartmentJob(Path directory, Path output, BatchOptions options, SolveCache cache) {
+        this.directory = directory;
+        this.output = output;
+        this.options = options;
+        this.cache = cache;
+    }
+
+    public static boolean isDepartment(Path dir) {
+        return find(dir, "courses") != null;
+    }
+
+    public static String nameOf(Path dir) {
+        return dir.getFileName().toString();
+    }
+
+    @Override
+    public DepartmentReport call() {
+        long begin = System.nanoTime();
+        DepartmentReport report = new DepartmentReport(nameOf(directory));
+        try {
+            Path calendarFile = directory.resolve("calendar.json");
+            Schedule schedule = Files.isRegularFile(calendarFile)
+                    ? new Schedule(CalendarLoader.load(calendarFile, NO_PROGRESS)) : new Schedule();
+            Path common = find(directory, "common");
+            if (common != null) CourseLoader.load(common, schedule, NO_PROGRESS).addTo(schedule);
+            CourseLoader.load(find(directory, "courses"), schedule, NO_PROGRESS).addTo(schedule);
+            Path instructorFile = find(directory, "instructors");
+            List<Instructor> instructors = instructorFile == null ? new ArrayList<>()
+                    : InstructorLoader.load(instructorFile, schedule, NO_PROGRESS);
+            Path roomFile = find(directory, "rooms");
+            List<Room> rooms = roomFile == null ? new ArrayList<>() : RoomLoader.load(roomFile, NO_PROGRESS);
+
+            Constraint constraint = new Constraint();
+            Problem problem = new Problem(schedule, instructors, constraint);
+            report.setCourses(schedule.getCourseList().size());
+            report.setBlocks(problem.getBlockCount());
+
+            long solveBegin = System.nanoTime();
+            AnnealingOptimizer optimizer = new AnnealingOptimizer(options.getOptimizeMillis(), options.getSeed());
+            // results solved with another seed or optimised differently are not reused
+            String settings = "seed " + options.getSeed() + ", "
+                    + (options.getOptimizeMillis() > 0 ? optimizer.settings() : "not optimised");
+            SolverResult result = cache == null ? null : cache.lookup(problem, settings);
+            report.setFromCache(result != null);
+            if (result == null) {
+                result = new PortfolioSolver(options.getWorkersPerDepartment(), options.getTimeLimitMillis(), options.getSeed())
+                        .solve(problem);
+                if (result.isSolved() && options.getOptimizeMillis() > 0) {
+                    AnnealingResult improved = optimizer.optimize(result);
+                    result = improved.getResult();
+                }
+                if (cache != null && result.isSolved()) cache.store(result, settings);
+            }
+            report.setSolveMillis((System.nanoTime() - solveBegin) / 1_000_000L);
+            report.setStatus(result.getStatus().name());
+            report.setPlaced(result.getPlacedBlocks());
+            if (result.isSolved()) report.setScore(optimizer.score(result));
+            if (!result.getMessages().isEmpty()) report.setError(String.join(" ", result.getMessages()));
+
+            result.applyTo(schedule);
+            if (!rooms.isEmpty()) {
+                RoomAssignment assignment = new RoomAssigner(rooms).assign(schedule);
+                report.setWithoutRoom(assignment.getUnassigned().size());
+            }
+            report.setViolations(constraint.runAll(schedule).size());
+            report.setConflicts(schedule.detectConflicts().size());
+            write(schedule, output.resolve(report.getDepartment() + ".csv"));
+        } catch (IOException | RuntimeException e) {
+            report.setStatus("FAILED");
+            report.setError(e.getMessage() == null ? e.toString() : e.getMessage());
+        }
+        report.setTotalMillis((System.nanoTime() - begin) / 1_000_000L);
+        return report;
+    }
+
+    static void write(Schedule schedule, Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("day,timeslot,course,name,kind,room,instructor,cohort,fixed");
+            for (int slot = 0; slot < schedule.getSlotCount(); slot++) {
+                for (Placement p : schedule.getPlacements(slot)) {
+                    out.println(BatchMain.csv(schedule.dayName(slot)) + "," + BatchMain.csv(schedule.timeslotName(slot)) + ","
+                            + BatchMain.csv(p.getCourse().getCourseId()) + "," + BatchMain.csv(p.getCourse().getName()) + ","
+                            + (p.isLab() ? "L" : "T") + "," + BatchMain.csv(p.getRoom()) + ","
+                            + BatchMain.csv(p.getCourse().getLecturer()) + "," + BatchMain.csv(p.getCourse().getCohort()) + ","
+                            + p.isPinned());
+                }
+            }
+        }
+    }
+
+    // <base>.json or <base>.csv inside dir, or null
+    static Path find(Path dir, String base) {
+        for (String ext : new String[]{".json", ".csv"}) {
+            Path f = dir.resolve(base + ext);
+            if (Files.isRegularFile(f)) return f;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,78 @@
+package batch;
+
+// One line of the batch summary
+public class DepartmentReport {
+    private final String department;
+    private String status = "FAILED";
+    private int courses;
+    private int blocks;
+    private int placed;
+    private long solveMillis;
+    private long totalMillis;
+    private long score = -1;
+    private int violations;
+    private int conflicts;
+    private int withoutRoom;
+    private boolean fromCache;
+    private String error;
+
+    public DepartmentReport(String department) {
+        this.department = department;
+    }
+
+    public String getDepartment() { return department; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getCourses() { return courses; }
+    public void setCourses(int courses) { this.courses = courses; }
+
+    public int getBlocks() { return blocks; }
+    public void setBlocks(int blocks) { this.blocks = blocks; }
+
+    public int getPlaced() { return placed; }
+    public void setPlaced(int placed) { this.placed = placed; }
+
+    public long getSolveMillis() { return solveMillis; }
+    public void setSolveMillis(long solveMillis) { this.solveMillis = solveMillis; }
+
+    public long getTotalMillis() { return totalMillis; }
+    public void setTotalMillis(long totalMillis) { this.totalMillis = totalMillis; }
+
+    // soft-constraint score after optimisation; -1 when the department was not solved
+    public long getScore() { return score; }
+    public void setScore(long score) { this.score = score; }
+
+    public int getViolations() { return violations; }
+    public void setViolations(int violations) { this.violations = violations; }
+
+    public int getConflicts() { return conflicts; }
+    public void setConflicts(int conflicts) { this.conflicts = conflicts; }
+
+    public int getWithoutRoom() { return withoutRoom; }
+    public void setWithoutRoom(int withoutRoom) { this.withoutRoom = withoutRoom; }
+
+    public boolean isFromCache() { return fromCache; }
+    public void setFromCache(boolean fromCache) { this.fromCache = fromCache; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public boolean isSolved() { return "SOLVED".equals(status); }
+
+    static final String CSV_HEADER = "department,status,courses,blocks,placed,solve_ms,total_ms,score,violations,conflicts,without_room,cached,error";
+
+    String toCsv() {
+        return BatchMain.csv(department) + "," + status + "," + courses + "," + blocks + "," + placed + ","
+                + solveMillis + "," + totalMillis + "," + score + "," + violations + "," + conflicts + ","
+                + withoutRoom + "," + fromCache + "," + BatchMain.csv(error == null ? "" : error);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-20s %-11s %6d/%-6d blocks %7d ms  score %7d  violations %d  conflicts %d%s",
+                department, status, placed, blocks, totalMillis, score, violations, conflicts,
+                error == null ? "" : "  " + error);
+    }
+}
@@ -0,0 +1,4 @@
+package datastructures;
+
+// kinds of blocks a course is split into; precedence rules refer to blocks by kind
+public enum BlockKind { THEORY, LAB }
@@ -0,0 +1,30 @@
+package datastructures;
+
+// Read-only view of the blocks of one course, instructor or cohort, handed to a ScheduleRule.
+// Views are reused between calls, so rules must not keep them.
+public interface BlockView {
+    int size();
+
+    // slot index of the i-th block, -1 when it is not placed (yet)
+    int slot(int i);
+
+    boolean isLab(int i);
+
+    Course course(int i);
+
+    SlotCalendar calendar();
+
+    default int slotsPerDay() { return calendar().getSlotsPerDay(); }
+
+    default int day(int i) {
+        int s = slot(i);
+        return s < 0 ? -1 : s / slotsPerDay();
+    }
+
+    // bit s set when some block is placed in slot s
+    default long mask() {
+        long m = 0L;
+        for (int i = 0; i < size(); i++) if (slot(i) >= 0) m |= 1L << slot(i);
+        return m;
+    }
+}
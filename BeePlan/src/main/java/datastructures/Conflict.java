@@ -0,0 +1,42 @@
+package datastructures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// One double-booked resource: two or more placements using the same instructor, room or cohort in one slot
+public class Conflict {
+    public enum Kind { INSTRUCTOR, ROOM, COHORT }
+
+    private final Kind kind;
+    private final String resource;
+    private final int slot;
+    private final String day;
+    private final String timeslot;
+    private final List<Placement> placements = new ArrayList<>(2);
+
+    Conflict(Kind kind, String resource, int slot, String day, String timeslot) {
+        this.kind = kind;
+        this.resource = resource;
+        this.slot = slot;
+        this.day = day;
+        this.timeslot = timeslot;
+    }
+
+    void add(Placement p) { placements.add(p); }
+
+    public Kind getKind() { return kind; }
+    public String getResource() { return resource; }
+    public int getSlot() { return slot; }
+    public String getDay() { return day; }
+    public String getTimeslot() { return timeslot; }
+    public List<Placement> getPlacements() { return Collections.unmodifiableList(placements); }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(kind).append(' ').append(resource).append(" double-booked on ").append(day).append(' ').append(timeslot).append(':');
+        for (Placement p : placements) sb.append(' ').append(p.getCourse().getCourseId()).append(p.isLab() ? "(Lab)" : "");
+        return sb.toString();
+    }
+}
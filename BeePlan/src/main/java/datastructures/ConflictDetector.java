@@ -0,0 +1,66 @@
+package datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Finds double-bookings in one pass over the placements. Every (resource kind, resource id, slot) triple
+// is packed into a long and looked up in an open-addressing table, so no per-placement objects are created.
+public final class ConflictDetector {
+    private static final long EMPTY = -1L;
+    private static final Conflict.Kind[] KINDS = Conflict.Kind.values();
+
+    private ConflictDetector() {}
+
+    public static List<Conflict> detect(Schedule schedule) {
+        List<Placement> placements = schedule.getPlacements();
+        List<Conflict> conflicts = new ArrayList<>();
+        int capacity = Integer.highestOneBit(Math.max(4, placements.size() * 3 * 2) - 1) << 1;
+        long[] keys = new long[capacity];
+        // value >= 0: index of the first placement using the key; value < 0: -(conflict index + 1)
+        int[] values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = capacity - 1;
+
+        for (int i = 0; i < placements.size(); i++) {
+            Placement p = placements.get(i);
+            for (Conflict.Kind kind : KINDS) {
+                int id = resourceId(p, kind);
+                if (id < 0) continue;
+                long key = ((long) id << 8) | ((long) kind.ordinal() << 6) | p.getSlot();
+                int h = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+                while (keys[h] != EMPTY && keys[h] != key) h = (h + 1) & mask;
+                if (keys[h] == EMPTY) {
+                    keys[h] = key;
+                    values[h] = i;
+                } else if (values[h] >= 0) {
+                    Conflict c = new Conflict(kind, resourceName(schedule, kind, id), p.getSlot(),
+                            schedule.dayName(p.getSlot()), schedule.timeslotName(p.getSlot()));
+                    c.add(placements.get(values[h]));
+                    c.add(p);
+                    conflicts.add(c);
+                    values[h] = -conflicts.size();
+                } else {
+                    conflicts.get(-values[h] - 1).add(p);
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    private static int resourceId(Placement p, Conflict.Kind kind) {
+        switch (kind) {
+            case INSTRUCTOR: return p.instructorId;
+            case ROOM: return p.roomId;
+            default: return p.cohortId;
+        }
+    }
+
+    private static String resourceName(Schedule schedule, Conflict.Kind kind, int id) {
+        switch (kind) {
+            case INSTRUCTOR: return schedule.getInstructorOccupancy().nameOf(id);
+            case ROOM: return schedule.getRoomOccupancy().nameOf(id);
+            default: return schedule.getCohortOccupancy().nameOf(id);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package datastructures;
+
+// Undirected conflict graph over exams: vertex v's neighbours are one row of bits in a flat long array
+// (row v = words [v * words, (v + 1) * words)). Dense graphs of thousands of vertices stay a few MB and
+// adjacency tests, neighbour scans and set intersections are word operations.
+public final class ConflictGraph {
+    private final int size;
+    private final int words;
+    private final long[] adjacency;
+    private final int[] degree;
+    private final long edgeCount;
+
+    private ConflictGraph(int size, int words, long[] adjacency) {
+        this.size = size;
+        this.words = words;
+        this.adjacency = adjacency;
+        this.degree = new int[size];
+        long edges = 0;
+        for (int v = 0; v < size; v++) {
+            int d = 0;
+            for (int w = 0; w < words; w++) d += Long.bitCount(adjacency[v * words + w]);
+            degree[v] = d;
+            edges += d;
+        }
+        this.edgeCount = edges / 2;
+    }
+
+    public static Builder builder(int size) { return new Builder(size); }
+
+    public static final class Builder {
+        private final int size;
+        private final int words;
+        private final long[] adjacency;
+
+        private Builder(int size) {
+            this.size = size;
+            this.words = Math.max(1, (size + 63) >>> 6);
+            this.adjacency = new long[size * words];
+        }
+
+        public Builder addEdge(int u, int v) {
+            if (u < 0 || u >= size || v < 0 || v >= size) {
+                throw new IllegalArgumentException("edge " + u + " - " + v + " outside 0.." + (size - 1));
+            }
+            if (u == v) return this;
+            adjacency[u * words + (v >>> 6)] |= 1L << v;
+            adjacency[v * words + (u >>> 6)] |= 1L << u;
+            return this;
+        }
+
+        // every pair of members conflicts (a cohort, or the exams of one student)
+        public Builder addClique(int[] members) {
+            long[] row = new long[words];
+            for (int m : members) row[m >>> 6] |= 1L << m;
+            for (int m : members) {
+                int base = m * words;
+                for (int w = 0; w < words; w++) adjacency[base + w] |= row[w];
+                adjacency[base + (m >>> 6)] &= ~(1L << m);
+            }
+            return this;
+        }
+
+        public ConflictGraph build() { return new ConflictGraph(size, words, adjacency.clone()); }
+    }
+
+    public int size() { return size; }
+    // longs per adjacency row
+    public int words() { return words; }
+    public int degree(int v) { return degree[v]; }
+    public long getEdgeCount() { return edgeCount; }
+
+    public boolean adjacent(int u, int v) { return (adjacency[u * words + (v >>> 6)] & (1L << v)) != 0; }
+
+    // word w of v's adjacency row
+    public long word(int v, int w) { return adjacency[v * words + w]; }
+
+    public double density() {
+        return size < 2 ? 0 : 2.0 * edgeCount / ((double) size * (size - 1));
+    }
+}
@@ -1,12 +1,24 @@
 package datastructures;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class Constraint {
+    public static final int MAX_LAB_CAPACITY = 40;
+    public static final int MAX_THEORY_HOURS_PER_DAY = 4;
+
     private boolean fridayExamBlock = true;
     private boolean labAfterTheory = true;
+    // ordering rules beyond lab-after-theory (e.g. tutorial after lecture); checked and enforced like it
+    private final List<PrecedenceRule> extraPrecedenceRules = new ArrayList<>();
+    // pluggable hard and soft rules, compiled by the solver into a per-course evaluation kernel
+    private final List<ScheduleRule> rules = new ArrayList<>();
 
     public Constraint() {}
 
@@ -16,61 +28,196 @@ public class Constraint {
     public boolean isLabAfterTheory() { return labAfterTheory; }
     public void setLabAfterTheory(boolean labAfterTheory) { this.labAfterTheory = labAfterTheory; }
 
-    // Placeholder: checks schedule for any placement on Friday (returns list of conflict descriptions)
+    public void addPrecedenceRule(PrecedenceRule rule) { extraPrecedenceRules.add(rule); }
+
+    public void addRule(ScheduleRule rule) { rules.add(rule); }
+    public List<ScheduleRule> getRules() { return rules; }
+
+    // the ordering rules in force: lab-after-theory when enabled, then the added ones
+    public List<PrecedenceRule> getPrecedenceRules() {
+        List<PrecedenceRule> rules = new ArrayList<>(extraPrecedenceRules.size() + 1);
+        if (labAfterTheory) rules.add(PrecedenceRule.LAB_AFTER_THEORY);
+        rules.addAll(extraPrecedenceRules);
+        return rules;
+    }
+
+    // checks the calendar's exam block day (Friday by default) for placements
     public List<String> checkFridayBlock(Schedule schedule) {
         List<String> problems = new ArrayList<>();
-        if (!fridayExamBlock) return problems;
-
-        Map<String, Map<String, Course>> grid = schedule.getWeeklyGrid();
-        Map<String, Course> friday = grid.get("Fri");
-        if (friday != null) {
-            for (Map.Entry<String, Course> e : friday.entrySet()) {
-                if (e.getValue() != null) {
-                    problems.add("Placement on Friday at " + e.getKey() + ": " + e.getValue());
-                }
-            }
+        SlotCalendar calendar = schedule.getCalendar();
+        if (!fridayExamBlock || calendar.getExamDay() < 0) return problems;
+
+        for (long m = calendar.examDayMask() & schedule.usedSlotsMask(); m != 0; m &= m - 1) {
+            int slot = Long.numberOfTrailingZeros(m);
+            problems.add(examBlockMessage(schedule, slot));
         }
         return problems;
     }
 
-    // Placeholder: ensure labs occur after theory; here we scan each course and if labHours>0 but no theory placement earlier, warn
+    // Ordering rules over the placed slots: every placement is a node of a precedence graph (blocks of one kind
+    // of a course taken in slot order) and each rule edge has to go from a smaller to a larger slot. O(V+E).
     public List<String> checkLabAfterTheory(Schedule schedule) {
         List<String> problems = new ArrayList<>();
-        // This is a placeholder — a real implementation would inspect the exact timeslots for each course.
-        if (!labAfterTheory) return problems;
+        if (labAfterTheory) {
+            for (Course c : schedule.getCourseList()) {
+                if (labWithoutTheory(c)) problems.add(noTheoryMessage(c));
+            }
+        }
+        List<PrecedenceRule> rules = getPrecedenceRules();
+        if (rules.isEmpty()) return problems;
 
-        for (Course c : schedule.getCourseList()) {
-            if (c.getLabHours() > 0 && c.getTheoryHours() == 0) {
-                problems.add("Course " + c.getCourseId() + " has lab but no theory block to place before lab.");
+        // placement slots per course and kind
+        Map<Course, List<List<Integer>>> slotsByCourse = new IdentityHashMap<>();
+        int nodes = 0;
+        for (Placement p : schedule.getPlacements()) {
+            List<List<Integer>> kinds = slotsByCourse.computeIfAbsent(p.getCourse(), k -> {
+                List<List<Integer>> lists = new ArrayList<>();
+                for (int i = 0; i < BlockKind.values().length; i++) lists.add(new ArrayList<>());
+                return lists;
+            });
+            kinds.get((p.isLab() ? BlockKind.LAB : BlockKind.THEORY).ordinal()).add(p.getSlot());
+            nodes++;
+        }
+        int[] slotOf = new int[nodes];
+        BlockKind[] kindOf = new BlockKind[nodes];
+        Course[] courseOf = new Course[nodes];
+        PrecedenceGraph.Builder builder = PrecedenceGraph.builder(nodes);
+        int node = 0;
+        for (Map.Entry<Course, List<List<Integer>>> e : slotsByCourse.entrySet()) {
+            int[][] blocks = new int[BlockKind.values().length][];
+            for (BlockKind kind : BlockKind.values()) {
+                List<Integer> slots = e.getValue().get(kind.ordinal());
+                slots.sort(null);
+                blocks[kind.ordinal()] = new int[slots.size()];
+                for (int i = 0; i < slots.size(); i++, node++) {
+                    blocks[kind.ordinal()][i] = node;
+                    slotOf[node] = slots.get(i);
+                    kindOf[node] = kind;
+                    courseOf[node] = e.getKey();
+                }
             }
+            builder.apply(rules, e.getKey(), blocks);
+        }
+        int[] violated = builder.build().violations(slotOf);
+        Set<String> messages = new LinkedHashSet<>();
+        for (int i = 0; i < violated.length; i += 2) {
+            int before = violated[i], after = violated[i + 1];
+            messages.add(orderingMessage(courseOf[before], kindOf[before], kindOf[after]));
         }
+        problems.addAll(messages);
         return problems;
     }
 
+    static String noTheoryMessage(Course c) {
+        return "Course " + c.getCourseId() + " has lab but no theory block to place before lab.";
+    }
+
+    // a block of kind after is placed before a block of kind before it has to follow
+    static String orderingMessage(Course c, BlockKind before, BlockKind after) {
+        return before == BlockKind.THEORY && after == BlockKind.LAB
+                ? "Course " + c.getCourseId() + " has a lab block before its last theory block."
+                : "Course " + c.getCourseId() + " has a " + after.name().toLowerCase()
+                        + " block before a " + before.name().toLowerCase() + " block.";
+    }
+
+    static boolean labWithoutTheory(Course c) { return c.getLabHours() > 0 && c.getTheoryHours() == 0; }
+
+    static boolean capacityExceeded(Course c) { return c.getLabHours() > 0 && c.getLabCapacity() > MAX_LAB_CAPACITY; }
+
+    static String capacityMessage(Course c) {
+        return "Lab capacity exceeded for " + c.getCourseId() + " (" + c.getLabCapacity() + ")";
+    }
+
+    static String examBlockMessage(Schedule schedule, int slot) {
+        return "Placement on " + schedule.dayName(slot) + " at " + schedule.timeslotName(slot) + ": "
+                + schedule.getPlacements(slot).get(0).getCourse();
+    }
+
+    static String limitMessage(Schedule schedule, int instructor, int day) {
+        return "Instructor " + schedule.getInstructorOccupancy().nameOf(instructor) + " exceeds " + MAX_THEORY_HOURS_PER_DAY
+                + " theory hours on " + schedule.getCalendar().dayName(day) + " (total: "
+                + schedule.getTheoryLoad().get(instructor, day) + ")";
+    }
+
+    static String ruleMessage(ScheduleRule rule, String owner, int penalty) {
+        return "Rule " + rule.getName() + " broken by " + rule.getScope().name().toLowerCase() + " " + owner
+                + " (penalty " + penalty + ")";
+    }
+
     // check capacity <= 40
     public List<String> checkCapacity(Schedule schedule) {
         List<String> problems = new ArrayList<>();
         for (Course c : schedule.getCourseList()) {
-            if (c.getLabHours() > 0 && c.getLabCapacity() > 40) {
-                problems.add("Lab capacity exceeded for " + c.getCourseId() + " (" + c.getLabCapacity() + ")");
-            }
+            if (capacityExceeded(c)) problems.add(capacityMessage(c));
         }
         return problems;
     }
 
-    // Max 4 hours of theory per day per instructor (placeholder: counts theoryHours across courses grouped by lecturer)
+    // Max 4 hours of theory per day per instructor, read from the schedule's instructor x day load matrix
     public List<String> checkInstructorLimit(Schedule schedule) {
         List<String> problems = new ArrayList<>();
-        // naive aggregator
-        Map<String, Integer> theoryPerInstructor = schedule.aggregateTheoryHoursByInstructor();
-        for (Map.Entry<String, Integer> e : theoryPerInstructor.entrySet()) {
-            if (e.getValue() > 4) {
-                problems.add("Instructor " + e.getKey() + " exceeds 4 theory hours (total: " + e.getValue() + ")");
+        InstructorDayLoad load = schedule.getTheoryLoad();
+        ResourceOccupancy instructors = schedule.getInstructorOccupancy();
+        for (int id = 0; id < instructors.size(); id++) {
+            for (int day = 0; day < load.getDays(); day++) {
+                if (load.isOverloaded(id, day)) problems.add(limitMessage(schedule, id, day));
             }
         }
         return problems;
     }
 
+    // Hard ScheduleRules over the placed blocks, grouped by the resource each rule is scoped to
+    public List<String> checkRules(Schedule schedule) {
+        List<String> problems = new ArrayList<>();
+        if (rules.isEmpty()) return problems;
+        Map<ScheduleRule.Scope, Map<String, List<Placement>>> groups = new EnumMap<>(ScheduleRule.Scope.class);
+        for (ScheduleRule.Scope scope : ScheduleRule.Scope.values()) groups.put(scope, new LinkedHashMap<>());
+        for (Placement p : schedule.getPlacements()) {
+            for (ScheduleRule.Scope scope : ScheduleRule.Scope.values()) {
+                String owner = ownerOf(p.getCourse(), scope);
+                if (owner != null) groups.get(scope).computeIfAbsent(owner, k -> new ArrayList<>()).add(p);
+            }
+        }
+        for (ScheduleRule rule : rules) {
+            if (!rule.isHard()) continue;
+            for (Map.Entry<String, List<Placement>> e : groups.get(rule.getScope()).entrySet()) {
+                int penalty = rule.penalty(new PlacementView(e.getValue(), schedule.getCalendar()));
+                if (penalty > 0) problems.add(ruleMessage(rule, e.getKey(), penalty));
+            }
+        }
+        return problems;
+    }
+
+    // the course id, lecturer or cohort a rule of that scope groups the course under; null when it has none
+    static String ownerOf(Course c, ScheduleRule.Scope scope) {
+        return switch (scope) {
+            case COURSE -> c.getCourseId();
+            case INSTRUCTOR -> c.getLecturer();
+            case COHORT -> c.getCohort();
+        };
+    }
+
+    static final class PlacementView implements BlockView {
+        private final List<Placement> placements;
+        private final SlotCalendar calendar;
+
+        PlacementView(List<Placement> placements, SlotCalendar calendar) {
+            this.placements = placements;
+            this.calendar = calendar;
+        }
+
+        @Override public int size() { return placements.size(); }
+        @Override public int slot(int i) { return placements.get(i).getSlot(); }
+        @Override public boolean isLab(int i) { return placements.get(i).isLab(); }
+        @Override public Course course(int i) { return placements.get(i).getCourse(); }
+        @Override public SlotCalendar calendar() { return calendar; }
+    }
+
+    // Incremental counterpart of runAll for callers that re-check after every single move
+    public IncrementalConstraintEvaluator track(Schedule schedule) {
+        return new IncrementalConstraintEvaluator(schedule, this);
+    }
+
     // Run all checks and return all problem messages
     public List<String> runAll(Schedule schedule) {
         List<String> all = new ArrayList<>();
@@ -78,6 +225,7 @@ public class Constraint {
         all.addAll(checkLabAfterTheory(schedule));
         all.addAll(checkCapacity(schedule));
         all.addAll(checkInstructorLimit(schedule));
+        all.addAll(checkRules(schedule));
         return all;
     }
 }
\ No newline at end of file
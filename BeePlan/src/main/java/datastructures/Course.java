@@ -10,6 +10,10 @@ public class Course {
     private String lecturer;
     private Type type;
     private int labCapacity;
+    // enrolled students, i.e. the seats a lecture room needs (0 = unknown, any room fits)
+    private int students;
+    // student group (e.g. year of study) whose courses must not overlap; null when not tracked
+    private String cohort;
 
     public Course() {}
 
@@ -44,6 +48,12 @@ public class Course {
     public int getLabCapacity() { return labCapacity; }
     public void setLabCapacity(int labCapacity) { this.labCapacity = labCapacity; }
 
+    public int getStudents() { return students; }
+    public void setStudents(int students) { this.students = students; }
+
+    public String getCohort() { return cohort; }
+    public void setCohort(String cohort) { this.cohort = cohort; }
+
     @Override
     public String toString() {
         return courseId + " - " + name + " (" + type + ")";
@@ -0,0 +1,183 @@
+package datastructures;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Immutable, column-per-field snapshot of a course list for solver loops: course i is row i of every array.
+// Course ids, lecturers and cohorts are interned to dense ints in order of first appearance (-1 = none),
+// hours and sizes are int columns and the type is one byte per course. Course objects are only handed out
+// through course(i)/asList(); a table made from beans returns those same beans, so identity maps keep working.
+public final class CourseTable {
+    private static final Course.Type[] TYPES = Course.Type.values();
+
+    private final int size;
+    private final String[] ids;
+    private final String[] names;
+    private final Map<String, Integer> index;
+    private final int[] lecturer;
+    private final String[] lecturerNames;
+    private final int[] cohort;
+    private final String[] cohortNames;
+    private final int[] theoryHours;
+    private final int[] labHours;
+    private final int[] labCapacity;
+    private final int[] students;
+    private final byte[] type;
+    // the beans the table was made from, or built on first use
+    private final AtomicReferenceArray<Course> beans;
+
+    private CourseTable(Builder b) {
+        this.size = b.size;
+        this.ids = Arrays.copyOf(b.ids, size);
+        this.names = Arrays.copyOf(b.names, size);
+        this.index = new HashMap<>(b.index);
+        this.lecturer = Arrays.copyOf(b.lecturer, size);
+        this.lecturerNames = b.lecturers.toArray(new String[0]);
+        this.cohort = Arrays.copyOf(b.cohort, size);
+        this.cohortNames = b.cohorts.toArray(new String[0]);
+        this.theoryHours = Arrays.copyOf(b.theoryHours, size);
+        this.labHours = Arrays.copyOf(b.labHours, size);
+        this.labCapacity = Arrays.copyOf(b.labCapacity, size);
+        this.students = Arrays.copyOf(b.students, size);
+        this.type = Arrays.copyOf(b.type, size);
+        this.beans = new AtomicReferenceArray<>(Arrays.copyOf(b.beans, size));
+    }
+
+    public static Builder builder() { return new Builder(); }
+
+    public static CourseTable of(List<Course> courses) {
+        Builder b = new Builder();
+        for (Course c : courses) b.add(c);
+        return b.build();
+    }
+
+    public static final class Builder {
+        private int size;
+        private String[] ids = new String[16];
+        private String[] names = new String[16];
+        private final Map<String, Integer> index = new HashMap<>();
+        private int[] lecturer = new int[16];
+        private final Map<String, Integer> lecturerIds = new HashMap<>();
+        private final List<String> lecturers = new ArrayList<>();
+        private int[] cohort = new int[16];
+        private final Map<String, Integer> cohortIds = new HashMap<>();
+        private final List<String> cohorts = new ArrayList<>();
+        private int[] theoryHours = new int[16];
+        private int[] labHours = new int[16];
+        private int[] labCapacity = new int[16];
+        private int[] students = new int[16];
+        private byte[] type = new byte[16];
+        private Course[] beans = new Course[16];
+
+        private Builder() {}
+
+        public Builder add(Course c) {
+            add(c.getCourseId(), c.getName(), c.getTheoryHours(), c.getLabHours(), c.getLecturer(), c.getType(),
+                    c.getLabCapacity(), c.getStudents(), c.getCohort());
+            beans[size - 1] = c;
+            return this;
+        }
+
+        public Builder add(String courseId, String name, int theory, int lab, String lecturerName, Course.Type kind,
+                           int capacity, int enrolled, String cohortName) {
+            if (size == ids.length) grow(size * 2);
+            int i = size++;
+            ids[i] = courseId;
+            names[i] = name;
+            // a repeated id keeps pointing at its first row
+            if (courseId != null) index.putIfAbsent(courseId, i);
+            lecturer[i] = intern(lecturerName, lecturerIds, lecturers);
+            cohort[i] = intern(cohortName, cohortIds, cohorts);
+            theoryHours[i] = theory;
+            labHours[i] = lab;
+            labCapacity[i] = capacity;
+            students[i] = enrolled;
+            type[i] = (byte) (kind == null ? -1 : kind.ordinal());
+            return this;
+        }
+
+        private static int intern(String name, Map<String, Integer> ids, List<String> names) {
+            if (name == null) return -1;
+            Integer id = ids.get(name);
+            if (id != null) return id;
+            ids.put(name, names.size());
+            names.add(name);
+            return names.size() - 1;
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            lecturer = Arrays.copyOf(lecturer, capacity);
+            cohort = Arrays.copyOf(cohort, capacity);
+            theoryHours = Arrays.copyOf(theoryHours, capacity);
+            labHours = Arrays.copyOf(labHours, capacity);
+            labCapacity = Arrays.copyOf(labCapacity, capacity);
+            students = Arrays.copyOf(students, capacity);
+            type = Arrays.copyOf(type, capacity);
+            beans = Arrays.copyOf(beans, capacity);
+        }
+
+        public CourseTable build() { return new CourseTable(this); }
+    }
+
+    public int size() { return size; }
+
+    public String id(int course) { return ids[course]; }
+    public String name(int course) { return names[course]; }
+
+    // row of the course id, -1 when unknown
+    public int indexOf(String courseId) {
+        Integer i = index.get(courseId);
+        return i == null ? -1 : i;
+    }
+
+    public int lecturer(int course) { return lecturer[course]; }
+    public int lecturerCount() { return lecturerNames.length; }
+    public String lecturerName(int lecturerId) { return lecturerNames[lecturerId]; }
+
+    public int cohort(int course) { return cohort[course]; }
+    public int cohortCount() { return cohortNames.length; }
+    public String cohortName(int cohortId) { return cohortNames[cohortId]; }
+
+    public int theoryHours(int course) { return theoryHours[course]; }
+    public int labHours(int course) { return labHours[course]; }
+    public int labCapacity(int course) { return labCapacity[course]; }
+    public int students(int course) { return students[course]; }
+
+    public Course.Type type(int course) { return type[course] < 0 ? null : TYPES[type[course]]; }
+    public boolean isElective(int course) { return type[course] == Course.Type.ELECTIVE.ordinal(); }
+
+    // the course as a bean; rows added without one get a bean built once and reused
+    public Course course(int course) {
+        Course c = beans.get(course);
+        if (c != null) return c;
+        Course made = new Course(ids[course], names[course], theoryHours[course], labHours[course],
+                lecturer[course] < 0 ? null : lecturerNames[lecturer[course]], type(course));
+        made.setLabCapacity(labCapacity[course]);
+        made.setStudents(students[course]);
+        made.setCohort(cohort[course] < 0 ? null : cohortNames[cohort[course]]);
+        // two threads may both build one; the first to publish wins
+        beans.compareAndSet(course, null, made);
+        return beans.get(course);
+    }
+
+    // read-only list view over course(i), for code that still works with beans (e.g. the GUI)
+    public List<Course> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Course get(int i) {
+                if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+                return course(i);
+            }
+
+            @Override
+            public int size() { return size; }
+        };
+    }
+}
@@ -0,0 +1,253 @@
+package datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps the Constraint checks up to date while placements are added or removed: the same violations and
+// messages as Constraint.runAll (order aside). Every update touches only the moved placement's slot, its course,
+// its instructor/day counter and the rule groups it belongs to, so totals and messages can be read at any time
+// without scanning the schedule. Lab capacity and lab-without-theory depend on the course list only and are
+// redone when the list is replaced or grows. The ordering rules and hard ScheduleRules tracked are the ones
+// registered when the evaluator is created.
+public class IncrementalConstraintEvaluator implements ScheduleListener {
+    private final Schedule schedule;
+    private final Constraint constraint;
+    private final int days;
+    private final boolean labAfterTheory;
+    private final List<PrecedenceRule> orderingRules;
+    private final Map<ScheduleRule.Scope, List<ScheduleRule>> hardRules = new EnumMap<>(ScheduleRule.Scope.class);
+
+    // instructor id * days + day of every overloaded instructor day; the hours themselves are the schedule's
+    private final Set<Integer> overloadedInstructorDays = new LinkedHashSet<>();
+    private final Map<Course, CourseState> courses = new IdentityHashMap<>();
+    // messages of every course whose placements break an ordering rule
+    private final Map<Course, List<String>> orderingViolations = new LinkedHashMap<>();
+    private int orderingCount;
+    // per rule scope: the placements of every course id / lecturer / cohort, and the messages of broken groups
+    private final Map<ScheduleRule.Scope, Map<String, List<Placement>>> groups = new EnumMap<>(ScheduleRule.Scope.class);
+    private final Map<ScheduleRule.Scope, Map<String, List<String>>> ruleViolations = new EnumMap<>(ScheduleRule.Scope.class);
+    private int ruleCount;
+
+    // course-list checks and the list they were made for
+    private List<Course> courseList;
+    private int courseCount = -1;
+    private final List<Course> labsWithoutTheory = new ArrayList<>();
+    private final List<Course> capacityViolations = new ArrayList<>();
+
+    // slots of the placed theory and lab blocks of one course (a handful at most)
+    private static final class CourseState {
+        int[] theory = new int[2];
+        int theoryCount;
+        int[] lab = new int[2];
+        int labCount;
+    }
+
+    public IncrementalConstraintEvaluator(Schedule schedule, Constraint constraint) {
+        this.schedule = schedule;
+        this.constraint = constraint;
+        this.days = schedule.getDayCount();
+        this.labAfterTheory = constraint.isLabAfterTheory();
+        this.orderingRules = constraint.getPrecedenceRules();
+        for (ScheduleRule rule : constraint.getRules()) {
+            if (rule.isHard()) hardRules.computeIfAbsent(rule.getScope(), k -> new ArrayList<>()).add(rule);
+        }
+        for (ScheduleRule.Scope scope : hardRules.keySet()) {
+            groups.put(scope, new HashMap<>());
+            ruleViolations.put(scope, new LinkedHashMap<>());
+        }
+        for (Placement p : schedule.getPlacements()) placed(p);
+        schedule.addListener(this);
+    }
+
+    public void detach() { schedule.removeListener(this); }
+
+    @Override
+    public void placed(Placement p) {
+        int day = schedule.dayOf(p.getSlot());
+        if (!p.isLab() && p.instructorId >= 0) refreshInstructorDay(p.instructorId, day);
+        CourseState st = courses.computeIfAbsent(p.getCourse(), k -> new CourseState());
+        if (p.isLab()) {
+            if (st.labCount == st.lab.length) st.lab = Arrays.copyOf(st.lab, st.labCount * 2);
+            st.lab[st.labCount++] = p.getSlot();
+        } else {
+            if (st.theoryCount == st.theory.length) st.theory = Arrays.copyOf(st.theory, st.theoryCount * 2);
+            st.theory[st.theoryCount++] = p.getSlot();
+        }
+        refreshOrdering(p.getCourse(), st);
+        for (ScheduleRule.Scope scope : hardRules.keySet()) {
+            String owner = Constraint.ownerOf(p.getCourse(), scope);
+            if (owner == null) continue;
+            List<Placement> group = groups.get(scope).computeIfAbsent(owner, k -> new ArrayList<>());
+            group.add(p);
+            refreshGroup(scope, owner, group);
+        }
+    }
+
+    @Override
+    public void removed(Placement p) {
+        int day = schedule.dayOf(p.getSlot());
+        if (!p.isLab() && p.instructorId >= 0) refreshInstructorDay(p.instructorId, day);
+        CourseState st = courses.get(p.getCourse());
+        if (st != null) {
+            if (p.isLab()) st.labCount = removeSlot(st.lab, st.labCount, p.getSlot());
+            else st.theoryCount = removeSlot(st.theory, st.theoryCount, p.getSlot());
+            if (st.labCount == 0 && st.theoryCount == 0) courses.remove(p.getCourse());
+            refreshOrdering(p.getCourse(), st);
+        }
+        for (ScheduleRule.Scope scope : hardRules.keySet()) {
+            String owner = Constraint.ownerOf(p.getCourse(), scope);
+            List<Placement> group = owner == null ? null : groups.get(scope).get(owner);
+            if (group == null) continue;
+            group.remove(p);
+            if (group.isEmpty()) groups.get(scope).remove(owner);
+            refreshGroup(scope, owner, group);
+        }
+    }
+
+    @Override
+    public void cleared() {
+        overloadedInstructorDays.clear();
+        courses.clear();
+        orderingViolations.clear();
+        orderingCount = 0;
+        for (Map<String, List<Placement>> g : groups.values()) g.clear();
+        for (Map<String, List<String>> v : ruleViolations.values()) v.clear();
+        ruleCount = 0;
+    }
+
+    // the schedule has already updated its load matrix when listeners are told
+    private void refreshInstructorDay(int instructor, int day) {
+        int key = instructor * days + day;
+        if (schedule.getTheoryLoad().isOverloaded(instructor, day)) overloadedInstructorDays.add(key);
+        else overloadedInstructorDays.remove(key);
+    }
+
+    private static int removeSlot(int[] slots, int count, int slot) {
+        for (int i = 0; i < count; i++) {
+            if (slots[i] == slot) {
+                slots[i] = slots[count - 1];
+                return count - 1;
+            }
+        }
+        return count;
+    }
+
+    // re-checks the ordering rules on the course's own few placements (blocks of a kind taken in slot order)
+    private void refreshOrdering(Course c, CourseState st) {
+        List<String> old = orderingViolations.remove(c);
+        if (old != null) orderingCount -= old.size();
+        if (orderingRules.isEmpty() || st.theoryCount + st.labCount == 0) return;
+        int[] slotOf = new int[st.theoryCount + st.labCount];
+        int[][] blocks = new int[BlockKind.values().length][];
+        blocks[BlockKind.THEORY.ordinal()] = nodes(st.theory, st.theoryCount, 0, slotOf);
+        blocks[BlockKind.LAB.ordinal()] = nodes(st.lab, st.labCount, st.theoryCount, slotOf);
+        int[] violated = PrecedenceGraph.builder(slotOf.length).apply(orderingRules, c, blocks).build().violations(slotOf);
+        if (violated.length == 0) return;
+        Set<String> messages = new LinkedHashSet<>();
+        for (int i = 0; i < violated.length; i += 2) {
+            messages.add(Constraint.orderingMessage(c, kindOf(violated[i], st), kindOf(violated[i + 1], st)));
+        }
+        orderingViolations.put(c, new ArrayList<>(messages));
+        orderingCount += messages.size();
+    }
+
+    // node ids first .. first + count - 1 for the sorted slots
+    private static int[] nodes(int[] slots, int count, int first, int[] slotOf) {
+        int[] sorted = Arrays.copyOf(slots, count);
+        Arrays.sort(sorted);
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = first + i;
+            slotOf[first + i] = sorted[i];
+        }
+        return ids;
+    }
+
+    private static BlockKind kindOf(int node, CourseState st) { return node < st.theoryCount ? BlockKind.THEORY : BlockKind.LAB; }
+
+    // re-evaluates the hard rules of one scope on the placements of one group
+    private void refreshGroup(ScheduleRule.Scope scope, String owner, List<Placement> group) {
+        List<String> old = ruleViolations.get(scope).remove(owner);
+        if (old != null) ruleCount -= old.size();
+        if (group.isEmpty()) return;
+        Constraint.PlacementView view = new Constraint.PlacementView(group, schedule.getCalendar());
+        List<String> messages = new ArrayList<>();
+        for (ScheduleRule rule : hardRules.get(scope)) {
+            int penalty = rule.penalty(view);
+            if (penalty > 0) messages.add(Constraint.ruleMessage(rule, owner, penalty));
+        }
+        if (messages.isEmpty()) return;
+        ruleViolations.get(scope).put(owner, messages);
+        ruleCount += messages.size();
+    }
+
+    private void refreshCourseList() {
+        List<Course> list = schedule.getCourseList();
+        if (list == courseList && list.size() == courseCount) return;
+        courseList = list;
+        courseCount = list.size();
+        labsWithoutTheory.clear();
+        capacityViolations.clear();
+        for (Course c : list) {
+            if (Constraint.labWithoutTheory(c)) labsWithoutTheory.add(c);
+            if (Constraint.capacityExceeded(c)) capacityViolations.add(c);
+        }
+    }
+
+    private long examSlotsUsed() {
+        return constraint.isFridayExamBlock() ? schedule.usedSlotsMask() & schedule.getCalendar().examDayMask() : 0L;
+    }
+
+    public int getFridayViolations() { return Long.bitCount(examSlotsUsed()); }
+
+    // lab-after-theory and the added ordering rules, including courses that have labs but no theory
+    public int getLabAfterTheoryViolations() {
+        refreshCourseList();
+        return (labAfterTheory ? labsWithoutTheory.size() : 0) + orderingCount;
+    }
+
+    public int getCapacityViolations() {
+        refreshCourseList();
+        return capacityViolations.size();
+    }
+
+    public int getInstructorLimitViolations() { return overloadedInstructorDays.size(); }
+    public int getRuleViolations() { return ruleCount; }
+
+    // equals Constraint.runAll(schedule).size()
+    public int getTotalViolations() {
+        return getFridayViolations() + getLabAfterTheoryViolations() + getCapacityViolations()
+                + getInstructorLimitViolations() + getRuleViolations();
+    }
+
+    // theory hours the instructor teaches on the given day (0 when unknown)
+    public int getTheoryHours(String instructor, int day) {
+        int id = schedule.getInstructorOccupancy().idOf(instructor);
+        return id < 0 ? 0 : schedule.getTheoryLoad().get(id, day);
+    }
+
+    // the messages of Constraint.runAll, built only from the current violations
+    public List<String> getMessages() {
+        refreshCourseList();
+        List<String> all = new ArrayList<>();
+        for (long m = examSlotsUsed(); m != 0; m &= m - 1) {
+            all.add(Constraint.examBlockMessage(schedule, Long.numberOfTrailingZeros(m)));
+        }
+        if (labAfterTheory) for (Course c : labsWithoutTheory) all.add(Constraint.noTheoryMessage(c));
+        for (List<String> messages : orderingViolations.values()) all.addAll(messages);
+        for (Course c : capacityViolations) all.add(Constraint.capacityMessage(c));
+        for (int key : overloadedInstructorDays) all.add(Constraint.limitMessage(schedule, key / days, key % days));
+        for (Map<String, List<String>> byOwner : ruleViolations.values()) {
+            for (List<String> messages : byOwner.values()) all.addAll(messages);
+        }
+        return all;
+    }
+}
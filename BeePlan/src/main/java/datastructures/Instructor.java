@@ -1,36 +1,102 @@
 package datastructures;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class Instructor {
-    // availability map: day -> list of available timeslot strings
+    // availability map: day -> list of available timeslot strings; null when none was declared (always
+    // available), while a declared empty map means never available. Kept as an unmodifiable copy so the
+    // compiled mask cannot go stale behind its back.
     private String name;
     private Map<String, List<String>> availability;
+    // availability compiled for one calendar; replaced as a whole, so readers on other threads never pair
+    // one calendar with another calendar's mask
+    private volatile Compiled compiled;
 
-    public Instructor() {
-        this.availability = new HashMap<>();
+    // bit i of mask = available in slot i of calendar
+    private static final class Compiled {
+        final SlotCalendar calendar;
+        final long mask;
+
+        Compiled(SlotCalendar calendar, long mask) {
+            this.calendar = calendar;
+            this.mask = mask;
+        }
     }
 
+    public Instructor() {}
+
     public Instructor(String name, Map<String, List<String>> availability) {
         this.name = name;
-        this.availability = availability == null ? new HashMap<>() : availability;
+        this.availability = copyOf(availability);
+    }
+
+    private static Map<String, List<String>> copyOf(Map<String, List<String>> availability) {
+        if (availability == null) return null;
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> e : availability.entrySet()) {
+            copy.put(e.getKey(), Collections.unmodifiableList(new ArrayList<>(e.getValue())));
+        }
+        return Collections.unmodifiableMap(copy);
     }
 
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
-    public Map<String, List<String>> getAvailability() { return availability; }
-    public void setAvailability(Map<String, List<String>> availability) { this.availability = availability; }
+    // empty both when nothing was declared and when no slot is free; isAvailabilityDeclared tells them apart
+    public Map<String, List<String>> getAvailability() { return availability == null ? Map.of() : availability; }
+    public boolean isAvailabilityDeclared() { return availability != null; }
+    public void setAvailability(Map<String, List<String>> availability) {
+        this.availability = copyOf(availability);
+        this.compiled = null;
+    }
+
+    // translates the day -> timeslots map into one mask over the calendar's slot index
+    public long compileAvailability(SlotCalendar calendar) {
+        long mask = 0L;
+        for (Map.Entry<String, List<String>> e : getAvailability().entrySet()) {
+            for (String timeslot : e.getValue()) {
+                int slot = calendar.slotIndex(e.getKey(), timeslot);
+                if (slot >= 0) mask |= 1L << slot;
+            }
+        }
+        compiled = new Compiled(calendar, mask);
+        return mask;
+    }
+
+    public long compileAvailability(Schedule schedule) { return compileAvailability(schedule.getCalendar()); }
+
+    // compiled mask for the calendar; recompiled only when the calendar or the map was replaced
+    public long getAvailabilityMask(SlotCalendar calendar) {
+        Compiled c = compiled;
+        return c != null && c.calendar.equals(calendar) ? c.mask : compileAvailability(calendar);
+    }
+
+    public long getAvailabilityMask(Schedule schedule) { return getAvailabilityMask(schedule.getCalendar()); }
+
+    // slot index of the last compiled calendar
+    public boolean isAvailable(int slot) {
+        Compiled c = compiled;
+        return c != null && (c.mask & (1L << slot)) != 0;
+    }
 
+    // days match ignoring case and timeslots exactly, as SlotCalendar matches them, whether or not the map
+    // was compiled yet; names the compiled calendar does not know are looked up in the map
     public boolean isAvailable(String day, String timeslot) {
-        List<String> slots = availability.get(day);
-        return slots != null && slots.contains(timeslot);
+        Compiled c = compiled;
+        int slot = c == null ? -1 : c.calendar.slotIndex(day, timeslot);
+        if (slot >= 0) return (c.mask & (1L << slot)) != 0;
+        for (Map.Entry<String, List<String>> e : getAvailability().entrySet()) {
+            if (e.getKey().equalsIgnoreCase(day) && e.getValue().contains(timeslot)) return true;
+        }
+        return false;
     }
 
     @Override
     public String toString() {
         return "Instructor{" + name + "}";
     }
-}
\ No newline at end of file
+}
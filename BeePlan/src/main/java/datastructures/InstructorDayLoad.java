@@ -0,0 +1,49 @@
+package datastructures;
+
+import java.util.Arrays;
+
+// Instructor x day load matrix in one int array (row = instructor id, column = day) with a per-day limit.
+// Units are up to the owner (hours in Schedule, blocks in the solver); every query and update is O(1).
+public final class InstructorDayLoad {
+    private final int days;
+    private final int limit;
+    private int[] load;
+
+    public InstructorDayLoad(int days, int limit) {
+        this(days, limit, 16);
+    }
+
+    public InstructorDayLoad(int days, int limit, int instructors) {
+        this.days = days;
+        this.limit = limit;
+        this.load = new int[Math.max(1, instructors) * days];
+    }
+
+    public int getDays() { return days; }
+    public int getLimit() { return limit; }
+    // rows currently allocated; ids at or above this have no load yet
+    public int getInstructors() { return load.length / days; }
+
+    public int get(int instructor, int day) {
+        int key = instructor * days + day;
+        return key < load.length ? load[key] : 0;
+    }
+
+    // true when amount more still keeps the instructor within the limit on that day
+    public boolean canTake(int instructor, int day, int amount) {
+        return get(instructor, day) + amount <= limit;
+    }
+
+    public boolean isOverloaded(int instructor, int day) {
+        return get(instructor, day) > limit;
+    }
+
+    // adds (or with a negative amount removes) load and returns the new value
+    public int add(int instructor, int day, int amount) {
+        int key = instructor * days + day;
+        if (key >= load.length) load = Arrays.copyOf(load, Math.max(key + days, load.length * 2) / days * days);
+        return load[key] += amount;
+    }
+
+    public void clear() { Arrays.fill(load, 0); }
+}
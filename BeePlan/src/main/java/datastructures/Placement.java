@@ -0,0 +1,37 @@
+package datastructures;
+
+// One course block put into one slot of a Schedule. Resource ids are resolved when the block is placed
+// so that removing it never has to hash a name again (-1 = resource not tracked).
+public class Placement {
+    private final Course course;
+    private final int slot;
+    private final boolean lab;
+    private final String room;
+    // pinned placements are fixed inputs (e.g. the common schedule) that the solver must keep
+    private final boolean pinned;
+    final int instructorId;
+    final int roomId;
+    final int cohortId;
+
+    Placement(Course course, int slot, boolean lab, String room, boolean pinned, int instructorId, int roomId, int cohortId) {
+        this.course = course;
+        this.slot = slot;
+        this.lab = lab;
+        this.room = room;
+        this.pinned = pinned;
+        this.instructorId = instructorId;
+        this.roomId = roomId;
+        this.cohortId = cohortId;
+    }
+
+    public Course getCourse() { return course; }
+    public int getSlot() { return slot; }
+    public boolean isLab() { return lab; }
+    public String getRoom() { return room; }
+    public boolean isPinned() { return pinned; }
+
+    @Override
+    public String toString() {
+        return course.getCourseId() + (lab ? " (Lab)" : "") + "@" + slot + (room == null ? "" : " " + room);
+    }
+}
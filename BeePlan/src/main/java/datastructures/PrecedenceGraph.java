@@ -0,0 +1,134 @@
+package datastructures;
+
+import java.util.Arrays;
+
+// Directed graph of "a must come before b" edges over block nodes. Built once, then read-only:
+// successor/predecessor lists are plain int arrays and a topological order is computed at build time,
+// so validation and domain narrowing are single O(V+E) passes over slot indices.
+public final class PrecedenceGraph {
+    private static final int[] NONE = new int[0];
+
+    private final int[][] successors;
+    private final int[][] predecessors;
+    private final int[] topologicalOrder;   // null when the edges form a cycle
+    private final int edgeCount;
+
+    private PrecedenceGraph(int[][] successors, int[][] predecessors, int[] topologicalOrder, int edgeCount) {
+        this.successors = successors;
+        this.predecessors = predecessors;
+        this.topologicalOrder = topologicalOrder;
+        this.edgeCount = edgeCount;
+    }
+
+    public static Builder builder(int nodes) { return new Builder(nodes); }
+
+    public static final class Builder {
+        private final int nodes;
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private int edges;
+
+        private Builder(int nodes) {
+            this.nodes = nodes;
+        }
+
+        // before has to get a strictly smaller slot than after
+        public Builder addEdge(int before, int after) {
+            if (before < 0 || before >= nodes || after < 0 || after >= nodes) {
+                throw new IllegalArgumentException("edge " + before + " -> " + after + " outside 0.." + (nodes - 1));
+            }
+            if (edges == from.length) {
+                from = Arrays.copyOf(from, edges * 2);
+                to = Arrays.copyOf(to, edges * 2);
+            }
+            from[edges] = before;
+            to[edges] = after;
+            edges++;
+            return this;
+        }
+
+        // applies every rule to one course whose blocks are given per kind
+        public Builder apply(Iterable<PrecedenceRule> rules, Course course, int[][] blocks) {
+            for (PrecedenceRule rule : rules) rule.addEdges(course, blocks, this);
+            return this;
+        }
+
+        public PrecedenceGraph build() {
+            int[] outDegree = new int[nodes], inDegree = new int[nodes];
+            for (int e = 0; e < edges; e++) {
+                outDegree[from[e]]++;
+                inDegree[to[e]]++;
+            }
+            int[][] succ = new int[nodes][], pred = new int[nodes][];
+            for (int n = 0; n < nodes; n++) {
+                succ[n] = outDegree[n] == 0 ? NONE : new int[outDegree[n]];
+                pred[n] = inDegree[n] == 0 ? NONE : new int[inDegree[n]];
+            }
+            int[] fillOut = new int[nodes], fillIn = new int[nodes];
+            for (int e = 0; e < edges; e++) {
+                succ[from[e]][fillOut[from[e]]++] = to[e];
+                pred[to[e]][fillIn[to[e]]++] = from[e];
+            }
+            // Kahn's algorithm; inDegree is consumed
+            int[] order = new int[nodes];
+            int head = 0, tail = 0;
+            for (int n = 0; n < nodes; n++) if (inDegree[n] == 0) order[tail++] = n;
+            while (head < tail) {
+                for (int m : succ[order[head++]]) if (--inDegree[m] == 0) order[tail++] = m;
+            }
+            return new PrecedenceGraph(succ, pred, tail == nodes ? order : null, edges);
+        }
+    }
+
+    public int getNodeCount() { return successors.length; }
+    public int getEdgeCount() { return edgeCount; }
+    public boolean isAcyclic() { return topologicalOrder != null; }
+
+    // nodes that must come after / before the given node (shared arrays, do not modify)
+    public int[] successors(int node) { return successors[node]; }
+    public int[] predecessors(int node) { return predecessors[node]; }
+
+    // violated edges as flattened (before, after) pairs; nodes with a negative slot are unplaced and skipped
+    public int[] violations(int[] slotOf) {
+        int[] out = NONE;
+        int count = 0;
+        for (int a = 0; a < successors.length; a++) {
+            int sa = slotOf[a];
+            if (sa < 0) continue;
+            for (int b : successors[a]) {
+                int sb = slotOf[b];
+                if (sb < 0 || sb > sa) continue;
+                if (count + 2 > out.length) out = Arrays.copyOf(out, Math.max(8, out.length * 2));
+                out[count++] = a;
+                out[count++] = b;
+            }
+        }
+        return Arrays.copyOf(out, count);
+    }
+
+    // removes from each slot-bitset domain the slots that cannot respect the edges whatever the other blocks
+    // do (bounds propagation in topological order, then in reverse). False if the graph is cyclic or some
+    // domain that was not empty becomes empty.
+    public boolean narrow(long[] domain) {
+        if (topologicalOrder == null) return false;
+        boolean ok = true;
+        for (int n : topologicalOrder) {
+            if (domain[n] == 0L) continue;
+            int earliest = Long.numberOfTrailingZeros(domain[n]);
+            long after = earliest == 63 ? 0L : -1L << (earliest + 1);
+            for (int m : successors[n]) {
+                if (domain[m] != 0L && (domain[m] &= after) == 0L) ok = false;
+            }
+        }
+        for (int i = topologicalOrder.length - 1; i >= 0; i--) {
+            int n = topologicalOrder[i];
+            if (domain[n] == 0L) continue;
+            int latest = 63 - Long.numberOfLeadingZeros(domain[n]);
+            long before = (1L << latest) - 1;
+            for (int m : predecessors[n]) {
+                if (domain[m] != 0L && (domain[m] &= before) == 0L) ok = false;
+            }
+        }
+        return ok;
+    }
+}
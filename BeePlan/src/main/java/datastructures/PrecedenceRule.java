@@ -0,0 +1,14 @@
+package datastructures;
+
+// A source of "must come after" edges between the blocks of one course.
+// blocks[kind.ordinal()] holds the node ids of the course's blocks of that kind, in ascending order.
+public interface PrecedenceRule {
+    void addEdges(Course course, int[][] blocks, PrecedenceGraph.Builder graph);
+
+    // every lab block after every theory block of the same course
+    PrecedenceRule LAB_AFTER_THEORY = (course, blocks, graph) -> {
+        for (int t : blocks[BlockKind.THEORY.ordinal()]) {
+            for (int l : blocks[BlockKind.LAB.ordinal()]) graph.addEdge(t, l);
+        }
+    };
+}
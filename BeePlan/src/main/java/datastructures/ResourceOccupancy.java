@@ -0,0 +1,49 @@
+package datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Occupancy of one kind of resource (instructors, rooms or cohorts).
+// Names are interned to dense ids once; busy[id] is a bitset over slot indices (bit i = busy in slot i).
+public class ResourceOccupancy {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private long[] busy = new long[16];
+
+    public ResourceOccupancy() {}
+
+    // returns the id of name, registering it if it was not seen before
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        int next = names.size();
+        ids.put(name, next);
+        names.add(name);
+        if (next == busy.length) busy = Arrays.copyOf(busy, next * 2);
+        return next;
+    }
+
+    // returns the id of name or -1 when unknown
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public String nameOf(int id) { return names.get(id); }
+
+    public int size() { return names.size(); }
+
+    public long busyMask(int id) { return busy[id]; }
+
+    public boolean isBusy(int id, int slot) { return (busy[id] & (1L << slot)) != 0; }
+
+    public void occupy(int id, int slot) { busy[id] |= 1L << slot; }
+
+    public void release(int id, int slot) { busy[id] &= ~(1L << slot); }
+
+    // drops all occupancy but keeps the interned ids
+    public void clear() { Arrays.fill(busy, 0L); }
+}
@@ -0,0 +1,32 @@
+package datastructures;
+
+public class Room {
+    // lecture rooms take theory blocks, labs take lab blocks
+    public enum Kind { LECTURE, LAB }
+
+    private String name;
+    private int capacity;
+    private Kind kind;
+
+    public Room() {}
+
+    public Room(String name, int capacity, Kind kind) {
+        this.name = name;
+        this.capacity = capacity;
+        this.kind = kind;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+
+    @Override
+    public String toString() {
+        return name + " (" + kind + ", " + capacity + ")";
+    }
+}
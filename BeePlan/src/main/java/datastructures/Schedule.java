@@ -1,71 +1,251 @@
 package datastructures;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+// Days, timeslots and their slot indices come from the SlotCalendar the schedule was made with.
 public class Schedule {
+    public static final List<String> DEFAULT_TIMESLOTS = SlotCalendar.DEFAULT_TIMESLOTS;
+    public static final int MAX_SLOTS = SlotCalendar.MAX_SLOTS;
+
     private String id;
-    // weeklyGrid: day -> timeslot -> Course
-    private Map<String, Map<String, Course>> weeklyGrid;
+    private final SlotCalendar calendar;
+    private final List<String> timeslots;
+    private final int slotsPerDay;
+    private final int slotCount;
+
+    // dense timetable: slot index (day * slotsPerDay + timeslot) -> placements in that slot
+    private final List<List<Placement>> slots;
+    private long usedSlots;
+    private final ResourceOccupancy instructors = new ResourceOccupancy();
+    private final ResourceOccupancy rooms = new ResourceOccupancy();
+    private final ResourceOccupancy cohorts = new ResourceOccupancy();
+    // theory hours per instructor id and day, kept in step with the placements
+    private final InstructorDayLoad theoryLoad;
     private List<Course> courseList;
+    private final List<ScheduleListener> listeners = new ArrayList<>();
 
     public Schedule() {
-        this.weeklyGrid = new HashMap<>();
+        this(SlotCalendar.DEFAULT);
+    }
+
+    // the default days with the given timeslot labels
+    public Schedule(List<String> timeslots) {
+        this(SlotCalendar.of(SlotCalendar.DEFAULT_DAYS, timeslots));
+    }
+
+    public Schedule(SlotCalendar calendar) {
+        this.calendar = calendar;
+        this.timeslots = calendar.getTimeslots();
+        this.slotsPerDay = calendar.getSlotsPerDay();
+        this.slotCount = calendar.getSlotCount();
         this.courseList = new ArrayList<>();
-        // initialize weekday maps for Mon-Fri
-        weeklyGrid.put("Mon", new HashMap<>());
-        weeklyGrid.put("Tue", new HashMap<>());
-        weeklyGrid.put("Wed", new HashMap<>());
-        weeklyGrid.put("Thu", new HashMap<>());
-        weeklyGrid.put("Fri", new HashMap<>());
+        this.theoryLoad = new InstructorDayLoad(calendar.getDayCount(), Constraint.MAX_THEORY_HOURS_PER_DAY);
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) slots.add(new ArrayList<>(1));
     }
 
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
 
-    public Map<String, Map<String, Course>> getWeeklyGrid() { return weeklyGrid; }
-    public void setWeeklyGrid(Map<String, Map<String, Course>> weeklyGrid) { this.weeklyGrid = weeklyGrid; }
+    public SlotCalendar getCalendar() { return calendar; }
+    public List<String> getTimeslots() { return timeslots; }
+    public int getDayCount() { return calendar.getDayCount(); }
+    public int getSlotsPerDay() { return slotsPerDay; }
+    public int getSlotCount() { return slotCount; }
 
     public List<Course> getCourseList() { return courseList; }
     public void setCourseList(List<Course> courseList) { this.courseList = courseList; }
 
     public void addCourse(Course c) { this.courseList.add(c); }
 
-    // naive placement: try to place each course into first available timeslot on first available day
-    public void placeCoursesAuto(List<String> timeslots) {
-        for (Course c : courseList) {
-            boolean placed = false;
-            for (String day : new String[] {"Mon","Tue","Wed","Thu","Fri"}) {
-                Map<String, Course> dayMap = weeklyGrid.get(day);
-                for (String slot : timeslots) {
-                    if (!dayMap.containsKey(slot) || dayMap.get(slot) == null) {
-                        dayMap.put(slot, c);
-                        placed = true;
-                        break;
-                    }
-                }
-                if (placed) break;
+    public void addListener(ScheduleListener l) { listeners.add(l); }
+    public void removeListener(ScheduleListener l) { listeners.remove(l); }
+
+    // ---- slot index arithmetic ----
+
+    public int slotIndex(int day, int timeslot) { return day * slotsPerDay + timeslot; }
+
+    // returns -1 when the day or timeslot is not part of this schedule
+    public int slotIndex(String day, String timeslot) { return calendar.slotIndex(day, timeslot); }
+
+    public int dayOf(int slot) { return slot / slotsPerDay; }
+    public int timeslotOf(int slot) { return slot % slotsPerDay; }
+    public String dayName(int slot) { return calendar.dayName(dayOf(slot)); }
+    public String timeslotName(int slot) { return timeslots.get(timeslotOf(slot)); }
+
+    // mask with one bit per slot of the week
+    public long allSlotsMask() { return calendar.allSlotsMask(); }
+
+    // mask of all slots on the given day
+    public long dayMask(int day) { return calendar.dayMask(day); }
+
+    // ---- placements ----
+
+    public Placement place(Course c, int slot) { return place(c, slot, false, null); }
+
+    public Placement place(Course c, int slot, boolean lab, String room) {
+        return place(c, slot, lab, room, false);
+    }
+
+    // places a block the solver has to keep where it is
+    public Placement pin(Course c, int slot, boolean lab, String room) {
+        return place(c, slot, lab, room, true);
+    }
+
+    private Placement place(Course c, int slot, boolean lab, String room, boolean pinned) {
+        int instructorId = c.getLecturer() == null ? -1 : instructors.intern(c.getLecturer());
+        int roomId = room == null ? -1 : rooms.intern(room);
+        int cohortId = c.getCohort() == null ? -1 : cohorts.intern(c.getCohort());
+        Placement p = new Placement(c, slot, lab, room, pinned, instructorId, roomId, cohortId);
+        slots.get(slot).add(p);
+        usedSlots |= 1L << slot;
+        if (instructorId >= 0) instructors.occupy(instructorId, slot);
+        if (roomId >= 0) rooms.occupy(roomId, slot);
+        if (cohortId >= 0) cohorts.occupy(cohortId, slot);
+        if (!lab && instructorId >= 0) theoryLoad.add(instructorId, dayOf(slot), calendar.hours(timeslotOf(slot)));
+        for (ScheduleListener l : listeners) l.placed(p);
+        return p;
+    }
+
+    public boolean remove(Placement p) {
+        int slot = p.getSlot();
+        List<Placement> inSlot = slots.get(slot);
+        if (!inSlot.remove(p)) return false;
+        if (inSlot.isEmpty()) usedSlots &= ~(1L << slot);
+        // a resource stays busy if another placement in the same slot still uses it
+        boolean instructorBusy = false, roomBusy = false, cohortBusy = false;
+        for (Placement o : inSlot) {
+            instructorBusy |= p.instructorId >= 0 && o.instructorId == p.instructorId;
+            roomBusy |= p.roomId >= 0 && o.roomId == p.roomId;
+            cohortBusy |= p.cohortId >= 0 && o.cohortId == p.cohortId;
+        }
+        if (p.instructorId >= 0 && !instructorBusy) instructors.release(p.instructorId, slot);
+        if (p.roomId >= 0 && !roomBusy) rooms.release(p.roomId, slot);
+        if (p.cohortId >= 0 && !cohortBusy) cohorts.release(p.cohortId, slot);
+        if (!p.isLab() && p.instructorId >= 0) theoryLoad.add(p.instructorId, dayOf(slot), -calendar.hours(timeslotOf(slot)));
+        for (ScheduleListener l : listeners) l.removed(p);
+        return true;
+    }
+
+    // gives placements of one slot a room without moving them: rooms[i] (when not null) goes to the i-th
+    // placement of getPlacements(slot). Each changed placement is replaced by a copy carrying the room.
+    public void setRooms(int slot, String[] rooms) {
+        List<Placement> inSlot = slots.get(slot);
+        for (int i = 0; i < inSlot.size() && i < rooms.length; i++) {
+            if (rooms[i] == null) continue;
+            Placement old = inSlot.get(i);
+            int roomId = this.rooms.intern(rooms[i]);
+            Placement p = new Placement(old.getCourse(), slot, old.isLab(), rooms[i], old.isPinned(),
+                    old.instructorId, roomId, old.cohortId);
+            if (old.roomId >= 0) {
+                boolean stillBusy = false;
+                for (Placement o : inSlot) stillBusy |= o != old && o.roomId == old.roomId;
+                if (!stillBusy) this.rooms.release(old.roomId, slot);
+            }
+            this.rooms.occupy(roomId, slot);
+            inSlot.set(i, p);
+            for (ScheduleListener l : listeners) l.removed(old);
+            for (ScheduleListener l : listeners) l.placed(p);
+        }
+    }
+
+    public void clearPlacements() {
+        for (List<Placement> inSlot : slots) inSlot.clear();
+        usedSlots = 0L;
+        instructors.clear();
+        rooms.clear();
+        cohorts.clear();
+        theoryLoad.clear();
+        for (ScheduleListener l : listeners) l.cleared();
+    }
+
+    public List<Placement> getPinnedPlacements() {
+        List<Placement> pinned = new ArrayList<>();
+        for (List<Placement> inSlot : slots) {
+            for (Placement p : inSlot) if (p.isPinned()) pinned.add(p);
+        }
+        return pinned;
+    }
+
+    public List<Placement> getPlacements(int slot) { return Collections.unmodifiableList(slots.get(slot)); }
+
+    public List<Placement> getPlacements() {
+        List<Placement> all = new ArrayList<>();
+        for (List<Placement> inSlot : slots) all.addAll(inSlot);
+        return all;
+    }
+
+    // slots where the course's instructor, cohort and (optional) room are all free and the instructor is available
+    public long freeSlots(Course c, long availability, String room) {
+        long free = allSlotsMask() & availability;
+        int inst = c.getLecturer() == null ? -1 : instructors.idOf(c.getLecturer());
+        int cohort = c.getCohort() == null ? -1 : cohorts.idOf(c.getCohort());
+        int roomId = room == null ? -1 : rooms.idOf(room);
+        if (inst >= 0) free &= ~instructors.busyMask(inst);
+        if (cohort >= 0) free &= ~cohorts.busyMask(cohort);
+        if (roomId >= 0) free &= ~rooms.busyMask(roomId);
+        return free;
+    }
+
+    public boolean isSlotFree(int slot) { return (usedSlots & (1L << slot)) == 0; }
+    public long usedSlotsMask() { return usedSlots; }
+
+    public ResourceOccupancy getInstructorOccupancy() { return instructors; }
+    public ResourceOccupancy getRoomOccupancy() { return rooms; }
+    public ResourceOccupancy getCohortOccupancy() { return cohorts; }
+    // row ids are those of getInstructorOccupancy()
+    public InstructorDayLoad getTheoryLoad() { return theoryLoad; }
+
+    // ---- compatibility view ----
+
+    // day -> timeslot -> Course snapshot of the first placement in every slot (built on demand)
+    public Map<String, Map<String, Course>> getWeeklyGrid() {
+        Map<String, Map<String, Course>> grid = new LinkedHashMap<>();
+        for (int d = 0; d < calendar.getDayCount(); d++) {
+            Map<String, Course> dayMap = new LinkedHashMap<>();
+            for (int t = 0; t < slotsPerDay; t++) {
+                List<Placement> inSlot = slots.get(slotIndex(d, t));
+                if (!inSlot.isEmpty()) dayMap.put(timeslots.get(t), inSlot.get(0).getCourse());
             }
+            grid.put(calendar.dayName(d), dayMap);
         }
+        return grid;
     }
 
-    // detect simple conflicts: same timeslot/day assigned more than once — with this model we only allow one course per slot so conflict if null-check fails
-    public List<String> detectConflicts() {
-        List<String> problems = new ArrayList<>();
-        // placeholder: no multiple assignment support; if some marker indicates conflict, we'd add messages
-        // Keep this as extension point
-        return problems;
+    // replaces all placements with the given day -> timeslot -> Course grid; unknown keys are skipped
+    public void setWeeklyGrid(Map<String, Map<String, Course>> weeklyGrid) {
+        clearPlacements();
+        for (Map.Entry<String, Map<String, Course>> day : weeklyGrid.entrySet()) {
+            for (Map.Entry<String, Course> e : day.getValue().entrySet()) {
+                int slot = slotIndex(day.getKey(), e.getKey());
+                if (slot >= 0 && e.getValue() != null) place(e.getValue(), slot);
+            }
+        }
     }
 
-    // helper to aggregate theory hours by instructor (naive, not day-sliced)
-    public Map<String, Integer> aggregateTheoryHoursByInstructor() {
-        Map<String, Integer> agg = new HashMap<>();
+    // naive placement: put each course into the first empty slot, days in order, then the given timeslots.
+    // Ignores lab hours and instructor availability; the GUI places courses with solver.BacktrackingSolver.
+    public void placeCoursesAuto(List<String> timeslots) {
+        // resolve the allowed timeslots once; every probe below is a mask operation
+        long allowed = 0L;
+        for (String slot : timeslots) {
+            int t = calendar.timeslotIndex(slot);
+            if (t < 0) continue;
+            for (int d = 0; d < calendar.getDayCount(); d++) allowed |= 1L << slotIndex(d, t);
+        }
         for (Course c : courseList) {
-            String inst = c.getLecturer() == null ? "UNKNOWN" : c.getLecturer();
-            agg.put(inst, agg.getOrDefault(inst, 0) + c.getTheoryHours());
+            long free = allowed & ~usedSlots;
+            if (free == 0L) break;
+            place(c, Long.numberOfTrailingZeros(free));
         }
-        return agg;
     }
-}
\ No newline at end of file
+
+    // instructor, room and cohort double-bookings (several placements may share a slot)
+    public List<Conflict> detectConflicts() {
+        return ConflictDetector.detect(this);
+    }
+}
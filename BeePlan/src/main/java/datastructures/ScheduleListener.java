@@ -0,0 +1,11 @@
+package datastructures;
+
+// Notified synchronously by Schedule whenever a placement is added or removed
+public interface ScheduleListener {
+    void placed(Placement p);
+
+    void removed(Placement p);
+
+    // all placements were dropped at once
+    void cleared();
+}
@@ -0,0 +1,70 @@
+package datastructures;
+
+import java.util.Objects;
+
+// A rule plugged into Constraint. It is evaluated per resource of its scope (one course, one instructor or
+// one cohort) over the blocks of that resource only, so the solver re-evaluates a rule just for the resources
+// a move touches and a new rule never needs a pass over the whole schedule.
+// Hard rules are enforced while searching: they also see partial assignments and must only report violations
+// that placing more blocks cannot repair. Soft rules add weight * penalty to the optimizer's score.
+public final class ScheduleRule {
+    public enum Scope { COURSE, INSTRUCTOR, COHORT }
+
+    @FunctionalInterface
+    public interface Penalty {
+        // 0 when the blocks satisfy the rule, otherwise how badly they break it
+        int of(BlockView blocks);
+    }
+
+    // the lab blocks of a course form one back-to-back run on one day (e.g. a 3-hour lab over two 90-minute
+    // slots); runs end at calendar breaks such as lunch
+    public static final ScheduleRule LABS_BACK_TO_BACK = hard("labs-back-to-back", Scope.COURSE, blocks -> {
+        int labs = 0, first = Integer.MAX_VALUE, last = -1;
+        for (int i = 0; i < blocks.size(); i++) {
+            if (!blocks.isLab(i)) continue;
+            labs++;
+            int s = blocks.slot(i);
+            if (s < 0) continue;
+            first = Math.min(first, s);
+            last = Math.max(last, s);
+        }
+        if (last <= first) return 0;
+        int span = last - first + 1;
+        return span <= labs && (blocks.calendar().runStarts(span) & (1L << first)) != 0 ? 0 : 1;
+    });
+
+    private final String name;
+    private final Scope scope;
+    private final boolean hard;
+    private final int weight;
+    private final Penalty penalty;
+
+    private ScheduleRule(String name, Scope scope, boolean hard, int weight, Penalty penalty) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.scope = Objects.requireNonNull(scope, "scope");
+        this.hard = hard;
+        this.weight = weight;
+        this.penalty = Objects.requireNonNull(penalty, "penalty");
+    }
+
+    public static ScheduleRule hard(String name, Scope scope, Penalty penalty) {
+        return new ScheduleRule(name, scope, true, 1, penalty);
+    }
+
+    public static ScheduleRule soft(String name, Scope scope, int weight, Penalty penalty) {
+        if (weight < 0) throw new IllegalArgumentException("weight must not be negative");
+        return new ScheduleRule(name, scope, false, weight, penalty);
+    }
+
+    public String getName() { return name; }
+    public Scope getScope() { return scope; }
+    public boolean isHard() { return hard; }
+    public int getWeight() { return weight; }
+
+    public int penalty(BlockView blocks) { return penalty.of(blocks); }
+
+    @Override
+    public String toString() {
+        return name + " (" + (hard ? "hard" : "soft, weight " + weight) + ", per " + scope.name().toLowerCase() + ")";
+    }
+}
@@ -0,0 +1,296 @@
+package datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Week layout of a Schedule: the teaching days and the timeslots every day has, each with its own start and
+// end time (minutes after midnight). Slots are addressed by the dense index day * slotsPerDay + timeslot.
+// Two slots are back to back when one ends where the next starts on the same day; a gap (e.g. lunch) breaks
+// the run. The back-to-back tables are built once, so engines compare ints and masks instead of names.
+public final class SlotCalendar {
+    public static final List<String> DEFAULT_DAYS = List.of("Mon", "Tue", "Wed", "Thu", "Fri");
+    public static final List<String> DEFAULT_TIMESLOTS = List.of(
+            "08:30-10:00", "10:00-11:30", "11:30-13:00", "13:30-15:00", "15:00-16:30"
+    );
+    // every slot of the week must fit into one occupancy word
+    public static final int MAX_SLOTS = Long.SIZE;
+    // academic hour; a 90-minute timeslot counts as two
+    public static final int MINUTES_PER_HOUR = 45;
+
+    public static final SlotCalendar DEFAULT = of(DEFAULT_DAYS, DEFAULT_TIMESLOTS);
+
+    private final List<String> days;
+    private final List<String> timeslots;
+    private final int[] start;
+    private final int[] end;
+    private final int[] hours;
+    private final int[] firstHour;   // academic hours of the day before each timeslot starts
+    private final int blockHours;
+    private final int examDay;
+    private final int slotsPerDay;
+    private final int slotCount;
+    private final Map<String, Integer> dayIndex = new HashMap<>();
+    private final Map<String, Integer> timeslotIndex = new HashMap<>();
+
+    private final long[] dayMasks;
+    // bit s set when slot s + 1 follows s without a break
+    private final long followedMask;
+    // runs[k] bit s set when slots s .. s + k - 1 are back to back (k = 1 .. slotsPerDay)
+    private final long[] runs;
+
+    private SlotCalendar(List<String> days, List<String> timeslots, int[] start, int[] end, int examDay) {
+        if (days.isEmpty() || timeslots.isEmpty() || days.size() * timeslots.size() > MAX_SLOTS) {
+            throw new IllegalArgumentException("Calendar needs at least one day and one timeslot and at most "
+                    + MAX_SLOTS + " slots per week");
+        }
+        for (int t = 0; t < start.length; t++) {
+            if (end[t] <= start[t] || (t > 0 && start[t] < end[t - 1])) {
+                throw new IllegalArgumentException("Timeslot " + timeslots.get(t) + " is empty or overlaps the one before");
+            }
+        }
+        if (examDay < -1 || examDay >= days.size()) throw new IllegalArgumentException("Exam day out of range");
+        this.days = List.copyOf(days);
+        this.timeslots = List.copyOf(timeslots);
+        this.start = start.clone();
+        this.end = end.clone();
+        this.examDay = examDay;
+        this.slotsPerDay = timeslots.size();
+        this.slotCount = days.size() * slotsPerDay;
+        for (int d = 0; d < days.size(); d++) {
+            if (dayIndex.put(days.get(d).toLowerCase(Locale.ROOT), d) != null) {
+                throw new IllegalArgumentException("Day " + days.get(d) + " is listed twice");
+            }
+        }
+        for (int t = 0; t < slotsPerDay; t++) timeslotIndex.putIfAbsent(this.timeslots.get(t), t);
+
+        hours = new int[slotsPerDay];
+        firstHour = new int[slotsPerDay + 1];
+        for (int t = 0; t < slotsPerDay; t++) {
+            hours[t] = Math.max(1, Math.round((end[t] - start[t]) / (float) MINUTES_PER_HOUR));
+            firstHour[t + 1] = firstHour[t] + hours[t];
+        }
+        blockHours = Arrays.stream(hours).min().getAsInt();
+        dayMasks = new long[days.size()];
+        long dayBits = slotsPerDay == Long.SIZE ? -1L : (1L << slotsPerDay) - 1;
+        for (int d = 0; d < dayMasks.length; d++) dayMasks[d] = dayBits << (d * slotsPerDay);
+        long followed = 0L;
+        for (int d = 0; d < dayMasks.length; d++) {
+            for (int t = 0; t + 1 < slotsPerDay; t++) {
+                if (end[t] == start[t + 1]) followed |= 1L << slotIndex(d, t);
+            }
+        }
+        followedMask = followed;
+        runs = new long[slotsPerDay + 1];
+        runs[1] = allSlotsMask();
+        for (int k = 2; k <= slotsPerDay; k++) runs[k] = runs[k - 1] & followed & (runs[k - 1] >>> 1);
+    }
+
+    // days and "HH:MM-HH:MM" timeslot labels; the last day is the exam block day
+    public static SlotCalendar of(List<String> days, List<String> timeslots) {
+        Builder b = builder();
+        for (String day : days) b.day(day);
+        for (String label : timeslots) b.timeslot(label);
+        return b.build();
+    }
+
+    public static Builder builder() { return new Builder(); }
+
+    public static final class Builder {
+        private final List<String> days = new ArrayList<>();
+        private final List<String> labels = new ArrayList<>();
+        private int[] start = new int[8];
+        private int[] end = new int[8];
+        private String examDay;
+        private boolean noExamDay;
+
+        private Builder() {}
+
+        public Builder day(String name) {
+            days.add(name);
+            return this;
+        }
+
+        // "HH:MM-HH:MM"; other labels get consecutive 90-minute blocks after the previous timeslot
+        public Builder timeslot(String label) {
+            int[] range = parseRange(label);
+            if (range != null) return timeslot(label, range[0], range[1]);
+            int from = labels.isEmpty() ? 0 : end[labels.size() - 1];
+            return timeslot(label, from, from + 2 * MINUTES_PER_HOUR);
+        }
+
+        public Builder timeslot(String label, int startMinute, int endMinute) {
+            int t = labels.size();
+            if (t == start.length) {
+                start = Arrays.copyOf(start, t * 2);
+                end = Arrays.copyOf(end, t * 2);
+            }
+            labels.add(label);
+            start[t] = startMinute;
+            end[t] = endMinute;
+            return this;
+        }
+
+        // the day kept free for exams; by default the last day
+        public Builder examDay(String name) {
+            examDay = name;
+            noExamDay = false;
+            return this;
+        }
+
+        public Builder noExamDay() {
+            examDay = null;
+            noExamDay = true;
+            return this;
+        }
+
+        public SlotCalendar build() {
+            int exam = noExamDay ? -1 : days.size() - 1;
+            if (examDay != null) {
+                exam = -1;
+                for (int d = 0; d < days.size(); d++) if (days.get(d).equalsIgnoreCase(examDay)) exam = d;
+                if (exam < 0) throw new IllegalArgumentException("Exam day " + examDay + " is not a calendar day");
+            }
+            int n = labels.size();
+            return new SlotCalendar(days, labels, Arrays.copyOf(start, n), Arrays.copyOf(end, n), exam);
+        }
+    }
+
+    // "08:30-10:00" -> {510, 600}; null when the label is not a time range
+    static int[] parseRange(String label) {
+        int dash = label.indexOf('-');
+        if (dash < 0) return null;
+        int from = parseTime(label.substring(0, dash).trim());
+        int to = parseTime(label.substring(dash + 1).trim());
+        return from < 0 || to < 0 ? null : new int[]{from, to};
+    }
+
+    // "HH:MM" -> minutes after midnight, -1 when malformed
+    public static int parseTime(String time) {
+        int colon = time.indexOf(':');
+        if (colon < 1 || colon != time.length() - 3) return -1;
+        try {
+            int h = Integer.parseInt(time.substring(0, colon));
+            int m = Integer.parseInt(time.substring(colon + 1));
+            return h < 0 || h > 24 || m < 0 || m > 59 ? -1 : h * 60 + m;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public static String formatTime(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    public List<String> getDays() { return days; }
+    public int getDayCount() { return days.size(); }
+    public String dayName(int day) { return days.get(day); }
+    public List<String> getTimeslots() { return timeslots; }
+    public int getSlotsPerDay() { return slotsPerDay; }
+    public int getSlotCount() { return slotCount; }
+    // -1 when no day is kept free for exams
+    public int getExamDay() { return examDay; }
+
+    // ---- per timeslot ----
+
+    public String timeslotLabel(int timeslot) { return timeslots.get(timeslot); }
+    public int startMinute(int timeslot) { return start[timeslot]; }
+    public int endMinute(int timeslot) { return end[timeslot]; }
+    public int minutes(int timeslot) { return end[timeslot] - start[timeslot]; }
+    // academic hours the timeslot counts for
+    public int hours(int timeslot) { return hours[timeslot]; }
+    // academic hours of the shortest timeslot: a course is split into blocks of this many hours, so it never
+    // gets fewer hours than it asks for wherever its blocks land
+    public int blockHours() { return blockHours; }
+
+    // timeslot that covers the given academic hour of the day (0-based), -1 past the last one
+    public int timeslotAtHour(int hour) {
+        if (hour < 0 || hour >= firstHour[slotsPerDay]) return -1;
+        int t = Arrays.binarySearch(firstHour, hour);
+        return t >= 0 ? t : -t - 2;
+    }
+
+    // ---- slot index arithmetic ----
+
+    public int slotIndex(int day, int timeslot) { return day * slotsPerDay + timeslot; }
+
+    // names are matched ignoring case for days and exactly for timeslot labels; -1 when unknown
+    public int dayIndex(String day) {
+        Integer d = day == null ? null : dayIndex.get(day.toLowerCase(Locale.ROOT));
+        return d == null ? -1 : d;
+    }
+
+    public int timeslotIndex(String timeslot) {
+        Integer t = timeslotIndex.get(timeslot);
+        return t == null ? -1 : t;
+    }
+
+    public int slotIndex(String day, String timeslot) {
+        int d = dayIndex(day), t = timeslotIndex(timeslot);
+        return d < 0 || t < 0 ? -1 : slotIndex(d, t);
+    }
+
+    public int dayOf(int slot) { return slot / slotsPerDay; }
+    public int timeslotOf(int slot) { return slot % slotsPerDay; }
+
+    public long allSlotsMask() { return slotCount == Long.SIZE ? -1L : (1L << slotCount) - 1; }
+    public long dayMask(int day) { return dayMasks[day]; }
+    public long examDayMask() { return examDay < 0 ? 0L : dayMasks[examDay]; }
+
+    // ---- back-to-back tables ----
+
+    // the slot that follows without a break, -1 at a break or the end of the day
+    public int next(int slot) { return (followedMask & (1L << slot)) != 0 ? slot + 1 : -1; }
+
+    public boolean backToBack(int first, int second) { return second == first + 1 && next(first) == second; }
+
+    // slots from which length slots run back to back (bit s = the run starts at s); 0 when none can
+    public long runStarts(int length) {
+        if (length <= 0) return allSlotsMask();
+        return length < runs.length ? runs[length] : 0L;
+    }
+
+    // back-to-back slots a block of the given length needs when it starts at slot, -1 when it does not fit
+    public int slotsCovering(int slot, int minutes) {
+        int covered = 0;
+        for (int s = slot, k = 1; s >= 0; s = next(s), k++) {
+            covered += minutes(timeslotOf(s));
+            if (covered >= minutes) return k;
+        }
+        return -1;
+    }
+
+    // start slots of a block of the given length (e.g. a 180-minute lab over two 90-minute slots)
+    public long blockStarts(int minutes) {
+        long out = 0L;
+        for (int s = 0; s < slotCount; s++) if (slotsCovering(s, minutes) > 0) out |= 1L << s;
+        return out;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SlotCalendar)) return false;
+        SlotCalendar other = (SlotCalendar) o;
+        return examDay == other.examDay && days.equals(other.days) && timeslots.equals(other.timeslots)
+                && Arrays.equals(start, other.start) && Arrays.equals(end, other.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * days.hashCode() + timeslots.hashCode()) + Arrays.hashCode(start) + examDay;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.join(",", days)).append(' ');
+        for (int t = 0; t < slotsPerDay; t++) {
+            if (t > 0) sb.append(end[t - 1] == start[t] ? "," : " | ");
+            sb.append(formatTime(start[t])).append('-').append(formatTime(end[t]));
+        }
+        return sb.append(examDay < 0 ? "" : " exams " + days.get(examDay)).toString();
+    }
+}
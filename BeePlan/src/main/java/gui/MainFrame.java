@@ -1,33 +1,85 @@
 package gui;
 
+import datastructures.Conflict;
 import datastructures.Constraint;
 import datastructures.Course;
+import datastructures.Instructor;
+import datastructures.Placement;
+import datastructures.Room;
 import datastructures.Schedule;
+import datastructures.SlotCalendar;
+import loader.CalendarLoader;
+import loader.CourseLoader;
+import loader.InstructorLoader;
+import loader.LoadedCourses;
+import loader.RoomLoader;
+import solver.AnnealingOptimizer;
+import solver.AnnealingResult;
+import solver.ChangeSet;
+import solver.ConflictExplainer;
+import solver.ConflictExplanation;
+import solver.ExamScheduler;
+import solver.ExamTimetable;
+import solver.ImprovementListener;
+import solver.IncrementalSolver;
+import solver.PortfolioSolver;
+import solver.Problem;
+import solver.RepairResult;
+import solver.RoomAssigner;
+import solver.RoomAssignment;
+import solver.SolveCache;
+import solver.SolverMetrics;
+import solver.SolverResult;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.util.Arrays;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map; // Added import for Map
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class MainFrame extends JFrame {
     private JButton btnLoadCommon;
     private JButton btnLoadCurriculum;
     private JButton btnLoadInstructor;
+    private JButton btnLoadRooms;
+    private JButton btnLoadCalendar;
     private JButton btnGenerate;
+    private JButton btnExams;
+    private JButton btnCancel;
     private JLabel statusLabel;
+    private JLabel metricsLabel;
+    private JProgressBar progressBar;
     private JTable table;
-    private DefaultTableModel tableModel;
+    private ScheduleTableModel tableModel;
 
     private Schedule schedule;
+    // days and timeslots of every schedule built from now on
+    private SlotCalendar calendar = SlotCalendar.DEFAULT;
     private Constraint constraint;
+    private List<Instructor> instructors = new ArrayList<>();
+    private List<Room> rooms = new ArrayList<>();
+    // last loaded files; the schedule is rebuilt from both so that reloading one keeps the other
+    private LoadedCourses commonCourses;
+    private LoadedCourses curriculumCourses;
+    private JFileChooser fileChooser;
+    // solved inputs survive restarts; null when the cache directory cannot be used
+    private SolveCache solveCache;
+    // set by the Cancel button; the search and the optimizer have separate flags because the portfolio
+    // raises its own flag when one of its workers finishes
+    private AtomicBoolean cancelSearch = new AtomicBoolean();
+    private AtomicBoolean cancelOptimize = new AtomicBoolean();
+    // workers still running (event thread only); the buttons stay off until the last one is done
+    private int running;
 
-    private final List<String> TIMESLOTS = Arrays.asList(
-            "08:30-10:00","10:00-11:30","11:30-13:00","13:30-15:00","15:00-16:30"
-    );
-    private final String[] DAYS = {"Time", "Mon", "Tue", "Wed", "Thu", "Fri"};
+    // time spent improving gaps, instructor balance and lab distance after a feasible schedule is found
+    private static final long OPTIMIZE_MILLIS = 1_000L;
 
     public MainFrame() {
         super("BeePlan - Course Scheduling");
@@ -35,8 +87,13 @@ public class MainFrame extends JFrame {
         this.setSize(900, 500);
         this.setLocationRelativeTo(null);
 
-        schedule = new Schedule();
+        schedule = new Schedule(calendar);
         constraint = new Constraint();
+        try {
+            solveCache = new SolveCache();
+        } catch (IOException ex) {
+            solveCache = null;
+        }
 
         initUI();
     }
@@ -49,18 +106,18 @@ public class MainFrame extends JFrame {
         btnLoadCommon = new JButton("Load Common Schedule");
         btnLoadCurriculum = new JButton("Load Curriculum");
         btnLoadInstructor = new JButton("Load Instructor Constraints");
+        btnLoadRooms = new JButton("Load Rooms");
+        btnLoadCalendar = new JButton("Load Calendar");
         topPanel.add(btnLoadCommon);
         topPanel.add(btnLoadCurriculum);
         topPanel.add(btnLoadInstructor);
+        topPanel.add(btnLoadRooms);
+        topPanel.add(btnLoadCalendar);
         this.add(topPanel, BorderLayout.NORTH);
 
         // Center panel - table
-        tableModel = new DefaultTableModel(null, DAYS) {
-            @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-        };
+        tableModel = new ScheduleTableModel(schedule);
         table = new JTable(tableModel);
-        populateEmptyTable();
         JScrollPane scroll = new JScrollPane(table);
         this.add(scroll, BorderLayout.CENTER);
 
@@ -68,40 +125,204 @@ public class MainFrame extends JFrame {
         JPanel bottom = new JPanel(new BorderLayout());
         JPanel leftBottom = new JPanel(new FlowLayout(FlowLayout.LEFT));
         btnGenerate = new JButton("Generate Schedule");
+        btnExams = new JButton("Exam Timetable");
+        btnCancel = new JButton("Cancel");
+        btnCancel.setEnabled(false);
         leftBottom.add(btnGenerate);
+        leftBottom.add(btnExams);
+        leftBottom.add(btnCancel);
         bottom.add(leftBottom, BorderLayout.WEST);
 
         statusLabel = new JLabel("Ready");
         bottom.add(statusLabel, BorderLayout.CENTER);
 
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+        metricsLabel = new JLabel();
+        JPanel rightBottom = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        rightBottom.add(metricsLabel);
+        rightBottom.add(progressBar);
+        bottom.add(rightBottom, BorderLayout.EAST);
+
         this.add(bottom, BorderLayout.SOUTH);
 
+        // blocks are moved by dragging them between cells; not while a worker is filling the schedule
+        new ScheduleDragHandler(table, tableModel, () -> instructors, constraint, () -> running == 0,
+                statusLabel::setText).install();
+
         // action listeners
         btnLoadCommon.addActionListener(this::onLoadCommon);
         btnLoadCurriculum.addActionListener(this::onLoadCurriculum);
         btnLoadInstructor.addActionListener(this::onLoadInstructor);
+        btnLoadRooms.addActionListener(this::onLoadRooms);
+        btnLoadCalendar.addActionListener(this::onLoadCalendar);
         btnGenerate.addActionListener(this::onGenerate);
+        btnExams.addActionListener(this::onExams);
+        btnCancel.addActionListener(this::onCancel);
+    }
+
+    // reads a file on a worker thread; progress goes to the progress bar, the result is handed over on the EDT
+    private interface FileLoader<T> {
+        T load(Path file, IntConsumer progress) throws IOException;
     }
 
-    private void populateEmptyTable() {
-        tableModel.setRowCount(0);
-        for (String slot : TIMESLOTS) {
-            Object[] row = new Object[DAYS.length];
-            row[0] = slot;
-            for (int i = 1; i < DAYS.length; i++) row[i] = "";
-            tableModel.addRow(row);
+    private <T> void loadInBackground(String what, FileLoader<T> loader, Consumer<T> onLoaded) {
+        if (fileChooser == null) {
+            fileChooser = new JFileChooser(Path.of("").toAbsolutePath().toFile());
+            fileChooser.setFileFilter(new FileNameExtensionFilter("CSV or JSON files", "csv", "json"));
         }
+        fileChooser.setDialogTitle("Load " + what);
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = fileChooser.getSelectedFile().toPath();
+
+        workerStarted();
+        progressBar.setValue(0);
+        progressBar.setVisible(true);
+        statusLabel.setText("Loading " + what + " from " + file.getFileName() + "...");
+        SwingWorker<T, Void> worker = new SwingWorker<>() {
+            @Override
+            protected T doInBackground() throws IOException {
+                return loader.load(file, this::setProgress);
+            }
+
+            @Override
+            protected void done() {
+                progressBar.setVisible(false);
+                try {
+                    onLoaded.accept(get());
+                } catch (ExecutionException ex) {
+                    statusLabel.setText("Could not load " + file.getFileName() + ": " + ex.getCause().getMessage());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    // after onLoaded, so a repair it starts keeps the buttons off
+                    workerFinished();
+                }
+            }
+        };
+        worker.addPropertyChangeListener(ev -> {
+            if ("progress".equals(ev.getPropertyName())) progressBar.setValue((Integer) ev.getNewValue());
+        });
+        worker.execute();
+    }
+
+    // loads, Generate, Exams and a repair replace or change the schedule, so only one of them runs at a time
+    private void workerStarted() {
+        if (running++ == 0) setLoadButtonsEnabled(false);
+    }
+
+    private void workerFinished() {
+        if (--running == 0) setLoadButtonsEnabled(true);
+    }
+
+    private void setLoadButtonsEnabled(boolean enabled) {
+        btnLoadCommon.setEnabled(enabled);
+        btnLoadCurriculum.setEnabled(enabled);
+        btnLoadInstructor.setEnabled(enabled);
+        btnLoadRooms.setEnabled(enabled);
+        btnLoadCalendar.setEnabled(enabled);
+        btnGenerate.setEnabled(enabled);
+        btnExams.setEnabled(enabled);
     }
 
-    // Simulated loaders: in a real app these would parse CSVs. Here we mock minimal data for demonstration.
+    // common courses keep their fixed slots (pinned); the curriculum is placed around them
     private void onLoadCommon(ActionEvent e) {
-        schedule = new Schedule();
-        statusLabel.setText("Common schedule loaded (mock).");
+        Schedule layout = schedule;
+        loadInBackground("common schedule", (file, progress) -> CourseLoader.load(file, layout, progress), loaded -> {
+            commonCourses = loaded;
+            rebuildSchedule();
+            statusLabel.setText("Common schedule loaded (" + loaded.getCourses().size() + " courses, "
+                    + loaded.getFixedCount() + " fixed blocks).");
+        });
     }
 
     private void onLoadCurriculum(ActionEvent e) {
-        // add a few mock courses
-        schedule = new Schedule();
+        Schedule layout = schedule;
+        loadInBackground("curriculum", (file, progress) -> CourseLoader.load(file, layout, progress), loaded -> {
+            curriculumCourses = loaded;
+            rebuildSchedule();
+            statusLabel.setText("Curriculum loaded (" + loaded.getCourses().size() + " courses).");
+        });
+    }
+
+    private void onLoadInstructor(ActionEvent e) {
+        Schedule layout = schedule;
+        loadInBackground("instructor constraints", (file, progress) -> InstructorLoader.load(file, layout, progress), loaded -> {
+            ChangeSet changes = ChangeSet.between(instructors, loaded);
+            instructors = loaded;
+            statusLabel.setText("Instructor constraints loaded (" + loaded.size() + " instructors).");
+            // a generated timetable is repaired around the changed availability instead of regenerated
+            if (hasGeneratedPlacements() && !changes.isEmpty()) repairInBackground(changes);
+        });
+    }
+
+    private boolean hasGeneratedPlacements() {
+        for (Placement p : schedule.getPlacements()) if (!p.isPinned()) return true;
+        return false;
+    }
+
+    private void repairInBackground(ChangeSet changes) {
+        workerStarted();
+        statusLabel.setText("Repairing schedule (" + changes + ")...");
+        Schedule target = schedule;
+        List<Instructor> staff = instructors;
+        List<Room> roomList = rooms;
+        SwingWorker<RepairResult, Void> worker = new SwingWorker<>() {
+            @Override
+            protected RepairResult doInBackground() {
+                Problem problem = new Problem(target, staff, constraint);
+                RepairResult repair = new IncrementalSolver().resolve(target, problem, changes);
+                repair.getResult().applyTo(target);
+                if (!roomList.isEmpty()) new RoomAssigner(roomList).assign(target);
+                updateTableFromSchedule();
+                return repair;
+            }
+
+            @Override
+            protected void done() {
+                workerFinished();
+                try {
+                    RepairResult repair = get();
+                    SolverResult result = repair.getResult();
+                    statusLabel.setText(result.isSolved()
+                            ? "Schedule repaired: " + repair.getMoved() + " blocks moved (" + repair.getElapsedMillis() + " ms)."
+                            : "Repair failed: " + result.getPlacedBlocks() + " of " + result.getProblem().getBlockCount()
+                                    + " blocks placed. " + String.join(" ", result.getMessages()));
+                } catch (Exception ex) {
+                    statusLabel.setText("Schedule repair failed: " + ex.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void onLoadRooms(ActionEvent e) {
+        loadInBackground("rooms", RoomLoader::load, loaded -> {
+            rooms = loaded;
+            statusLabel.setText("Rooms loaded (" + loaded.size() + " rooms).");
+        });
+    }
+
+    // loaded courses are kept; their fixed slots move to the same day and timeslot names of the new calendar
+    private void onLoadCalendar(ActionEvent e) {
+        loadInBackground("calendar", CalendarLoader::load, loaded -> {
+            calendar = loaded;
+            rebuildSchedule();
+            statusLabel.setText("Calendar loaded (" + loaded.getDayCount() + " days x " + loaded.getSlotsPerDay()
+                    + " timeslots).");
+        });
+    }
+
+    private void rebuildSchedule() {
+        schedule = new Schedule(calendar);
+        if (commonCourses != null) commonCourses.addTo(schedule);
+        if (curriculumCourses != null) curriculumCourses.addTo(schedule);
+        tableModel.setSchedule(schedule);
+    }
+
+    // used when Generate is pressed before any curriculum was loaded
+    private static void loadDemoCurriculum(Schedule schedule) {
         Course c1 = new Course("CS101", "Intro CS", 2, 0, "Dr. A", Course.Type.MANDATORY);
         Course c2 = new Course("CS102", "Data Structures", 2, 2, "Dr. B", Course.Type.MANDATORY);
         Course c3 = new Course("CS201", "Elective AI", 2, 0, "Dr. A", Course.Type.ELECTIVE);
@@ -109,77 +330,223 @@ public class MainFrame extends JFrame {
         schedule.addCourse(c1);
         schedule.addCourse(c2);
         schedule.addCourse(c3);
-        statusLabel.setText("Curriculum loaded (3 mock courses).");
     }
 
-    private void onLoadInstructor(ActionEvent e) {
-        // In a real UI we'd parse constraints. Set constraint toggles as default.
-        constraint = new Constraint();
-        statusLabel.setText("Instructor constraints loaded (defaults).");
+    // a status line and/or an improved assignment to show; only the latest of each is drawn
+    private static final class Progress {
+        final String status;
+        final SolverResult snapshot;
+
+        Progress(String status, SolverResult snapshot) {
+            this.status = status;
+            this.snapshot = snapshot;
+        }
     }
 
     private void onGenerate(ActionEvent e) {
-        btnGenerate.setEnabled(false);
+        workerStarted();
+        btnCancel.setEnabled(true);
+        cancelSearch = new AtomicBoolean();
+        cancelOptimize = new AtomicBoolean();
+        AtomicBoolean searchFlag = cancelSearch;
+        AtomicBoolean optimizeFlag = cancelOptimize;
         statusLabel.setText("Generating schedule...");
-        SwingWorker<Void, String> worker = new SwingWorker<>() {
+        // solver counters of this run, refreshed twice a second while it runs
+        SolverMetrics.Snapshot base = SolverMetrics.snapshot();
+        Timer metricsTimer = new Timer(500, ev -> showMetrics(base));
+        metricsTimer.start();
+        // the worker solves and fills this schedule even if the field is replaced meanwhile
+        Schedule target = schedule;
+        List<Instructor> staff = instructors;
+        List<Room> roomList = rooms;
+        SwingWorker<SolverResult, Progress> worker = new SwingWorker<>() {
+            private boolean fromCache;
+            private ConflictExplanation explanation;
+
+            private void report(String status) { publish(new Progress(status, null)); }
+
             @Override
-            protected Void doInBackground() {
-                publish("Loading data...");
-                // Simulated load: ensure schedule has courses
-                if (schedule.getCourseList().isEmpty()) {
-                    publish("No curriculum loaded — adding demo courses.");
-                    onLoadCurriculum(null);
+            protected SolverResult doInBackground() {
+                report("Loading data...");
+                // nothing loaded yet: fall back to a few demo courses
+                if (target.getCourseList().isEmpty()) {
+                    report("No curriculum loaded — adding demo courses.");
+                    loadDemoCurriculum(target);
                 }
 
-                publish("Checking constraints...");
-                List<String> problems = constraint.runAll(schedule);
-                if (!problems.isEmpty()) {
-                    for (String p : problems) publish("Conflict: " + p);
-                    return null;
-                }
+                // anytime solving: snapshots arrive from the solver threads a few times per second
+                ImprovementListener listener = new ImprovementListener() {
+                    @Override
+                    public void placed(SolverResult partial) {
+                        publish(new Progress("Placing courses: " + partial.getPlacedBlocks() + " of "
+                                + partial.getProblem().getBlockCount() + " blocks...", partial));
+                    }
+
+                    @Override
+                    public void optimized(SolverResult result, long score) {
+                        publish(new Progress("Improving schedule (score " + score + ")...", result));
+                    }
+                };
 
-                publish("Placing courses...");
-                schedule.placeCoursesAuto(TIMESLOTS);
+                Problem problem = new Problem(target, staff, constraint);
+                AnnealingOptimizer optimizer = new AnnealingOptimizer(OPTIMIZE_MILLIS, 0L);
+                SolverResult result = solveCache == null ? null : solveCache.lookup(problem, optimizer.settings());
+                fromCache = result != null;
+                if (!fromCache) {
+                    // constraints are enforced as hard rules during the search; one seeded search per core
+                    PortfolioSolver solver = new PortfolioSolver();
+                    report("Placing courses (" + solver.getWorkers() + " parallel searches)...");
+                    result = solver.solve(problem, searchFlag, listener);
+                    for (String p : result.getMessages()) report("Conflict: " + p);
+                    // no schedule: narrow the failure down to the few requirements that clash
+                    if (!result.isSolved() && result.getStatus() != SolverResult.Status.CANCELLED) {
+                        report("Looking for the conflicting requirements...");
+                        explanation = new ConflictExplainer().explain(target, staff, constraint, searchFlag);
+                    }
+                    if (result.isSolved() && !optimizeFlag.get()) {
+                        report("Improving schedule...");
+                        AnnealingResult improved = optimizer.optimize(result, optimizeFlag, listener);
+                        result = improved.getResult();
+                    }
+                    // a cancelled run is valid but not fully optimised, so it is not worth keeping
+                    if (solveCache != null && result.isSolved() && !optimizeFlag.get()) {
+                        try {
+                            solveCache.store(result, optimizer.settings());
+                        } catch (IOException ex) {
+                            report("Could not write solve cache: " + ex.getMessage());
+                        }
+                    }
+                }
+                result.applyTo(target);
+                // rooms are matched per slot once the times are fixed
+                if (!roomList.isEmpty()) {
+                    report("Assigning rooms...");
+                    RoomAssignment assignment = new RoomAssigner(roomList).assign(target);
+                    for (String m : assignment.getMessages()) report("Conflict: " + m);
+                }
+                for (Conflict c : target.detectConflicts()) report("Conflict: " + c);
 
-                publish("Updating table...");
+                report("Updating table...");
                 updateTableFromSchedule();
 
-                return null;
+                return result;
             }
 
             @Override
-            protected void process(List<String> chunks) {
-                String last = chunks.get(chunks.size()-1);
-                statusLabel.setText(last);
+            protected void process(List<Progress> chunks) {
+                // coalesce: several snapshots may have queued up since the last repaint
+                SolverResult snapshot = null;
+                for (Progress p : chunks) if (p.snapshot != null) snapshot = p.snapshot;
+                if (snapshot != null) updateTableFromResult(snapshot);
+                statusLabel.setText(chunks.get(chunks.size() - 1).status);
             }
 
             @Override
             protected void done() {
-                btnGenerate.setEnabled(true);
-                statusLabel.setText("Schedule generation finished.");
+                workerFinished();
+                btnCancel.setEnabled(false);
+                metricsTimer.stop();
+                showMetrics(base);
+                try {
+                    SolverResult result = get();
+                    String prefix = optimizeFlag.get() ? "Cancelled; kept the best schedule found"
+                            : fromCache ? "Schedule loaded from cache" : "Schedule generation finished";
+                    if (explanation != null && explanation.isFound()) {
+                        List<String> names = new ArrayList<>();
+                        for (ConflictExplanation.Requirement r : explanation.getConflict()) names.add(r.getName());
+                        statusLabel.setText(prefix + ": " + result.getPlacedBlocks() + " of " + result.getProblem().getBlockCount()
+                                + " blocks placed. Conflicting requirements: " + String.join(", ", names) + ".");
+                        showConflict(explanation);
+                    } else {
+                        statusLabel.setText(result.isSolved()
+                                ? prefix + " (" + result.getElapsedMillis() + " ms)."
+                                : prefix + ": " + result.getPlacedBlocks() + " of " + result.getProblem().getBlockCount()
+                                        + " blocks placed. " + String.join(" ", result.getMessages()));
+                    }
+                } catch (Exception ex) {
+                    statusLabel.setText("Schedule generation failed: " + ex.getMessage());
+                }
             }
         };
         worker.execute();
     }
 
-    private void updateTableFromSchedule() {
-        SwingUtilities.invokeLater(() -> {
-            populateEmptyTable();
-            // weeklyGrid: day -> timeslot -> Course
-            var grid = schedule.getWeeklyGrid();
-            for (int r = 0; r < TIMESLOTS.size(); r++) {
-                String slot = TIMESLOTS.get(r);
-                for (int c = 1; c < DAYS.length; c++) {
-                        // Days array is ["Time","Mon","Tue","Wed","Thu","Fri"]
-                        String day = DAYS[c];
-                        Map<String, Course> dayMap = grid.get(day);
-                    if (dayMap == null) continue;
-                    Course course = dayMap.get(slot);
-                    if (course != null) {
-                        tableModel.setValueAt(course.getCourseId(), r, c);
-                    }
+    private void showConflict(ConflictExplanation explanation) {
+        JTextArea area = new JTextArea(String.join("\n", explanation.getMessages()), 12, 70);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), "No Schedule Exists", JOptionPane.WARNING_MESSAGE);
+    }
+
+    // colours the loaded courses into exam periods (Friday blocks when the exam block is on) and lists them
+    private void onExams(ActionEvent e) {
+        List<Course> courses = new ArrayList<>(schedule.getCourseList());
+        if (courses.isEmpty()) {
+            statusLabel.setText("Load a curriculum before building the exam timetable.");
+            return;
+        }
+        workerStarted();
+        statusLabel.setText("Building exam timetable for " + courses.size() + " courses...");
+        Schedule layout = schedule;
+        SwingWorker<ExamTimetable, Void> worker = new SwingWorker<>() {
+            @Override
+            protected ExamTimetable doInBackground() {
+                return new ExamScheduler(layout, constraint).schedule(courses);
+            }
+
+            @Override
+            protected void done() {
+                workerFinished();
+                try {
+                    showExams(get());
+                } catch (ExecutionException ex) {
+                    statusLabel.setText("Exam timetable failed: " + ex.getCause().getMessage());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
                 }
             }
-        });
+        };
+        worker.execute();
+    }
+
+    private void showExams(ExamTimetable exams) {
+        statusLabel.setText("Exam timetable: " + exams);
+        StringBuilder text = new StringBuilder();
+        for (String message : exams.getMessages()) text.append(message).append('\n');
+        for (int p = 0; p < exams.getPeriodCount(); p++) {
+            List<Course> held = exams.getExams(p);
+            if (held.isEmpty()) continue;
+            text.append(exams.periodLabel(p)).append(':');
+            for (Course c : held) text.append(' ').append(c.getCourseId());
+            text.append('\n');
+        }
+        JTextArea area = new JTextArea(text.toString(), 20, 60);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), "Exam Timetable", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void showMetrics(SolverMetrics.Snapshot base) {
+        SolverMetrics.Snapshot m = SolverMetrics.snapshot().since(base);
+        metricsLabel.setText(String.format("%,d nodes · %,d backtracks · %d ms propagation · %,d evals%s",
+                m.getNodes(), m.getBacktracks(), m.getPropagationMillis(), m.getConstraintEvaluations(),
+                m.getBestScore() < 0 ? "" : " · score " + m.getBestScore()));
+        metricsLabel.setToolTipText(m.getTrajectory().isEmpty() ? null : "Best score over time (ms:score): " + m.getTrajectory());
+    }
+
+    // stops the search and the optimizer; the worker then applies the best assignment it has
+    private void onCancel(ActionEvent e) {
+        btnCancel.setEnabled(false);
+        cancelOptimize.set(true);
+        cancelSearch.set(true);
+        statusLabel.setText("Cancelling...");
+    }
+
+    // draws an assignment that is not in the schedule yet (anytime snapshot); called on the event thread
+    private void updateTableFromResult(SolverResult result) {
+        tableModel.showResult(result);
+    }
+
+    // repaints only the slots the schedule changed since the last refresh
+    private void updateTableFromSchedule() {
+        SwingUtilities.invokeLater(() -> tableModel.showSchedule());
     }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package gui;
+
+import datastructures.Constraint;
+import datastructures.Instructor;
+import datastructures.Placement;
+import datastructures.Schedule;
+import solver.MoveEvaluator;
+import solver.MoveOptions;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Drag-and-drop editing of the weekly grid. Pressing on a cell picks up its first block that is not fixed and
+// asks a MoveEvaluator once where it may go; while it is dragged the cells are coloured legal / not legal and
+// the status line gives the cost of dropping it under the mouse or why that is not allowed, read straight from
+// the MoveOptions masks. Releasing on a legal cell moves the block (its room is left to be assigned again).
+class ScheduleDragHandler extends MouseAdapter {
+    private static final Color FROM = new Color(0xFFF3C4);
+    private static final Color LEGAL = new Color(0xD9F2D9);
+    private static final Color BLOCKED = new Color(0xF6D8D8);
+
+    private final JTable table;
+    private final ScheduleTableModel model;
+    private final Supplier<List<Instructor>> instructors;
+    private final Constraint constraint;
+    private final BooleanSupplier editable;
+    private final Consumer<String> status;
+
+    // rebuilt when the schedule or the instructors were replaced or the schedule was changed elsewhere
+    private MoveEvaluator evaluator;
+    private List<Instructor> evaluatedFor;
+    private MoveOptions dragging;
+    private int hover = -1;
+
+    // editable is false while a worker owns the schedule; status shows one line of feedback
+    ScheduleDragHandler(JTable table, ScheduleTableModel model, Supplier<List<Instructor>> instructors,
+                        Constraint constraint, BooleanSupplier editable, Consumer<String> status) {
+        this.table = table;
+        this.model = model;
+        this.instructors = instructors;
+        this.constraint = constraint;
+        this.editable = editable;
+        this.status = status;
+    }
+
+    void install() {
+        table.addMouseListener(this);
+        table.addMouseMotionListener(this);
+        table.setDefaultRenderer(Object.class, new Renderer());
+    }
+
+    private MoveEvaluator evaluator() {
+        Schedule schedule = model.getSchedule();
+        List<Instructor> current = instructors.get();
+        if (evaluator == null || !evaluator.isCurrent() || evaluator.getSchedule() != schedule || evaluatedFor != current) {
+            if (evaluator != null) evaluator.detach();
+            evaluator = new MoveEvaluator(schedule, current, constraint);
+            evaluatedFor = current;
+        }
+        return evaluator;
+    }
+
+    // slot of the day cell under the point, -1 for the time column or outside the grid
+    private int slotAt(Point point) {
+        int row = table.rowAtPoint(point);
+        int column = table.columnAtPoint(point);
+        if (row < 0 || column < 0) return -1;
+        return slotOf(row, table.convertColumnIndexToModel(column));
+    }
+
+    private int slotOf(int row, int modelColumn) {
+        return modelColumn <= 0 ? -1 : model.getSchedule().slotIndex(modelColumn - 1, row);
+    }
+
+    @Override
+    public void mousePressed(MouseEvent e) {
+        if (!SwingUtilities.isLeftMouseButton(e) || !editable.getAsBoolean()) return;
+        int slot = slotAt(e.getPoint());
+        if (slot < 0) return;
+        Placement picked = null;
+        for (Placement p : model.getSchedule().getPlacements(slot)) {
+            if (!p.isPinned()) {
+                picked = p;
+                break;
+            }
+        }
+        if (picked == null) {
+            if (!model.getSchedule().getPlacements(slot).isEmpty()) status.accept("Blocks in this cell are fixed.");
+            return;
+        }
+        dragging = evaluator().options(picked);
+        hover = slot;
+        status.accept("Moving " + name(picked) + ": drop it on a green cell.");
+        table.repaint();
+    }
+
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        if (dragging == null) return;
+        int slot = slotAt(e.getPoint());
+        if (slot == hover) return;
+        hover = slot;
+        status.accept(slot < 0 ? "Moving " + name(dragging.getPlacement()) + "." : feedback(slot));
+        table.repaint();
+    }
+
+    @Override
+    public void mouseReleased(MouseEvent e) {
+        if (dragging == null) return;
+        MoveOptions options = dragging;
+        dragging = null;
+        hover = -1;
+        int slot = slotAt(e.getPoint());
+        table.repaint();
+        if (slot < 0 || slot == options.getFrom()) {
+            status.accept("Move cancelled.");
+        } else if (!options.isLegal(slot)) {
+            status.accept("Not moved: " + feedback(slot));
+        } else if (!editable.getAsBoolean() || !evaluator.isCurrent()) {
+            status.accept("Not moved: the schedule changed meanwhile.");
+        } else {
+            long before = evaluator.getScore();
+            evaluator.move(options.getPlacement(), slot);
+            model.showSchedule();
+            status.accept("Moved " + name(options.getPlacement()) + " to " + where(slot) + " (score "
+                    + before + " -> " + evaluator.getScore() + ").");
+        }
+    }
+
+    private String feedback(int slot) {
+        return name(dragging.getPlacement()) + " to " + where(slot) + ": " + dragging.describe(slot);
+    }
+
+    private String where(int slot) {
+        Schedule schedule = model.getSchedule();
+        return schedule.dayName(slot) + " " + schedule.timeslotName(slot);
+    }
+
+    private static String name(Placement p) {
+        return p.getCourse().getCourseId() + (p.isLab() ? " (Lab)" : "");
+    }
+
+    // colours the day cells from the masks of the block being dragged; the cell under the mouse gets a border
+    private final class Renderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable t, Object value, boolean isSelected, boolean hasFocus,
+                                                       int row, int column) {
+            MoveOptions options = dragging;
+            int slot = options == null ? -1 : slotOf(row, t.convertColumnIndexToModel(column));
+            if (slot < 0) {
+                setBackground(null);
+                Component c = super.getTableCellRendererComponent(t, value, isSelected, hasFocus, row, column);
+                setToolTipText(null);
+                return c;
+            }
+            Component c = super.getTableCellRendererComponent(t, value, false, false, row, column);
+            setBackground(slot == options.getFrom() ? FROM : options.isLegal(slot) ? LEGAL : BLOCKED);
+            setToolTipText(options.describe(slot));
+            if (slot == hover) setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY));
+            return c;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package gui;
+
+import datastructures.Placement;
+import datastructures.Schedule;
+import datastructures.ScheduleListener;
+import solver.Problem;
+import solver.SolverResult;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Weekly grid over the slot index of a Schedule: one row per timeslot, one column per day after the time column.
+// Cell texts are cached per slot. The schedule only marks the slots it changes (one bit each, from any thread);
+// showSchedule() rebuilds just those texts and fires an update for the cells whose text really changed,
+// so a refresh costs as much as the edit. showResult() overlays a solver snapshot the same way.
+public class ScheduleTableModel extends AbstractTableModel implements ScheduleListener {
+    private Schedule schedule;
+    // text of every slot as the schedule has it, and as it is shown (schedule or snapshot)
+    private String[] scheduleText;
+    private String[] shown;
+    private final AtomicLong dirty = new AtomicLong();
+
+    public ScheduleTableModel(Schedule schedule) {
+        bind(schedule);
+    }
+
+    // switches to another schedule; the grid is rebuilt when its shape differs
+    public void setSchedule(Schedule next) {
+        if (next == schedule) return;
+        boolean sameShape = next.getSlotCount() == schedule.getSlotCount()
+                && next.getCalendar().equals(schedule.getCalendar());
+        schedule.removeListener(this);
+        String[] previous = shown;
+        bind(next);
+        if (!sameShape) {
+            fireTableStructureChanged();
+            return;
+        }
+        shown = previous;
+        showSchedule();
+    }
+
+    private void bind(Schedule next) {
+        schedule = next;
+        scheduleText = new String[next.getSlotCount()];
+        shown = new String[next.getSlotCount()];
+        dirty.set(next.allSlotsMask());
+        for (int slot = 0; slot < scheduleText.length; slot++) scheduleText[slot] = "";
+        next.addListener(this);
+        refreshDirty();
+        System.arraycopy(scheduleText, 0, shown, 0, shown.length);
+    }
+
+    public Schedule getSchedule() { return schedule; }
+
+    // shows the schedule's placements; call on the event thread once the schedule stopped changing
+    public void showSchedule() {
+        refreshDirty();
+        show(scheduleText);
+    }
+
+    // shows an assignment that is not in the schedule (yet), e.g. an anytime snapshot
+    public void showResult(SolverResult result) {
+        Problem problem = result.getProblem();
+        StringBuilder[] cells = new StringBuilder[shown.length];
+        for (int b = 0; b < problem.getBlockCount(); b++) {
+            int slot = result.slotOf(b);
+            if (slot < 0 || slot >= cells.length) continue;
+            if (cells[slot] == null) cells[slot] = new StringBuilder();
+            else cells[slot].append(", ");
+            cells[slot].append(problem.courseOf(b).getCourseId()).append(problem.isLab(b) ? " (Lab)" : "");
+        }
+        String[] texts = new String[shown.length];
+        for (int slot = 0; slot < texts.length; slot++) texts[slot] = cells[slot] == null ? "" : cells[slot].toString();
+        show(texts);
+    }
+
+    private void refreshDirty() {
+        long slots = dirty.getAndSet(0L);
+        while (slots != 0L) {
+            int slot = Long.numberOfTrailingZeros(slots);
+            slots &= slots - 1;
+            scheduleText[slot] = textOf(schedule.getPlacements(slot));
+        }
+    }
+
+    private void show(String[] texts) {
+        for (int slot = 0; slot < shown.length; slot++) {
+            if (Objects.equals(shown[slot], texts[slot])) continue;
+            shown[slot] = texts[slot];
+            fireTableCellUpdated(schedule.timeslotOf(slot), schedule.dayOf(slot) + 1);
+        }
+    }
+
+    // a cell lists every block placed in its slot, with the room once one is assigned
+    private static String textOf(List<Placement> placements) {
+        if (placements.isEmpty()) return "";
+        StringBuilder cell = new StringBuilder();
+        for (Placement p : placements) {
+            if (cell.length() > 0) cell.append(", ");
+            cell.append(p.getCourse().getCourseId()).append(p.isLab() ? " (Lab)" : "");
+            if (p.getRoom() != null) cell.append(" [").append(p.getRoom()).append(']');
+        }
+        return cell.toString();
+    }
+
+    // ---- ScheduleListener: may run on a worker thread, so only the slot bits are recorded ----
+
+    @Override
+    public void placed(Placement p) { markDirty(p.getSlot()); }
+
+    @Override
+    public void removed(Placement p) { markDirty(p.getSlot()); }
+
+    @Override
+    public void cleared() { dirty.set(schedule.allSlotsMask()); }
+
+    private void markDirty(int slot) {
+        long bit = 1L << slot;
+        dirty.accumulateAndGet(bit, (a, b) -> a | b);
+    }
+
+    // ---- TableModel ----
+
+    @Override
+    public int getRowCount() { return schedule.getSlotsPerDay(); }
+
+    @Override
+    public int getColumnCount() { return schedule.getDayCount() + 1; }
+
+    @Override
+    public String getColumnName(int column) { return column == 0 ? "Time" : schedule.getCalendar().dayName(column - 1); }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == 0) return schedule.getTimeslots().get(row);
+        return shown[schedule.slotIndex(column - 1, row)];
+    }
+}
@@ -0,0 +1,89 @@
+package loader;
+
+import datastructures.SlotCalendar;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.IntConsumer;
+
+// Reads a week layout from JSON:
+//   {"days": ["Mon", ...], "timeslots": ["08:30-10:00", {"start": "13:30", "end": "16:30", "label": "Lab"}],
+//    "exam_day": "Fri"}
+// Timeslots are given in order; a gap between one's end and the next one's start is a break (e.g. lunch).
+// exam_day defaults to the last day, null keeps no day free. Missing days or timeslots fall back to the defaults.
+public final class CalendarLoader {
+    private CalendarLoader() {}
+
+    public static SlotCalendar load(Path file, IntConsumer progress) throws IOException {
+        long size = Files.size(file);
+        try (Reader r = new ProgressReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), size, progress)) {
+            return readJson(r);
+        }
+    }
+
+    public static SlotCalendar readJson(Reader reader) throws IOException {
+        SlotCalendar.Builder b = SlotCalendar.builder();
+        boolean days = false, timeslots = false;
+        try (JsonScanner json = new JsonScanner(reader)) {
+            if (json.next() != JsonScanner.Token.BEGIN_OBJECT) throw json.error("calendar object expected");
+            while (json.next() == JsonScanner.Token.NAME) {
+                if (json.textIs("days")) {
+                    if (json.next() != JsonScanner.Token.BEGIN_ARRAY) throw json.error("days must be an array");
+                    while (json.next() == JsonScanner.Token.STRING) {
+                        b.day(json.stringValue());
+                        days = true;
+                    }
+                } else if (json.textIs("timeslots") || json.textIs("slots")) {
+                    if (json.next() != JsonScanner.Token.BEGIN_ARRAY) throw json.error("timeslots must be an array");
+                    for (JsonScanner.Token t = json.next(); t != JsonScanner.Token.END_ARRAY; t = json.next()) {
+                        if (t == JsonScanner.Token.STRING) {
+                            b.timeslot(json.stringValue());
+                        } else if (t == JsonScanner.Token.BEGIN_OBJECT) {
+                            readTimeslot(json, b);
+                        } else {
+                            throw json.error("timeslot string or object expected");
+                        }
+                        timeslots = true;
+                    }
+                } else if (json.textIs("exam_day")) {
+                    if (json.next() == JsonScanner.Token.NULL) b.noExamDay();
+                    else b.examDay(json.stringValue());
+                } else {
+                    json.skipValue();
+                }
+            }
+            if (!days) for (String day : SlotCalendar.DEFAULT_DAYS) b.day(day);
+            if (!timeslots) for (String slot : SlotCalendar.DEFAULT_TIMESLOTS) b.timeslot(slot);
+            try {
+                return b.build();
+            } catch (IllegalArgumentException e) {
+                throw json.error(e.getMessage());
+            }
+        }
+    }
+
+    private static void readTimeslot(JsonScanner json, SlotCalendar.Builder b) throws IOException {
+        int start = -1, end = -1;
+        String label = null;
+        while (json.next() == JsonScanner.Token.NAME) {
+            if (json.textIs("start")) {
+                json.next();
+                start = SlotCalendar.parseTime(json.stringValue());
+            } else if (json.textIs("end")) {
+                json.next();
+                end = SlotCalendar.parseTime(json.stringValue());
+            } else if (json.textIs("label")) {
+                json.next();
+                label = json.stringValue();
+            } else {
+                json.skipValue();
+            }
+        }
+        if (start < 0 || end < 0) throw json.error("timeslot needs start and end as HH:MM");
+        if (label == null) label = SlotCalendar.formatTime(start) + "-" + SlotCalendar.formatTime(end);
+        b.timeslot(label, start, end);
+    }
+}
@@ -0,0 +1,227 @@
+package loader;
+
+import datastructures.Course;
+import datastructures.Schedule;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// Streams a course file into Course objects. Two formats are read:
+//  - CSV with a header row (code,name,theory_hours,lab_hours,instructor,type,lab_capacity,students,cohort,year,
+//    day,timeslot,kind);
+//    columns may be in any order, unknown ones are ignored, and a row with day/timeslot fixes one block of the course
+//  - the bee-plan-v2 courses.json layout, where fixed_slots entries are [day, hour, "T"|"L"] with 0-based indices
+public final class CourseLoader {
+    private static final int CODE = 0, NAME = 1, THEORY = 2, LAB = 3, INSTRUCTOR = 4, TYPE = 5,
+            LAB_CAPACITY = 6, COHORT = 7, YEAR = 8, DAY = 9, TIMESLOT = 10, KIND = 11, STUDENTS = 12, IGNORED = -1;
+
+    private CourseLoader() {}
+
+    // format is chosen by the file extension (.json, anything else is CSV); progress gets 0..100
+    public static LoadedCourses load(Path file, Schedule layout, IntConsumer progress) throws IOException {
+        long size = Files.size(file);
+        try (Reader r = new ProgressReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), size, progress)) {
+            return isJson(file) ? readJson(r, layout) : readCsv(r, layout);
+        }
+    }
+
+    static boolean isJson(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+    }
+
+    public static LoadedCourses readCsv(Reader reader, Schedule layout) throws IOException {
+        LoadedCourses out = new LoadedCourses(layout.getCalendar());
+        Map<String, Course> byCode = new HashMap<>();
+        Map<String, String> cohorts = new HashMap<>();
+        try (CsvScanner csv = new CsvScanner(reader)) {
+            int[] columns = readHeader(csv);
+            // per-row values; strings are created only for the columns that are present
+            while (true) {
+                String code = null, name = null, instructor = null, cohort = null, day = null, timeslot = null;
+                int theory = 0, lab = 0, capacity = 0, students = 0, year = 0;
+                Course.Type type = Course.Type.MANDATORY;
+                boolean labBlock = false;
+                int column = 0;
+                CsvScanner.Field f;
+                boolean blank = true;
+                while ((f = csv.next()) == CsvScanner.Field.VALUE) {
+                    int role = column < columns.length ? columns[column] : IGNORED;
+                    column++;
+                    if (csv.isEmpty() || role == IGNORED) continue;
+                    blank = false;
+                    switch (role) {
+                        case CODE: code = csv.stringValue(); break;
+                        case NAME: name = csv.stringValue(); break;
+                        case THEORY: theory = csv.intValue(); break;
+                        case LAB: lab = csv.intValue(); break;
+                        case INSTRUCTOR: instructor = csv.stringValue(); break;
+                        case TYPE: type = csv.textIs("ELECTIVE") || csv.textIs("elective") ? Course.Type.ELECTIVE : Course.Type.MANDATORY; break;
+                        case LAB_CAPACITY: capacity = csv.intValue(); break;
+                        case STUDENTS: students = csv.intValue(); break;
+                        case COHORT: cohort = csv.stringValue(); break;
+                        case YEAR: year = csv.intValue(); break;
+                        case DAY: day = csv.stringValue(); break;
+                        case TIMESLOT: timeslot = csv.stringValue(); break;
+                        case KIND: labBlock = csv.textIs("L") || csv.textIs("lab") || csv.textIs("Lab"); break;
+                        default: break;
+                    }
+                }
+                if (f == CsvScanner.Field.END_OF_INPUT && column == 0) break;
+                if (blank) continue;
+                if (code == null) throw csv.error("missing course code");
+
+                Course c = byCode.get(code);
+                if (c == null) {
+                    c = new Course(code, name, theory, lab, instructor, type);
+                    c.setLabCapacity(capacity);
+                    c.setStudents(students);
+                    if (cohort == null && year > 0) cohort = cohorts.computeIfAbsent("Year " + year, k -> k);
+                    c.setCohort(cohort);
+                    byCode.put(code, c);
+                    out.addCourse(c);
+                }
+                if (day != null && timeslot != null) {
+                    int slot = resolveSlot(layout, day, timeslot);
+                    if (slot < 0) throw csv.error("unknown slot " + day + " " + timeslot);
+                    out.addFixed(c, slot, labBlock);
+                }
+                if (f == CsvScanner.Field.END_OF_INPUT) break;
+            }
+        }
+        return out;
+    }
+
+    private static int[] readHeader(CsvScanner csv) throws IOException {
+        int[] columns = new int[16];
+        int n = 0;
+        while (csv.next() == CsvScanner.Field.VALUE) {
+            if (n == columns.length) columns = Arrays.copyOf(columns, n * 2);
+            columns[n++] = role(csv.stringValue().toLowerCase(Locale.ROOT));
+        }
+        if (n == 0) throw csv.error("missing header row");
+        return Arrays.copyOf(columns, n);
+    }
+
+    private static int role(String header) {
+        switch (header) {
+            case "code": case "course_id": case "courseid": case "id": return CODE;
+            case "name": return NAME;
+            case "theory_hours": case "theory": return THEORY;
+            case "lab_hours": case "lab": return LAB;
+            case "instructor": case "lecturer": return INSTRUCTOR;
+            case "type": return TYPE;
+            case "lab_capacity": case "capacity": return LAB_CAPACITY;
+            case "students": case "enrolment": case "enrollment": return STUDENTS;
+            case "cohort": return COHORT;
+            case "year": return YEAR;
+            case "day": return DAY;
+            case "timeslot": case "slot": case "hour": return TIMESLOT;
+            case "kind": return KIND;
+            default: return IGNORED;
+        }
+    }
+
+    // day and timeslot as names ("Mon", "08:30-10:30") or as 0-based indices into the layout
+    static int resolveSlot(Schedule layout, String day, String timeslot) {
+        int d = layout.getCalendar().dayIndex(day);
+        if (d < 0) d = parseIndex(day);
+        int t = layout.getCalendar().timeslotIndex(timeslot);
+        if (t < 0) t = parseIndex(timeslot);
+        if (d < 0 || d >= layout.getDayCount() || t < 0 || t >= layout.getSlotsPerDay()) return -1;
+        return layout.slotIndex(d, t);
+    }
+
+    private static int parseIndex(String s) {
+        if (s.isEmpty()) return -1;
+        int v = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch < '0' || ch > '9') return -1;
+            v = v * 10 + (ch - '0');
+        }
+        return v;
+    }
+
+    public static LoadedCourses readJson(Reader reader, Schedule layout) throws IOException {
+        LoadedCourses out = new LoadedCourses(layout.getCalendar());
+        Map<String, String> cohorts = new HashMap<>();
+        try (JsonScanner json = new JsonScanner(reader)) {
+            if (json.next() != JsonScanner.Token.BEGIN_ARRAY) throw json.error("array of courses expected");
+            while (json.next() == JsonScanner.Token.BEGIN_OBJECT) {
+                Course c = new Course();
+                c.setType(Course.Type.MANDATORY);
+                int year = 0;
+                boolean fixed = false;
+                // fixed blocks as packed slot * 2 + lab, applied once is_fixed is known
+                long[] fixedBlocks = null;
+                int fixedCount = 0;
+                while (json.next() == JsonScanner.Token.NAME) {
+                    if (json.textIs("code") || json.textIs("course_id")) c.setCourseId(stringOf(json));
+                    else if (json.textIs("name")) c.setName(stringOf(json));
+                    else if (json.textIs("theory_hours")) c.setTheoryHours(intOf(json));
+                    else if (json.textIs("lab_hours")) c.setLabHours(intOf(json));
+                    else if (json.textIs("instructor") || json.textIs("lecturer")) c.setLecturer(stringOf(json));
+                    else if (json.textIs("lab_capacity")) c.setLabCapacity(intOf(json));
+                    else if (json.textIs("students")) c.setStudents(intOf(json));
+                    else if (json.textIs("cohort")) c.setCohort(stringOf(json));
+                    else if (json.textIs("year")) year = intOf(json);
+                    else if (json.textIs("type")) {
+                        String type = stringOf(json);
+                        if ("ELECTIVE".equalsIgnoreCase(type)) c.setType(Course.Type.ELECTIVE);
+                    } else if (json.textIs("is_fixed")) {
+                        json.next();
+                        fixed = json.booleanValue();
+                    } else if (json.textIs("fixed_slots")) {
+                        if (json.next() != JsonScanner.Token.BEGIN_ARRAY) throw json.error("fixed_slots must be an array");
+                        fixedBlocks = new long[4];
+                        while (json.next() == JsonScanner.Token.BEGIN_ARRAY) {
+                            json.next();
+                            int day = json.intValue();
+                            json.next();
+                            int timeslot = layout.getCalendar().timeslotAtHour(json.intValue());
+                            json.next();
+                            boolean lab = json.textIs("L");
+                            if (json.next() != JsonScanner.Token.END_ARRAY) throw json.error("[day, hour, kind] expected");
+                            if (day < 0 || day >= layout.getDayCount() || timeslot < 0) continue;
+                            long packed = layout.slotIndex(day, timeslot) * 2L + (lab ? 1 : 0);
+                            // consecutive hours of one block map to the same timeslot
+                            if (fixedCount > 0 && fixedBlocks[fixedCount - 1] == packed) continue;
+                            if (fixedCount == fixedBlocks.length) fixedBlocks = Arrays.copyOf(fixedBlocks, fixedCount * 2);
+                            fixedBlocks[fixedCount++] = packed;
+                        }
+                    } else {
+                        json.skipValue();
+                    }
+                }
+                if (c.getCourseId() == null) throw json.error("course without code");
+                if (c.getCohort() == null && year > 0) c.setCohort(cohorts.computeIfAbsent("Year " + year, k -> k));
+                out.addCourse(c);
+                if (fixed) {
+                    for (int i = 0; i < fixedCount; i++) out.addFixed(c, (int) (fixedBlocks[i] >> 1), (fixedBlocks[i] & 1) != 0);
+                }
+            }
+            if (json.token() != JsonScanner.Token.END_ARRAY) throw json.error("course object expected");
+        }
+        return out;
+    }
+
+    private static String stringOf(JsonScanner json) throws IOException {
+        JsonScanner.Token t = json.next();
+        if (t == JsonScanner.Token.NULL) return null;
+        if (t != JsonScanner.Token.STRING && t != JsonScanner.Token.NUMBER) throw json.error("string expected");
+        return json.stringValue();
+    }
+
+    private static int intOf(JsonScanner json) throws IOException {
+        JsonScanner.Token t = json.next();
+        return t == JsonScanner.Token.NULL ? 0 : json.intValue();
+    }
+}
@@ -0,0 +1,130 @@
+package loader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+// Streaming CSV reader (RFC 4180 quoting). Fields are returned one at a time into a reusable char array;
+// numeric fields are parsed in place, so a row never becomes a String[].
+public final class CsvScanner implements Closeable {
+    public enum Field { VALUE, END_OF_RECORD, END_OF_INPUT }
+
+    private final Reader in;
+    private final char delimiter;
+    private final char[] buf = new char[16 * 1024];
+    private int pos;
+    private int limit;
+
+    private char[] text = new char[64];
+    private int textLength;
+    private boolean recordEnded;
+    private long line = 1;
+
+    public CsvScanner(Reader in) {
+        this(in, ',');
+    }
+
+    public CsvScanner(Reader in, char delimiter) {
+        this.in = in;
+        this.delimiter = delimiter;
+    }
+
+    // reads the next field of the current record; END_OF_RECORD once per record after its last field
+    public Field next() throws IOException {
+        if (recordEnded) {
+            recordEnded = false;
+            return Field.END_OF_RECORD;
+        }
+        int c = peek();
+        if (c == -1) return Field.END_OF_INPUT;
+        textLength = 0;
+        if (c == '"') {
+            pos++;
+            while (true) {
+                c = read();
+                if (c == -1) throw error("unterminated quoted field");
+                if (c == '"') {
+                    if (peek() != '"') break;
+                    pos++;
+                }
+                if (c == '\n') line++;
+                append((char) c);
+            }
+            c = read();
+        } else {
+            while ((c = read()) != -1 && c != delimiter && c != '\n' && c != '\r') append((char) c);
+        }
+        if (c == '\r' && peek() == '\n') c = read();
+        if (c == '\n' || c == '\r' || c == -1) {
+            if (c == '\n') line++;
+            recordEnded = true;
+        } else if (c != delimiter) {
+            throw error("unexpected character after quoted field");
+        }
+        return Field.VALUE;
+    }
+
+    // skips the rest of the current record
+    public void skipRecord() throws IOException {
+        while (next() == Field.VALUE) { }
+    }
+
+    public boolean textIs(String s) {
+        if (s.length() != textLength) return false;
+        for (int i = 0; i < textLength; i++) if (text[i] != s.charAt(i)) return false;
+        return true;
+    }
+
+    public boolean isEmpty() { return textLength == 0; }
+
+    public String stringValue() { return new String(text, 0, textLength).trim(); }
+
+    // parses the current field as an int; empty fields are 0
+    public int intValue() throws IOException {
+        int i = 0, end = textLength;
+        while (i < end && text[i] == ' ') i++;
+        while (end > i && text[end - 1] == ' ') end--;
+        boolean negative = i < end && text[i] == '-';
+        if (negative) i++;
+        int v = 0;
+        for (; i < end; i++) {
+            char ch = text[i];
+            if (ch < '0' || ch > '9') throw error("not a number: " + new String(text, 0, textLength));
+            v = v * 10 + (ch - '0');
+        }
+        return negative ? -v : v;
+    }
+
+    public long getLine() { return line; }
+
+    public IOException error(String message) {
+        return new IOException("CSV line " + line + ": " + message);
+    }
+
+    @Override
+    public void close() throws IOException { in.close(); }
+
+    private int peek() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buf[pos];
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) pos++;
+        return c;
+    }
+
+    private void append(char c) {
+        if (textLength == text.length) text = Arrays.copyOf(text, textLength * 2);
+        text[textLength++] = c;
+    }
+}
@@ -0,0 +1,119 @@
+package loader;
+
+import datastructures.Instructor;
+import datastructures.Schedule;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+// Streams an instructor availability file. Availability is collected as a slot bitmask while reading and only
+// turned into the day -> timeslots map once per instructor. Formats:
+//  - CSV with a header row (name,day,timeslot), one row per available slot
+//  - the bee-plan-v2 instructors.json layout: name plus busy_slots [[day, hour], ...]; every other slot is available
+// Every instructor in the file has declared availability, so one listed without a free slot (a CSV row with only
+// a name, busy_slots covering the week) is never available rather than unconstrained.
+public final class InstructorLoader {
+    private InstructorLoader() {}
+
+    public static List<Instructor> load(Path file, Schedule layout, IntConsumer progress) throws IOException {
+        long size = Files.size(file);
+        try (Reader r = new ProgressReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), size, progress)) {
+            return CourseLoader.isJson(file) ? readJson(r, layout) : readCsv(r, layout);
+        }
+    }
+
+    public static List<Instructor> readCsv(Reader reader, Schedule layout) throws IOException {
+        Map<String, long[]> masks = new LinkedHashMap<>();
+        try (CsvScanner csv = new CsvScanner(reader)) {
+            int nameColumn = -1, dayColumn = -1, timeslotColumn = -1, n = 0;
+            // header names ignore case and surrounding spaces, as in CourseLoader
+            while (csv.next() == CsvScanner.Field.VALUE) {
+                String header = csv.stringValue().toLowerCase(Locale.ROOT);
+                if (header.equals("name") || header.equals("instructor")) nameColumn = n;
+                else if (header.equals("day")) dayColumn = n;
+                else if (header.equals("timeslot") || header.equals("slot")) timeslotColumn = n;
+                n++;
+            }
+            if (nameColumn < 0 || dayColumn < 0 || timeslotColumn < 0) throw csv.error("header must have name, day and timeslot");
+            while (true) {
+                String name = null, day = null, timeslot = null;
+                int column = 0;
+                CsvScanner.Field f;
+                while ((f = csv.next()) == CsvScanner.Field.VALUE) {
+                    if (column == nameColumn) name = csv.stringValue();
+                    else if (column == dayColumn) day = csv.stringValue();
+                    else if (column == timeslotColumn) timeslot = csv.stringValue();
+                    column++;
+                }
+                if (name != null && !name.isEmpty()) {
+                    long[] mask = masks.computeIfAbsent(name, k -> new long[1]);
+                    if (day != null && timeslot != null && !day.isEmpty()) {
+                        int slot = CourseLoader.resolveSlot(layout, day, timeslot);
+                        if (slot < 0) throw csv.error("unknown slot " + day + " " + timeslot);
+                        mask[0] |= 1L << slot;
+                    }
+                }
+                if (f == CsvScanner.Field.END_OF_INPUT) break;
+            }
+        }
+        List<Instructor> out = new ArrayList<>(masks.size());
+        for (Map.Entry<String, long[]> e : masks.entrySet()) out.add(toInstructor(e.getKey(), e.getValue()[0], layout));
+        return out;
+    }
+
+    public static List<Instructor> readJson(Reader reader, Schedule layout) throws IOException {
+        List<Instructor> out = new ArrayList<>();
+        try (JsonScanner json = new JsonScanner(reader)) {
+            if (json.next() != JsonScanner.Token.BEGIN_ARRAY) throw json.error("array of instructors expected");
+            while (json.next() == JsonScanner.Token.BEGIN_OBJECT) {
+                String name = null;
+                long busy = 0L;
+                while (json.next() == JsonScanner.Token.NAME) {
+                    if (json.textIs("name")) {
+                        json.next();
+                        name = json.stringValue();
+                    } else if (json.textIs("busy_slots")) {
+                        if (json.next() != JsonScanner.Token.BEGIN_ARRAY) throw json.error("busy_slots must be an array");
+                        while (json.next() == JsonScanner.Token.BEGIN_ARRAY) {
+                            json.next();
+                            int day = json.intValue();
+                            json.next();
+                            int timeslot = layout.getCalendar().timeslotAtHour(json.intValue());
+                            // tolerate extra entries after [day, hour]
+                            while (json.next() != JsonScanner.Token.END_ARRAY) json.skipValue();
+                            if (day >= 0 && day < layout.getDayCount() && timeslot >= 0) {
+                                busy |= 1L << layout.slotIndex(day, timeslot);
+                            }
+                        }
+                    } else {
+                        json.skipValue();
+                    }
+                }
+                if (name == null) throw json.error("instructor without name");
+                out.add(toInstructor(name, layout.allSlotsMask() & ~busy, layout));
+            }
+            if (json.token() != JsonScanner.Token.END_ARRAY) throw json.error("instructor object expected");
+        }
+        return out;
+    }
+
+    private static Instructor toInstructor(String name, long mask, Schedule layout) {
+        Map<String, List<String>> availability = new LinkedHashMap<>();
+        for (long m = mask; m != 0; m &= m - 1) {
+            int slot = Long.numberOfTrailingZeros(m);
+            availability.computeIfAbsent(layout.dayName(slot), k -> new ArrayList<>()).add(layout.timeslotName(slot));
+        }
+        Instructor instructor = new Instructor(name, availability);
+        instructor.compileAvailability(layout);
+        return instructor;
+    }
+}
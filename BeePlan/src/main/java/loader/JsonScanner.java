@@ -0,0 +1,196 @@
+package loader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+// Pull parser for JSON. Tokens are read one at a time from a fixed char buffer; the text of the current
+// name/string/number is kept in a reusable array, so Strings are only created when a caller asks for one.
+public final class JsonScanner implements Closeable {
+    public enum Token { BEGIN_ARRAY, END_ARRAY, BEGIN_OBJECT, END_OBJECT, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END }
+
+    private final Reader in;
+    private final char[] buf = new char[16 * 1024];
+    private int pos;
+    private int limit;
+
+    private char[] text = new char[64];
+    private int textLength;
+    private Token token;
+    private long line = 1;
+
+    public JsonScanner(Reader in) {
+        this.in = in;
+    }
+
+    public Token token() { return token; }
+
+    public Token next() throws IOException {
+        int c = skipSeparators();
+        switch (c) {
+            case -1: return token = Token.END;
+            case '[': return token = Token.BEGIN_ARRAY;
+            case ']': return token = Token.END_ARRAY;
+            case '{': return token = Token.BEGIN_OBJECT;
+            case '}': return token = Token.END_OBJECT;
+            case '"':
+                readString();
+                // a string followed by ':' is an object member name
+                int after = skipWhitespace();
+                if (after == ':') {
+                    pos++;
+                    return token = Token.NAME;
+                }
+                return token = Token.STRING;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber(c);
+                    return token = Token.NUMBER;
+                }
+                readWord(c);
+                if (textIs("true")) return token = Token.TRUE;
+                if (textIs("false")) return token = Token.FALSE;
+                if (textIs("null")) return token = Token.NULL;
+                throw error("unexpected '" + new String(text, 0, textLength) + "'");
+        }
+    }
+
+    // true when the current NAME or STRING equals s, without allocating
+    public boolean textIs(String s) {
+        if (s.length() != textLength) return false;
+        for (int i = 0; i < textLength; i++) if (text[i] != s.charAt(i)) return false;
+        return true;
+    }
+
+    public String stringValue() { return new String(text, 0, textLength); }
+
+    public long longValue() throws IOException {
+        if (token != Token.NUMBER) throw error("number expected");
+        long v = 0;
+        int i = text[0] == '-' ? 1 : 0;
+        for (; i < textLength; i++) {
+            char ch = text[i];
+            if (ch < '0' || ch > '9') return (long) Double.parseDouble(stringValue());
+            v = v * 10 + (ch - '0');
+        }
+        return text[0] == '-' ? -v : v;
+    }
+
+    public int intValue() throws IOException { return (int) longValue(); }
+
+    public boolean booleanValue() throws IOException {
+        if (token != Token.TRUE && token != Token.FALSE) throw error("boolean expected");
+        return token == Token.TRUE;
+    }
+
+    // after a NAME (or at the start of a value): skips the whole value, including nested arrays and objects
+    public void skipValue() throws IOException {
+        Token t = token == Token.NAME ? next() : token;
+        int depth = 0;
+        while (true) {
+            if (t == Token.BEGIN_ARRAY || t == Token.BEGIN_OBJECT) depth++;
+            else if (t == Token.END_ARRAY || t == Token.END_OBJECT) depth--;
+            else if (t == Token.END) throw error("unexpected end of input");
+            if (depth == 0) return;
+            t = next();
+        }
+    }
+
+    public IOException error(String message) {
+        return new IOException("JSON line " + line + ": " + message);
+    }
+
+    @Override
+    public void close() throws IOException { in.close(); }
+
+    // ---- character level ----
+
+    private int peek() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buf[pos];
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t' || c == '\r' || c == '\n') {
+            if (c == '\n') line++;
+            pos++;
+        }
+        return c;
+    }
+
+    // skips whitespace plus ',' and ':' and consumes the first character of the next token
+    private int skipSeparators() throws IOException {
+        int c;
+        while ((c = skipWhitespace()) == ',' || c == ':') pos++;
+        if (c != -1) pos++;
+        return c;
+    }
+
+    private void append(char c) {
+        if (textLength == text.length) text = Arrays.copyOf(text, textLength * 2);
+        text[textLength++] = c;
+    }
+
+    private void readString() throws IOException {
+        textLength = 0;
+        while (true) {
+            int c = peek();
+            if (c == -1) throw error("unterminated string");
+            pos++;
+            if (c == '"') return;
+            if (c != '\\') {
+                append((char) c);
+                continue;
+            }
+            int e = peek();
+            pos++;
+            switch (e) {
+                case 'n': append('\n'); break;
+                case 't': append('\t'); break;
+                case 'r': append('\r'); break;
+                case 'b': append('\b'); break;
+                case 'f': append('\f'); break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int h = peek();
+                        pos++;
+                        code = code * 16 + Character.digit(h, 16);
+                    }
+                    append((char) code);
+                    break;
+                case -1: throw error("unterminated escape");
+                default: append((char) e);
+            }
+        }
+    }
+
+    private void readNumber(int first) throws IOException {
+        textLength = 0;
+        append((char) first);
+        int c;
+        while ((c = peek()) != -1 && (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9'))) {
+            append((char) c);
+            pos++;
+        }
+    }
+
+    private void readWord(int first) throws IOException {
+        textLength = 0;
+        append((char) first);
+        int c;
+        while ((c = peek()) != -1 && Character.isLetter(c)) {
+            append((char) c);
+            pos++;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package loader;
+
+import datastructures.Course;
+import datastructures.Schedule;
+import datastructures.SlotCalendar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Courses read from a file plus the fixed slots some of them carry (e.g. the common schedule)
+public class LoadedCourses {
+    // the layout the fixed slot indices refer to
+    private final SlotCalendar calendar;
+    private final List<Course> courses = new ArrayList<>();
+    // parallel lists: course, slot index, lab flag of every fixed block
+    private final List<Course> fixedCourses = new ArrayList<>();
+    private final List<Integer> fixedSlots = new ArrayList<>();
+    private final List<Boolean> fixedLab = new ArrayList<>();
+
+    LoadedCourses(SlotCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    void addCourse(Course c) { courses.add(c); }
+
+    void addFixed(Course c, int slot, boolean lab) {
+        fixedCourses.add(c);
+        fixedSlots.add(slot);
+        fixedLab.add(lab);
+    }
+
+    public List<Course> getCourses() { return courses; }
+    public int getFixedCount() { return fixedSlots.size(); }
+
+    // adds the courses to the schedule and pins their fixed blocks; when the schedule has another calendar,
+    // fixed slots are matched by day and timeslot name and dropped if the new calendar has no such slot
+    public void addTo(Schedule schedule) {
+        schedule.getCourseList().addAll(courses);
+        SlotCalendar target = schedule.getCalendar();
+        for (int i = 0; i < fixedSlots.size(); i++) {
+            int slot = fixedSlots.get(i);
+            if (!target.equals(calendar)) {
+                slot = target.slotIndex(calendar.dayName(calendar.dayOf(slot)), calendar.timeslotLabel(calendar.timeslotOf(slot)));
+                if (slot < 0) continue;
+            }
+            schedule.pin(fixedCourses.get(i), slot, fixedLab.get(i), null);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package loader;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.IntConsumer;
+
+// Counts the characters read and reports progress in percent of an expected total (0..100, only on change)
+public class ProgressReader extends FilterReader {
+    private final long total;
+    private final IntConsumer progress;
+    private long count;
+    private int lastPercent = -1;
+
+    public ProgressReader(Reader in, long total, IntConsumer progress) {
+        super(in);
+        this.total = Math.max(1, total);
+        this.progress = progress;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int c = super.read();
+        if (c >= 0) advance(1);
+        return c;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        int n = super.read(cbuf, off, len);
+        if (n > 0) advance(n);
+        return n;
+    }
+
+    private void advance(int n) {
+        count += n;
+        int percent = (int) Math.min(100, count * 100 / total);
+        if (percent != lastPercent) {
+            lastPercent = percent;
+            progress.accept(percent);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package loader;
+
+import datastructures.Room;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+// Streams a room file: CSV with a header row (name,capacity,type) or the bee-plan-v2 rooms.json layout.
+// type "Lab" (any case) is a lab, everything else ("Classroom", "Lecture", empty) a lecture room.
+public final class RoomLoader {
+    private RoomLoader() {}
+
+    public static List<Room> load(Path file, IntConsumer progress) throws IOException {
+        long size = Files.size(file);
+        try (Reader r = new ProgressReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), size, progress)) {
+            return CourseLoader.isJson(file) ? readJson(r) : readCsv(r);
+        }
+    }
+
+    public static List<Room> readCsv(Reader reader) throws IOException {
+        List<Room> out = new ArrayList<>();
+        try (CsvScanner csv = new CsvScanner(reader)) {
+            int nameColumn = -1, capacityColumn = -1, typeColumn = -1, n = 0;
+            while (csv.next() == CsvScanner.Field.VALUE) {
+                if (csv.textIs("name") || csv.textIs("room")) nameColumn = n;
+                else if (csv.textIs("capacity")) capacityColumn = n;
+                else if (csv.textIs("type") || csv.textIs("kind")) typeColumn = n;
+                n++;
+            }
+            if (nameColumn < 0 || capacityColumn < 0) throw csv.error("header must have name and capacity");
+            while (true) {
+                Room room = new Room(null, 0, Room.Kind.LECTURE);
+                int column = 0;
+                CsvScanner.Field f;
+                while ((f = csv.next()) == CsvScanner.Field.VALUE) {
+                    if (column == nameColumn) room.setName(csv.stringValue());
+                    else if (column == capacityColumn) room.setCapacity(csv.intValue());
+                    else if (column == typeColumn) room.setKind(isLab(csv.stringValue()) ? Room.Kind.LAB : Room.Kind.LECTURE);
+                    column++;
+                }
+                if (room.getName() != null && !room.getName().isEmpty()) out.add(room);
+                if (f == CsvScanner.Field.END_OF_INPUT) break;
+            }
+        }
+        return out;
+    }
+
+    public static List<Room> readJson(Reader reader) throws IOException {
+        List<Room> out = new ArrayList<>();
+        try (JsonScanner json = new JsonScanner(reader)) {
+            if (json.next() != JsonScanner.Token.BEGIN_ARRAY) throw json.error("array of rooms expected");
+            while (json.next() == JsonScanner.Token.BEGIN_OBJECT) {
+                Room room = new Room(null, 0, Room.Kind.LECTURE);
+                while (json.next() == JsonScanner.Token.NAME) {
+                    if (json.textIs("name")) {
+                        json.next();
+                        room.setName(json.stringValue());
+                    } else if (json.textIs("capacity")) {
+                        json.next();
+                        room.setCapacity(json.intValue());
+                    } else if (json.textIs("type") || json.textIs("kind")) {
+                        json.next();
+                        room.setKind(isLab(json.stringValue()) ? Room.Kind.LAB : Room.Kind.LECTURE);
+                    } else {
+                        json.skipValue();
+                    }
+                }
+                if (room.getName() == null) throw json.error("room without name");
+                out.add(room);
+            }
+            if (json.token() != JsonScanner.Token.END_ARRAY) throw json.error("room object expected");
+        }
+        return out;
+    }
+
+    private static boolean isLab(String type) {
+        return type.equalsIgnoreCase("lab") || type.equalsIgnoreCase("laboratory");
+    }
+}
@@ -0,0 +1,27 @@
+package solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// One AnnealingOptimizer run; the event duration is the optimization time
+@Name("beeplan.Anneal")
+@Label("Schedule Optimization")
+@Category({"BeePlan", "Solver"})
+final class AnnealEvent extends Event {
+    @Label("Initial Score")
+    long initialScore;
+
+    @Label("Best Score")
+    long bestScore;
+
+    @Label("Moves Evaluated")
+    long movesEvaluated;
+
+    @Label("Moves Accepted")
+    long movesAccepted;
+
+    @Label("Constraint Evaluations")
+    long constraintEvaluations;
+}
@@ -0,0 +1,512 @@
+package solver;
+
+import datastructures.InstructorDayLoad;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Simulated annealing over a feasible assignment for the soft goals:
+//  - student gaps: idle slots between the first and last class of a cohort on a day
+//  - instructor balance: sum over instructor days of (blocks that day)^2
+//  - lab distance: slots between a course's last theory block and each of its labs
+// plus the weighted soft ScheduleRules of the Constraint.
+// Moves relocate one block or swap two; both keep every hard rule of the search intact.
+// Scores are kept in occupancy words and per-day counters, so a move's delta is O(1); pluggable rules are
+// re-evaluated only for the terms of the moved courses.
+public class AnnealingOptimizer {
+    private long timeBudgetMillis = 2_000L;
+    private long seed = 0L;
+    private int gapWeight = 3;
+    private int balanceWeight = 1;
+    private int labDistanceWeight = 1;
+    private double startTemperature = 4.0;
+    private double endTemperature = 0.05;
+    private long progressIntervalMillis = 250L;
+
+    public AnnealingOptimizer() {}
+
+    public AnnealingOptimizer(long timeBudgetMillis, long seed) {
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.seed = seed;
+    }
+
+    public long getTimeBudgetMillis() { return timeBudgetMillis; }
+    public void setTimeBudgetMillis(long timeBudgetMillis) { this.timeBudgetMillis = timeBudgetMillis; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public void setWeights(int gapWeight, int balanceWeight, int labDistanceWeight) {
+        this.gapWeight = gapWeight;
+        this.balanceWeight = balanceWeight;
+        this.labDistanceWeight = labDistanceWeight;
+    }
+
+    public void setTemperatures(double startTemperature, double endTemperature) {
+        this.startTemperature = startTemperature;
+        this.endTemperature = endTemperature;
+    }
+
+    // minimum time between two improvements handed to an ImprovementListener
+    public long getProgressIntervalMillis() { return progressIntervalMillis; }
+    public void setProgressIntervalMillis(long progressIntervalMillis) { this.progressIntervalMillis = progressIntervalMillis; }
+
+    // everything that shapes the optimised assignment, e.g. to tell apart SolveCache entries
+    public String settings() {
+        return "anneal " + timeBudgetMillis + "ms seed " + seed + " weights " + gapWeight + "/" + balanceWeight + "/"
+                + labDistanceWeight + " temperatures " + startTemperature + "-" + endTemperature;
+    }
+
+    // blocks the start result did not place stay unplaced
+    public AnnealingResult optimize(SolverResult start) {
+        return optimize(start, null, null);
+    }
+
+    // cancel ends the run early with the best assignment so far; listener (may be null) gets improved
+    // assignments at most once per progress interval
+    public AnnealingResult optimize(SolverResult start, AtomicBoolean cancel, ImprovementListener listener) {
+        return new Run(start).run(cancel, listener);
+    }
+
+    // score of an assignment without optimizing it
+    public long score(SolverResult result) {
+        return new Run(result).total();
+    }
+
+    // an assignment kept in the optimizer's occupancy words and score terms, for what-if queries (MoveEvaluator)
+    Run session(SolverResult start) {
+        Run run = new Run(start);
+        run.total();
+        return run;
+    }
+
+    private static final long REJECT = Long.MIN_VALUE;
+
+    final class Run {
+        private final SolverResult start;
+        private final Problem p;
+        private final int days;
+        private final int spd;
+        private final long lowDay;
+        private final int[] slot;
+        private final int[] placed;
+        private final long[] instBusy;
+        private final long[] cohortBusy;
+        private final long[] courseBusy;
+        private final InstructorDayLoad theoryLoad;
+        private final int[] dayCount;     // instructor * days + day -> all blocks
+        private final SplittableRandom random = new SplittableRandom(seed);
+        private final RuleKernel.Evaluation rules;     // null when no ScheduleRule is registered
+        // telemetry: feasibility and score evaluations, and what was already added to SolverMetrics
+        private long evaluations;
+        private long flushedMoves, flushedEvaluations;
+        private final AnnealEvent event = new AnnealEvent();
+
+        // components touched by the current move, without duplicates
+        private final int[] touchedCohortDays = new int[4];
+        private final int[] touchedInstDays = new int[4];
+        private final int[] touchedCourses = new int[2];
+        private int nCohortDays, nInstDays, nCourses;
+
+        Run(SolverResult start) {
+            this.start = start;
+            this.p = start.getProblem();
+            this.days = p.days;
+            this.spd = p.slotsPerDay;
+            this.lowDay = (1L << spd) - 1;
+            slot = new int[p.blockCount];
+            instBusy = new long[p.instructorBlocks.length];
+            cohortBusy = new long[p.cohortBlocks.length];
+            courseBusy = new long[p.courseBlocks.length];
+            theoryLoad = new InstructorDayLoad(days, p.maxTheoryHoursPerDay, instBusy.length);
+            dayCount = new int[Math.max(1, instBusy.length * days)];
+            int count = 0;
+            for (int b = 0; b < slot.length; b++) {
+                slot[b] = -1;
+                int s = start.slotOf(b);
+                if (s >= 0) {
+                    placeAt(b, s);
+                    count++;
+                }
+            }
+            placed = new int[count];
+            for (int b = 0, i = 0; b < slot.length; b++) if (slot[b] >= 0) placed[i++] = b;
+            rules = p.ruleKernel.isEmpty() ? null : p.ruleKernel.evaluation(slot);
+        }
+
+        AnnealingResult run(AtomicBoolean cancel, ImprovementListener listener) {
+            long begin = System.nanoTime();
+            long interval = progressIntervalMillis * 1_000_000L;
+            long nextReport = interval;
+            long reported = Long.MAX_VALUE;
+            long budget = timeBudgetMillis * 1_000_000L;
+            long current = total();
+            long initial = current;
+            long best = current;
+            int[] bestSlots = slot.clone();
+            boolean bestIsCurrent = true;
+            long evaluated = 0, accepted = 0;
+            List<AnnealingResult.Sample> trace = new ArrayList<>();
+            event.begin();
+            improved(trace, new AnnealingResult.Sample(0, 0, current));
+            if (placed.length < 2) return finish(initial, best, bestSlots, 0, 0, System.nanoTime() - begin, trace);
+
+            double temperature = startTemperature;
+            double cooling = Math.log(endTemperature / startTemperature);
+            long elapsed = 0;
+            while (true) {
+                if ((evaluated & 1023) == 0) {
+                    flush(evaluated);
+                    elapsed = System.nanoTime() - begin;
+                    if (elapsed >= budget || (cancel != null && cancel.get())) break;
+                    temperature = startTemperature * Math.exp(cooling * elapsed / budget);
+                    if (listener != null && elapsed >= nextReport) {
+                        nextReport = elapsed + interval;
+                        if (best < reported) {
+                            reported = best;
+                            listener.optimized(start.withSlots(bestIsCurrent ? slot : bestSlots), best);
+                        }
+                    }
+                }
+                evaluated++;
+                int b1 = placed[random.nextInt(placed.length)];
+                int s1 = slot[b1];
+                long delta;
+                int b2 = -1, target;
+                if (random.nextInt(4) != 0) {
+                    // relocate b1 to another feasible slot
+                    unplace(b1);
+                    long free = feasible(b1) & ~(1L << s1);
+                    placeAt(b1, s1);
+                    if (free == 0L) continue;
+                    target = pick(free);
+                    collect(b1, -1, s1, target);
+                    long before = local();
+                    move(b1, target);
+                    delta = local() - before;
+                    long ruled = ruleDelta(b1, -1);
+                    if (ruled == REJECT) {
+                        move(b1, s1);
+                        continue;
+                    }
+                    delta += ruled;
+                } else {
+                    b2 = placed[random.nextInt(placed.length)];
+                    target = slot[b2];
+                    if (target == s1) continue;
+                    collect(b1, b2, s1, target);
+                    long before = local();
+                    if (!swap(b1, b2)) continue;
+                    delta = local() - before;
+                    long ruled = ruleDelta(b1, b2);
+                    if (ruled == REJECT) {
+                        swap(b1, b2);
+                        continue;
+                    }
+                    delta += ruled;
+                }
+                if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                    if (delta > 0 && bestIsCurrent) {
+                        // leaving the best state: keep a copy of it (the move is already applied, so undo it in the copy)
+                        System.arraycopy(slot, 0, bestSlots, 0, slot.length);
+                        bestSlots[b1] = s1;
+                        if (b2 >= 0) bestSlots[b2] = target;
+                        bestIsCurrent = false;
+                    }
+                    accepted++;
+                    current += delta;
+                    if (rules != null) rules.commit();
+                    if (current < best) {
+                        best = current;
+                        bestIsCurrent = true;
+                        if (trace.get(trace.size() - 1).getElapsedMillis() < elapsed / 1_000_000L) {
+                            improved(trace, new AnnealingResult.Sample(elapsed / 1_000_000L, evaluated, best));
+                        }
+                    }
+                } else if (b2 < 0) {
+                    move(b1, s1);
+                } else {
+                    swap(b1, b2);
+                }
+            }
+            if (bestIsCurrent) System.arraycopy(slot, 0, bestSlots, 0, slot.length);
+            elapsed = System.nanoTime() - begin;
+            improved(trace, new AnnealingResult.Sample(elapsed / 1_000_000L, evaluated, best));
+            return finish(initial, best, bestSlots, evaluated, accepted, elapsed, trace);
+        }
+
+        private AnnealingResult finish(long initial, long best, int[] bestSlots, long evaluated, long accepted,
+                                       long elapsed, List<AnnealingResult.Sample> trace) {
+            flush(evaluated);
+            event.end();
+            if (event.shouldCommit()) {
+                event.initialScore = initial;
+                event.bestScore = best;
+                event.movesEvaluated = evaluated;
+                event.movesAccepted = accepted;
+                event.constraintEvaluations = flushedEvaluations;
+                event.commit();
+            }
+            return new AnnealingResult(start.withSlots(bestSlots), initial, best, evaluated, accepted, elapsed, trace);
+        }
+
+        // ---- telemetry ----
+
+        private void improved(List<AnnealingResult.Sample> trace, AnnealingResult.Sample sample) {
+            trace.add(sample);
+            SolverMetrics.recordBestScore(sample);
+            ScoreEvent e = new ScoreEvent();
+            if (e.shouldCommit()) {
+                e.score = sample.getScore();
+                e.moves = sample.getMoves();
+                e.commit();
+            }
+        }
+
+        private void flush(long moves) {
+            long all = evaluations + (rules == null ? 0 : rules.getEvaluations());
+            SolverMetrics.addAnneal(moves - flushedMoves, all - flushedEvaluations);
+            flushedMoves = moves;
+            flushedEvaluations = all;
+        }
+
+        // ---- occupancy ----
+
+        private void placeAt(int b, int s) {
+            slot[b] = s;
+            long bit = 1L << s;
+            int inst = p.blockInstructor[b], cohort = p.blockCohort[b];
+            courseBusy[p.blockCourse[b]] |= bit;
+            if (cohort >= 0) cohortBusy[cohort] |= bit;
+            if (inst >= 0) {
+                instBusy[inst] |= bit;
+                int key = inst * days + s / spd;
+                dayCount[key]++;
+                if (!p.blockLab[b]) theoryLoad.add(inst, s / spd, p.slotHours[s]);
+            }
+        }
+
+        private void unplace(int b) {
+            int s = slot[b];
+            long keep = ~(1L << s);
+            int inst = p.blockInstructor[b], cohort = p.blockCohort[b];
+            courseBusy[p.blockCourse[b]] &= keep;
+            if (cohort >= 0) cohortBusy[cohort] &= keep;
+            if (inst >= 0) {
+                instBusy[inst] &= keep;
+                int key = inst * days + s / spd;
+                dayCount[key]--;
+                if (!p.blockLab[b]) theoryLoad.add(inst, s / spd, -p.slotHours[s]);
+            }
+            slot[b] = -1;
+        }
+
+        private void move(int b, int s) {
+            unplace(b);
+            placeAt(b, s);
+        }
+
+        // exchanges the slots of b1 and b2 if both stay feasible; otherwise leaves everything as it was
+        private boolean swap(int b1, int b2) {
+            int s1 = slot[b1], s2 = slot[b2];
+            unplace(b1);
+            unplace(b2);
+            if ((feasible(b1) & (1L << s2)) != 0) {
+                placeAt(b1, s2);
+                if ((feasible(b2) & (1L << s1)) != 0) {
+                    placeAt(b2, s1);
+                    return true;
+                }
+                unplace(b1);
+            }
+            placeAt(b1, s1);
+            placeAt(b2, s2);
+            return false;
+        }
+
+        // slots an unplaced block may take without breaking a hard rule
+        private long feasible(int b) {
+            evaluations++;
+            return resources(b) & ordering(b, true);
+        }
+
+        // slots of the block's domain its course, instructor and cohort leave free, within the daily limit
+        private long resources(int b) {
+            int inst = p.blockInstructor[b], cohort = p.blockCohort[b];
+            long free = p.initialDomain[b] & ~courseBusy[p.blockCourse[b]];
+            if (cohort >= 0) free &= ~cohortBusy[cohort];
+            if (inst >= 0) {
+                free &= ~instBusy[inst];
+                if (!p.blockLab[b]) {
+                    for (int d = 0; d < days; d++) {
+                        free &= ~p.dayMasks[d] | p.fitting(p.maxTheoryHoursPerDay - theoryLoad.get(inst, d));
+                    }
+                }
+            }
+            return free;
+        }
+
+        // slots that keep the precedence edges to the placed neighbours; without sameKind the edges to the
+        // course's other blocks of the same kind are skipped (those blocks are interchangeable)
+        private long ordering(int b, boolean sameKind) {
+            long free = -1L;
+            for (int u : p.precedence.predecessors(b)) {
+                int su = slot[u];
+                if (su >= 0 && (sameKind || !sibling(b, u))) free &= su == 63 ? 0L : -1L << (su + 1);
+            }
+            for (int u : p.precedence.successors(b)) {
+                int su = slot[u];
+                if (su >= 0 && (sameKind || !sibling(b, u))) free &= (1L << su) - 1;
+            }
+            return free;
+        }
+
+        private boolean sibling(int b, int u) {
+            return p.blockCourse[u] == p.blockCourse[b] && p.blockLab[u] == p.blockLab[b];
+        }
+
+        private int pick(long values) {
+            for (int skip = random.nextInt(Long.bitCount(values)); skip > 0; skip--) values &= values - 1;
+            return Long.numberOfTrailingZeros(values);
+        }
+
+        // ---- scoring ----
+
+        long total() {
+            long sum = 0;
+            for (int c = 0; c < cohortBusy.length; c++) {
+                for (int d = 0; d < days; d++) sum += gapWeight * gaps(c, d);
+            }
+            for (int count : dayCount) sum += (long) balanceWeight * count * count;
+            for (int c = 0; c < courseBusy.length; c++) sum += labWeighted(c);
+            if (rules != null) sum += rules.softTotal();
+            return sum;
+        }
+
+        // soft rule change of the applied move, or REJECT when it breaks a hard rule that held before
+        private long ruleDelta(int b1, int b2) {
+            if (rules == null) return 0;
+            long soft = rules.delta(p.blockCourse[b1], b2 < 0 ? -1 : p.blockCourse[b2]);
+            return rules.hardDelta() > 0 ? REJECT : soft;
+        }
+
+        private int gaps(int cohort, int day) {
+            long bits = (cohortBusy[cohort] >>> (day * spd)) & lowDay;
+            if (bits == 0L) return 0;
+            return 64 - Long.numberOfLeadingZeros(bits) - Long.numberOfTrailingZeros(bits) - Long.bitCount(bits);
+        }
+
+        private long labWeighted(int course) {
+            if (labDistanceWeight == 0) return 0;
+            int lastTheory = -1;
+            int[] blocks = p.courseBlocks[course];
+            for (int b : blocks) if (!p.blockLab[b] && slot[b] > lastTheory) lastTheory = slot[b];
+            if (lastTheory < 0) return 0;
+            long sum = 0;
+            for (int b : blocks) {
+                if (p.blockLab[b] && slot[b] >= 0) sum += Math.max(0, Math.abs(slot[b] - lastTheory) - 1);
+            }
+            return sum * labDistanceWeight;
+        }
+
+        private void collect(int b1, int b2, int s1, int s2) {
+            nCohortDays = nInstDays = nCourses = 0;
+            touch(b1, s1, s2);
+            if (b2 >= 0) touch(b2, s1, s2);
+        }
+
+        private void touch(int b, int s1, int s2) {
+            int cohort = p.blockCohort[b], inst = p.blockInstructor[b];
+            int d1 = s1 / spd, d2 = s2 / spd;
+            if (cohort >= 0) {
+                nCohortDays = addUnique(touchedCohortDays, nCohortDays, cohort * days + d1);
+                nCohortDays = addUnique(touchedCohortDays, nCohortDays, cohort * days + d2);
+            }
+            if (inst >= 0) {
+                nInstDays = addUnique(touchedInstDays, nInstDays, inst * days + d1);
+                nInstDays = addUnique(touchedInstDays, nInstDays, inst * days + d2);
+            }
+            nCourses = addUnique(touchedCourses, nCourses, p.blockCourse[b]);
+        }
+
+        private int addUnique(int[] keys, int n, int key) {
+            for (int i = 0; i < n; i++) if (keys[i] == key) return n;
+            keys[n] = key;
+            return n + 1;
+        }
+
+        // score of the touched components only
+        private long local() {
+            evaluations++;
+            long sum = 0;
+            for (int i = 0; i < nCohortDays; i++) {
+                sum += gapWeight * gaps(touchedCohortDays[i] / days, touchedCohortDays[i] % days);
+            }
+            for (int i = 0; i < nInstDays; i++) {
+                long count = dayCount[touchedInstDays[i]];
+                sum += balanceWeight * count * count;
+            }
+            for (int i = 0; i < nCourses; i++) sum += labWeighted(touchedCourses[i]);
+            return sum;
+        }
+
+        // ---- what-if queries ----
+
+        int slotOf(int b) { return slot[b]; }
+
+        // for a placed block: the slots it could move to (its own included) and in costs[s] the score change of
+        // each such move; blocked[reason] gets the slots each MoveOptions.Reason rules out. Nothing is changed.
+        // A block may pass the other blocks of its kind: they just swap roles, so in-kind order is not checked.
+        long relocations(int b, long[] costs, long[] blocked) {
+            int s1 = slot[b];
+            unplace(b);
+            evaluations++;
+            long ordered = ordering(b, false);
+            long free = resources(b) & ordered;
+            int inst = p.blockInstructor[b], cohort = p.blockCohort[b];
+            blocked[MoveOptions.Reason.COURSE.ordinal()] = courseBusy[p.blockCourse[b]];
+            blocked[MoveOptions.Reason.INSTRUCTOR.ordinal()] = inst < 0 ? 0L : instBusy[inst];
+            blocked[MoveOptions.Reason.COHORT.ordinal()] = cohort < 0 ? 0L : cohortBusy[cohort];
+            long full = 0L;
+            if (inst >= 0 && !p.blockLab[b]) {
+                for (int d = 0; d < days; d++) {
+                    full |= p.dayMasks[d] & ~p.fitting(p.maxTheoryHoursPerDay - theoryLoad.get(inst, d));
+                }
+            }
+            blocked[MoveOptions.Reason.DAILY_LIMIT.ordinal()] = full;
+            blocked[MoveOptions.Reason.ORDER.ordinal()] = ~ordered;
+            placeAt(b, s1);
+            costs[s1] = 0;
+            long rejected = 0L;
+            for (long m = free & ~(1L << s1); m != 0; m &= m - 1) {
+                int target = Long.numberOfTrailingZeros(m);
+                collect(b, -1, s1, target);
+                long before = local();
+                move(b, target);
+                long delta = local() - before;
+                long ruled = ruleDelta(b, -1);
+                move(b, s1);
+                if (ruled == REJECT) rejected |= 1L << target;
+                else costs[target] = delta + ruled;
+            }
+            blocked[MoveOptions.Reason.RULE.ordinal()] = rejected;
+            return (free | 1L << s1) & ~rejected;
+        }
+
+        // moves a placed block and keeps the new state; returns the score change
+        long relocate(int b, int target) {
+            int s1 = slot[b];
+            collect(b, -1, s1, target);
+            long before = local();
+            move(b, target);
+            long delta = local() - before;
+            if (rules != null) {
+                delta += rules.delta(p.blockCourse[b], -1);
+                rules.commit();
+            }
+            return delta;
+        }
+    }
+}
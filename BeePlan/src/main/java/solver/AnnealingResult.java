@@ -0,0 +1,64 @@
+package solver;
+
+import java.util.List;
+
+// Outcome of an AnnealingOptimizer run: the improved assignment plus the score-versus-time trace
+public class AnnealingResult {
+    // best score known at some point of the run
+    public static class Sample {
+        private final long elapsedMillis;
+        private final long moves;
+        private final long score;
+
+        Sample(long elapsedMillis, long moves, long score) {
+            this.elapsedMillis = elapsedMillis;
+            this.moves = moves;
+            this.score = score;
+        }
+
+        public long getElapsedMillis() { return elapsedMillis; }
+        public long getMoves() { return moves; }
+        public long getScore() { return score; }
+
+        @Override
+        public String toString() { return elapsedMillis + "ms:" + score; }
+    }
+
+    private final SolverResult result;
+    private final long initialScore;
+    private final long bestScore;
+    private final long movesEvaluated;
+    private final long movesAccepted;
+    private final long elapsedNanos;
+    private final List<Sample> trace;
+
+    AnnealingResult(SolverResult result, long initialScore, long bestScore, long movesEvaluated,
+                    long movesAccepted, long elapsedNanos, List<Sample> trace) {
+        this.result = result;
+        this.initialScore = initialScore;
+        this.bestScore = bestScore;
+        this.movesEvaluated = movesEvaluated;
+        this.movesAccepted = movesAccepted;
+        this.elapsedNanos = elapsedNanos;
+        this.trace = List.copyOf(trace);
+    }
+
+    // the improved assignment; same status and statistics as the run it started from
+    public SolverResult getResult() { return result; }
+    public long getInitialScore() { return initialScore; }
+    public long getBestScore() { return bestScore; }
+    public long getMovesEvaluated() { return movesEvaluated; }
+    public long getMovesAccepted() { return movesAccepted; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000L; }
+    public List<Sample> getTrace() { return trace; }
+
+    public double getMovesPerSecond() {
+        return elapsedNanos == 0 ? 0 : movesEvaluated * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "score " + initialScore + " -> " + bestScore + " (" + movesEvaluated + " moves, "
+                + Math.round(getMovesPerSecond()) + "/s, " + getElapsedMillis() + " ms)";
+    }
+}
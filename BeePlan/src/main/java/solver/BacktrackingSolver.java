@@ -0,0 +1,511 @@
+package solver;
+
+import datastructures.InstructorDayLoad;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Depth-first search over course blocks with forward checking.
+// Variable order: fewest remaining slots first (MRV), then most resource neighbours (degree), then a seeded key.
+// The rules of Constraint are hard constraints here: Friday and capacity shrink the initial domains,
+// instructor/cohort clashes, the daily theory limit and lab-after-theory prune the domains of unplaced blocks.
+// Hard ScheduleRules reject a placement that breaks them.
+// Dead ends are explained (FC-CBJ): every domain change remembers the decision that made it, so when all slots
+// of a block fail the search jumps straight back to the deepest decision responsible and carries the rest of
+// the explanation along. Each such explanation is also stored as a nogood, and later placements that would
+// complete a stored nogood are skipped without propagating.
+public class BacktrackingSolver {
+    private final SolverConfig config;
+
+    public BacktrackingSolver() {
+        this(new SolverConfig());
+    }
+
+    public BacktrackingSolver(SolverConfig config) {
+        this.config = config;
+    }
+
+    public SolverConfig getConfig() { return config; }
+
+    public SolverResult solve(Problem problem) {
+        return solve(problem, null);
+    }
+
+    // cancel is polled cooperatively; once it is set the run returns CANCELLED with its deepest assignment
+    public SolverResult solve(Problem problem, AtomicBoolean cancel) {
+        return solve(problem, cancel, null);
+    }
+
+    // listener (may be null) gets the deepest assignment whenever it grew, at most once per progress interval
+    public SolverResult solve(Problem problem, AtomicBoolean cancel, ImprovementListener listener) {
+        return new Search(problem, config, problem.initialDomain, null, cancel, listener).run();
+    }
+
+    // warm start: the search begins from the given domains (a subset of the problem's) and tries the
+    // preferred slot of a block (-1 = none) before any other
+    SolverResult solve(Problem problem, long[] domains, int[] preferred, AtomicBoolean cancel) {
+        return new Search(problem, config, domains, preferred, cancel, null).run();
+    }
+
+    // one in PROPAGATION_SAMPLE_MASK + 1 placements is timed; flushes happen every FLUSH_MASK + 1 steps
+    private static final long PROPAGATION_SAMPLE_MASK = 63;
+    private static final long FLUSH_MASK = 4095;
+
+    private static final class Search {
+        private final Problem p;
+        private final int n;
+        private final long deadline;
+        private final long start;
+        private final AtomicBoolean cancel;
+        private final ImprovementListener listener;
+        private final long progressInterval;
+        private final SplittableRandom valueRandom;
+        private final int[] preferred;
+        private final RuleKernel.Evaluation rules;     // null when no hard ScheduleRule is registered
+
+        private final long[] domain;
+        private final int[] slotOf;
+        private final InstructorDayLoad theoryLoad;     // theory blocks placed per instructor and day
+        private final int[] degree;
+        private final int[] tieKey;
+
+        // undo log of domain changes; with backjumping each entry also keeps the depth that made it, the
+        // previous entry of the same block and, for daily-limit prunings, the instructor and day (inst * days + day)
+        private int[] trailBlock = new int[256];
+        private long[] trailDomain = new long[256];
+        private int[] trailDepth = new int[256];
+        private int[] trailPrev = new int[256];
+        private int[] trailLoad = new int[256];
+        private int trailSize;
+
+        // search stack: order[0..depth) are the placed blocks, in placement order
+        private final int[] order;
+        private final long[] untried;
+        private final int[] mark;
+
+        // conflict-directed backjumping (null arrays when disabled)
+        private final boolean backjump;
+        private final NogoodStore nogoods;
+        private final int[] lastTrail;        // newest trail entry of each block, -1 when none
+        private final int[] depthOf;          // depth a placed block was decided at
+        private int[][] conflict;             // per depth: decisions (depths) explaining the failed slots
+        private int[] conflictSize;
+        private int[] conflictStamp;
+        private int[] seen;                   // per depth value: stamp of the conflict set it was added to
+        private int stamp;
+        private int currentDepth;
+        private int loadReason = -1;          // trailLoad of the prunings being made
+        private int failedBlock = -1;
+        private int[] learnBuffer;
+        private long backjumps;
+        private long skippedLevels;
+
+        private long nodes;
+        private long backtracks;
+        // telemetry: restrict calls, sampled propagation time, and what was already added to SolverMetrics
+        private long evaluations;
+        private long propagationNanos;
+        private long flushedNodes, flushedBacktracks, flushedPropagation, flushedEvaluations;
+        private final SearchEvent event = new SearchEvent();
+        private final long seed;
+        private int[] best;
+        private int bestDepth = -1;
+        private int reportedDepth;
+        private long nextReport;
+
+        Search(Problem p, SolverConfig config, long[] domains, int[] preferred, AtomicBoolean cancel, ImprovementListener listener) {
+            this.p = p;
+            this.preferred = preferred;
+            this.seed = config.getSeed();
+            this.cancel = cancel;
+            this.listener = listener;
+            this.progressInterval = config.getProgressIntervalMillis() * 1_000_000L;
+            this.n = p.blockCount;
+            this.start = System.nanoTime();
+            this.deadline = start + config.getTimeLimitMillis() * 1_000_000L;
+            this.nextReport = start + progressInterval;
+            domain = domains.clone();
+            slotOf = new int[n];
+            Arrays.fill(slotOf, -1);
+            theoryLoad = new InstructorDayLoad(p.days, p.maxTheoryHoursPerDay, p.instructorBlocks.length);
+            order = new int[n];
+            untried = new long[n];
+            mark = new int[n];
+            degree = new int[n];
+            tieKey = new int[n];
+            SplittableRandom random = new SplittableRandom(config.getSeed());
+            for (int b = 0; b < n; b++) {
+                order[b] = b;
+                int inst = p.blockInstructor[b], cohort = p.blockCohort[b];
+                degree[b] = p.courseBlocks[p.blockCourse[b]].length
+                        + (inst < 0 ? 0 : p.instructorBlocks[inst].length)
+                        + (cohort < 0 ? 0 : p.cohortBlocks[cohort].length);
+                tieKey[b] = random.nextInt();
+            }
+            valueRandom = config.isRandomValueOrder() ? random.split() : null;
+            rules = p.ruleKernel.hasHard() ? p.ruleKernel.evaluation(slotOf) : null;
+            backjump = config.isBackjumping();
+            nogoods = backjump && config.getNogoodCapacity() > 0 ? new NogoodStore(n, config.getNogoodCapacity()) : null;
+            if (backjump) {
+                lastTrail = new int[n];
+                Arrays.fill(lastTrail, -1);
+                depthOf = new int[n];
+                conflict = new int[n][];
+                conflictSize = new int[n];
+                conflictStamp = new int[n];
+                seen = new int[n];
+                learnBuffer = new int[NogoodStore.MAX_LITERALS];
+            } else {
+                lastTrail = null;
+                depthOf = null;
+            }
+        }
+
+        SolverResult run() {
+            event.begin();
+            SolverMetrics.searchStarted();
+            List<String> messages = new ArrayList<>(p.precheck());
+            if (!messages.isEmpty()) return finish(SolverResult.Status.INFEASIBLE, slotOf, messages);
+
+            int depth = 0;
+            long steps = 0;
+            boolean descend = true;
+            while (true) {
+                if ((++steps & 255) == 0) {
+                    if ((steps & FLUSH_MASK) == 0) flush();
+                    if (cancel != null && cancel.get()) {
+                        if (depth > bestDepth) snapshot(depth);
+                        return finish(SolverResult.Status.CANCELLED, best, messages);
+                    }
+                    long now = System.nanoTime();
+                    if (now - deadline > 0) {
+                        if (depth > bestDepth) snapshot(depth);
+                        messages.add("Time limit reached after placing " + bestDepth + " of " + n + " blocks.");
+                        return finish(SolverResult.Status.TIMEOUT, best, messages);
+                    }
+                    if (listener != null && now - nextReport >= 0) {
+                        nextReport = now + progressInterval;
+                        if (depth > bestDepth) snapshot(depth);
+                        if (bestDepth > reportedDepth) {
+                            reportedDepth = bestDepth;
+                            listener.placed(result(SolverResult.Status.IN_PROGRESS, best, messages));
+                        }
+                    }
+                }
+                if (descend) {
+                    if (depth == n) return finish(SolverResult.Status.SOLVED, slotOf, messages);
+                    selectVariable(depth);
+                    untried[depth] = domain[order[depth]];
+                    mark[depth] = trailSize;
+                    if (backjump) openConflict(depth, true);
+                }
+                int v = order[depth];
+                currentDepth = depth;
+                boolean placed = false;
+                while (untried[depth] != 0L) {
+                    int s = nextValue(v, untried[depth]);
+                    untried[depth] &= ~(1L << s);
+                    nodes++;
+                    if (nogoods != null) {
+                        int hit = nogoods.violated(v, s, slotOf, nodes);
+                        if (hit >= 0) {
+                            for (int k = 0; k < nogoods.size(hit); k++) {
+                                int b = nogoods.block(hit, k);
+                                if (b != v) addConflict(depth, depthOf[b]);
+                            }
+                            continue;
+                        }
+                    }
+                    boolean ok;
+                    if ((nodes & PROPAGATION_SAMPLE_MASK) == 0) {
+                        long t0 = System.nanoTime();
+                        ok = assign(v, s);
+                        propagationNanos += (System.nanoTime() - t0) * (PROPAGATION_SAMPLE_MASK + 1);
+                    } else {
+                        ok = assign(v, s);
+                    }
+                    if (ok) {
+                        placed = true;
+                        break;
+                    }
+                    if (backjump) explainFailure(depth);
+                    unassign(v, mark[depth]);
+                }
+                if (placed) {
+                    if (backjump) depthOf[v] = depth;
+                    depth++;
+                    descend = true;
+                    continue;
+                }
+                // every slot of v failed: go back to the previous decision, or with backjumping to the
+                // deepest decision that took part in the failure
+                if (depth > bestDepth) snapshot(depth);
+                backtracks++;
+                int target = depth - 1;
+                if (backjump) {
+                    // the slots missing from v's domain were removed by earlier decisions
+                    addPruners(depth, v);
+                    target = deepestConflict(depth);
+                    if (target >= 0) {
+                        learn(depth);
+                        mergeConflict(depth, target);
+                        if (target < depth - 1) {
+                            backjumps++;
+                            skippedLevels += depth - 1 - target;
+                        }
+                    }
+                }
+                if (target < 0) {
+                    messages.add("No schedule satisfies all hard constraints (deepest: " + bestDepth + " of " + n + " blocks).");
+                    return finish(SolverResult.Status.INFEASIBLE, best, messages);
+                }
+                while (depth > target) {
+                    depth--;
+                    unassign(order[depth], mark[depth]);
+                }
+                descend = false;
+            }
+        }
+
+        // ---- conflict sets (backjumping) ----
+
+        // starts adding to the conflict set of depth; fresh clears it, otherwise its members are re-marked
+        private void openConflict(int depth, boolean fresh) {
+            if (fresh) conflictSize[depth] = 0;
+            if (conflict[depth] == null) conflict[depth] = new int[8];
+            conflictStamp[depth] = ++stamp;
+            for (int i = 0; i < conflictSize[depth]; i++) seen[conflict[depth][i]] = stamp;
+        }
+
+        private void addConflict(int depth, int culprit) {
+            if (culprit >= depth || seen[culprit] == conflictStamp[depth]) return;
+            seen[culprit] = conflictStamp[depth];
+            if (conflictSize[depth] == conflict[depth].length) {
+                conflict[depth] = Arrays.copyOf(conflict[depth], conflictSize[depth] * 2);
+            }
+            conflict[depth][conflictSize[depth]++] = culprit;
+        }
+
+        // the decisions that pruned block u (its trail entries), including every placed theory block of the
+        // instructor when the pruning came from the daily limit
+        private void addPruners(int depth, int u) {
+            for (int i = lastTrail[u]; i >= 0; i = trailPrev[i]) {
+                addConflict(depth, trailDepth[i]);
+                int load = trailLoad[i];
+                if (load >= 0) {
+                    int day = load % p.days;
+                    for (int b : p.instructorBlocks[load / p.days]) {
+                        if (slotOf[b] >= 0 && !p.blockLab[b] && b != order[depth] && slotOf[b] / p.slotsPerDay == day) {
+                            addConflict(depth, depthOf[b]);
+                        }
+                    }
+                }
+            }
+        }
+
+        // a slot of the block at depth failed: the emptied domain explains it; a hard rule is not explained,
+        // so every earlier decision is blamed
+        private void explainFailure(int depth) {
+            if (failedBlock >= 0) {
+                addPruners(depth, failedBlock);
+                failedBlock = -1;
+            } else {
+                for (int k = 0; k < depth; k++) addConflict(depth, k);
+            }
+        }
+
+        private int deepestConflict(int depth) {
+            int deepest = -1;
+            for (int i = 0; i < conflictSize[depth]; i++) deepest = Math.max(deepest, conflict[depth][i]);
+            return deepest;
+        }
+
+        // the decisions of the conflict set cannot all hold: remember them as a nogood
+        private void learn(int depth) {
+            if (nogoods == null || conflictSize[depth] > NogoodStore.MAX_LITERALS) return;
+            for (int i = 0; i < conflictSize[depth]; i++) {
+                int b = order[conflict[depth][i]];
+                learnBuffer[i] = b * Long.SIZE + slotOf[b];
+            }
+            nogoods.add(learnBuffer, conflictSize[depth], nodes);
+        }
+
+        // the decision at target now has to explain the failure below it as well
+        private void mergeConflict(int depth, int target) {
+            openConflict(target, false);
+            for (int i = 0; i < conflictSize[depth]; i++) addConflict(target, conflict[depth][i]);
+        }
+
+        // MRV with degree and seeded tie-breaks; moves the chosen block to order[depth]
+        private void selectVariable(int depth) {
+            int bestPos = depth;
+            int bestSize = Integer.MAX_VALUE;
+            for (int i = depth; i < n; i++) {
+                int b = order[i];
+                int size = Long.bitCount(domain[b]);
+                if (size < bestSize) {
+                    bestSize = size;
+                    bestPos = i;
+                } else if (size == bestSize) {
+                    int cur = order[bestPos];
+                    if (degree[b] > degree[cur] || (degree[b] == degree[cur] && tieKey[b] < tieKey[cur])) bestPos = i;
+                }
+            }
+            int tmp = order[depth];
+            order[depth] = order[bestPos];
+            order[bestPos] = tmp;
+        }
+
+        private int nextValue(int v, long values) {
+            if (preferred != null && preferred[v] >= 0 && (values & (1L << preferred[v])) != 0) return preferred[v];
+            if (valueRandom != null) {
+                for (int skip = valueRandom.nextInt(Long.bitCount(values)); skip > 0; skip--) values &= values - 1;
+            }
+            return Long.numberOfTrailingZeros(values);
+        }
+
+        // places v into slot s and prunes the domains of unplaced blocks; false on a domain wipe-out
+        private boolean assign(int v, int s) {
+            slotOf[v] = s;
+            long bit = 1L << s;
+            int inst = p.blockInstructor[v];
+            int cohort = p.blockCohort[v];
+            boolean theory = !p.blockLab[v];
+            int day = s / p.slotsPerDay;
+            if (theory && inst >= 0) theoryLoad.add(inst, day, p.slotHours[s]);
+
+            int[] own = p.courseBlocks[p.blockCourse[v]];
+            if (!removeSlot(own, bit)) return false;
+            if (inst >= 0 && !removeSlot(p.instructorBlocks[inst], bit)) return false;
+            if (cohort >= 0 && !removeSlot(p.cohortBlocks[cohort], bit)) return false;
+
+            if (theory && inst >= 0) {
+                // slots of that day too long for the instructor's remaining theory hours leave their theory blocks
+                long over = p.dayMasks[day] & ~p.fitting(p.maxTheoryHoursPerDay - theoryLoad.get(inst, day));
+                if (over != 0L) {
+                    long keep = ~over;
+                    loadReason = inst * p.days + day;
+                    for (int u : p.instructorBlocks[inst]) {
+                        if (!p.blockLab[u] && !restrict(u, keep)) {
+                            loadReason = -1;
+                            return false;
+                        }
+                    }
+                    loadReason = -1;
+                }
+            }
+            // precedence edges: predecessors below s, successors above it
+            long below = bit - 1;
+            long above = s == 63 ? 0L : -1L << (s + 1);
+            for (int u : p.precedence.predecessors(v)) if (!restrict(u, below)) return false;
+            for (int u : p.precedence.successors(v)) if (!restrict(u, above)) return false;
+            // back-to-back labs: the other lab blocks of the course sit at fixed offsets (block ids are consecutive)
+            if (!theory && p.labsBackToBack) {
+                for (int u : own) {
+                    int at = s + u - v;
+                    if (u != v && p.blockLab[u] && !restrict(u, at >= 0 && at < 64 ? 1L << at : 0L)) return false;
+                }
+            }
+            // pluggable hard rules are checked on placement, only for the terms the course takes part in
+            return rules == null || rules.hardSatisfied(p.blockCourse[v]);
+        }
+
+        private void unassign(int v, int trailMark) {
+            int s = slotOf[v];
+            if (!p.blockLab[v] && p.blockInstructor[v] >= 0) {
+                theoryLoad.add(p.blockInstructor[v], s / p.slotsPerDay, -p.slotHours[s]);
+            }
+            slotOf[v] = -1;
+            while (trailSize > trailMark) {
+                trailSize--;
+                domain[trailBlock[trailSize]] = trailDomain[trailSize];
+                if (backjump) lastTrail[trailBlock[trailSize]] = trailPrev[trailSize];
+            }
+        }
+
+        private boolean removeSlot(int[] blocks, long bit) {
+            for (int u : blocks) {
+                if (!restrict(u, ~bit)) return false;
+            }
+            return true;
+        }
+
+        // intersects the domain of an unplaced block with keep, logging the old value
+        private boolean restrict(int u, long keep) {
+            evaluations++;
+            if (slotOf[u] >= 0) return true;
+            long old = domain[u];
+            long next = old & keep;
+            if (next == old) return true;
+            if (trailSize == trailBlock.length) {
+                trailBlock = Arrays.copyOf(trailBlock, trailSize * 2);
+                trailDomain = Arrays.copyOf(trailDomain, trailSize * 2);
+                trailDepth = Arrays.copyOf(trailDepth, trailSize * 2);
+                trailPrev = Arrays.copyOf(trailPrev, trailSize * 2);
+                trailLoad = Arrays.copyOf(trailLoad, trailSize * 2);
+            }
+            trailBlock[trailSize] = u;
+            trailDomain[trailSize] = old;
+            if (backjump) {
+                trailDepth[trailSize] = currentDepth;
+                trailPrev[trailSize] = lastTrail[u];
+                trailLoad[trailSize] = loadReason;
+                lastTrail[u] = trailSize;
+            }
+            trailSize++;
+            domain[u] = next;
+            if (next == 0L) failedBlock = u;
+            return next != 0L;
+        }
+
+        private void snapshot(int depth) {
+            bestDepth = depth;
+            best = slotOf.clone();
+        }
+
+        // adds the counters since the last flush to SolverMetrics
+        private void flush() {
+            long ruleEvaluations = rules == null ? 0 : rules.getEvaluations();
+            SolverMetrics.addSearch(nodes - flushedNodes, backtracks - flushedBacktracks,
+                    propagationNanos - flushedPropagation, evaluations + ruleEvaluations - flushedEvaluations);
+            flushedNodes = nodes;
+            flushedBacktracks = backtracks;
+            flushedPropagation = propagationNanos;
+            flushedEvaluations = evaluations + ruleEvaluations;
+        }
+
+        // the run's final result, after the telemetry was flushed and the JFR event committed
+        private SolverResult finish(SolverResult.Status status, int[] slots, List<String> messages) {
+            flush();
+            SolverResult result = result(status, slots, messages);
+            event.end();
+            if (event.shouldCommit()) {
+                event.seed = seed;
+                event.blocks = n;
+                event.placed = result.getPlacedBlocks();
+                event.status = status.name();
+                event.nodes = nodes;
+                event.backtracks = backtracks;
+                event.propagationTime = propagationNanos;
+                event.constraintEvaluations = flushedEvaluations;
+                event.backjumps = backjumps;
+                event.skippedLevels = skippedLevels;
+                if (nogoods != null) {
+                    event.learnedNogoods = nogoods.getLearned();
+                    event.nogoodPrunes = nogoods.getHits();
+                }
+                event.commit();
+            }
+            return result;
+        }
+
+        private SolverResult result(SolverResult.Status status, int[] slots, List<String> messages) {
+            int[] out = slots == null ? new int[n] : slots.clone();
+            if (slots == null) Arrays.fill(out, -1);
+            return new SolverResult(p, status, out, messages, nodes, backtracks, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package solver;
+
+import datastructures.Course;
+import datastructures.Instructor;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// The inputs that changed since a schedule was published: instructors whose availability changed and
+// courses that were edited or added. Placements of touched courses (directly, or through their instructor)
+// give way first when they clash with untouched ones, so the rest of the timetable stays where it was.
+public class ChangeSet {
+    private final Set<String> instructors = new LinkedHashSet<>();
+    private final Set<String> courses = new LinkedHashSet<>();
+
+    public ChangeSet instructor(String name) {
+        instructors.add(name);
+        return this;
+    }
+
+    public ChangeSet course(String courseId) {
+        courses.add(courseId);
+        return this;
+    }
+
+    // instructors added, removed, or with a different availability map (null when none is declared)
+    public static ChangeSet between(List<Instructor> before, List<Instructor> after) {
+        Map<String, Map<String, List<String>>> old = new HashMap<>();
+        if (before != null) for (Instructor i : before) old.put(i.getName(), declared(i));
+        ChangeSet changes = new ChangeSet();
+        if (after != null) {
+            for (Instructor i : after) {
+                if (!old.containsKey(i.getName()) || !Objects.equals(old.remove(i.getName()), declared(i))) {
+                    changes.instructor(i.getName());
+                }
+            }
+        }
+        for (String name : old.keySet()) changes.instructor(name);
+        return changes;
+    }
+
+    private static Map<String, List<String>> declared(Instructor i) {
+        return i.isAvailabilityDeclared() ? i.getAvailability() : null;
+    }
+
+    public boolean touches(Course c) {
+        return courses.contains(c.getCourseId()) || (c.getLecturer() != null && instructors.contains(c.getLecturer()));
+    }
+
+    public Set<String> getInstructors() { return instructors; }
+    public Set<String> getCourses() { return courses; }
+    public boolean isEmpty() { return instructors.isEmpty() && courses.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return instructors.size() + " instructors, " + courses.size() + " courses changed";
+    }
+}
@@ -0,0 +1,357 @@
+package solver;
+
+import datastructures.Constraint;
+import datastructures.Course;
+import datastructures.CourseTable;
+import datastructures.Instructor;
+import datastructures.Placement;
+import datastructures.PrecedenceRule;
+import datastructures.Schedule;
+import datastructures.ScheduleRule;
+import datastructures.SlotCalendar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Explains why no timetable exists: finds a minimal set of requirements (courses with their fixed slots,
+// declared instructor availabilities, scheduling rules) that cannot be met together, with QuickXplain
+// (Junker 2004). The candidates are halved recursively and a half is dropped whenever the rest still conflicts,
+// so a conflict of k out of n requirements costs O(k log(n / k)) sub-solves instead of n.
+// Sub-solves reuse what is already known:
+// - a conflict is first looked for among the courses of one lecturer or one cohort, then in groups of courses
+//   connected by shared lecturers or cohorts (unconnected courses cannot conflict);
+// - every proven answer is kept: a subset of a schedulable set is schedulable, a superset of a conflict conflicts;
+// - each sub-solve tries the slots of the last schedulable one first (warm start), and conflicts are refuted by
+//   the backjumping search, which jumps straight over the unrelated courses.
+// The whole run keeps to the configured time limit; a sub-solve that runs out of time counts as schedulable,
+// which keeps the answer a proven conflict but maybe not a minimal one.
+public class ConflictExplainer {
+    // a sub-solve gets a quarter of the remaining time, but at least this
+    private static final long MIN_CHECK_MILLIS = 100L;
+
+    // rule requirements, after the courses and the lecturers
+    private static final int EXAM_BLOCK = 0;
+    private static final int LAB_AFTER_THEORY = 1;
+    private static final int FIRST_ORDERING_RULE = 2;
+
+    private final SolverConfig config;
+
+    public ConflictExplainer() {
+        this(new SolverConfig());
+    }
+
+    public ConflictExplainer(SolverConfig config) {
+        this.config = config;
+    }
+
+    public ConflictExplanation explain(Schedule schedule, List<Instructor> instructors, Constraint constraint) {
+        return explain(schedule, instructors, constraint, null);
+    }
+
+    // schedule is only read; cancel is polled by every sub-solve
+    public ConflictExplanation explain(Schedule schedule, List<Instructor> instructors, Constraint constraint,
+                                       AtomicBoolean cancel) {
+        return new Run(schedule, instructors, constraint, cancel).explain();
+    }
+
+    private final class Run {
+        private final long start = System.nanoTime();
+        private final long deadline;
+        private final AtomicBoolean cancel;
+        private final Schedule schedule;
+        private final CourseTable table;
+        // same calendar and fixed slots as the input; every sub-solve swaps in its own course list
+        private final Schedule work;
+        private final Instructor[] declared;      // per lecturer id: the instructor when availability is declared
+        private final List<PrecedenceRule> ordering;
+        private final List<ScheduleRule> hardRules;
+        private final boolean[] activeRule;
+
+        // requirement ids: course rows, then lecturer ids, then rules
+        private final int lecturerBase;
+        private final int ruleBase;
+
+        private final List<BitSet> schedulable = new ArrayList<>();
+        private final List<BitSet> conflicts = new ArrayList<>();
+        // slots of the last schedulable sub-solve, per course block
+        private final Map<Course, int[]> lastSlots = new IdentityHashMap<>();
+        private boolean proven = true;
+        private int checks;
+        private int components;
+
+        Run(Schedule schedule, List<Instructor> instructors, Constraint constraint, AtomicBoolean cancel) {
+            this.deadline = start + config.getTimeLimitMillis() * 1_000_000L;
+            this.cancel = cancel;
+            this.schedule = schedule;
+            this.table = CourseTable.of(schedule.getCourseList());
+            this.work = new Schedule(schedule.getCalendar());
+            for (Placement p : schedule.getPinnedPlacements()) work.pin(p.getCourse(), p.getSlot(), p.isLab(), p.getRoom());
+
+            Map<String, Instructor> byName = new HashMap<>();
+            if (instructors != null) for (Instructor i : instructors) byName.put(i.getName(), i);
+            declared = new Instructor[table.lecturerCount()];
+            for (int l = 0; l < declared.length; l++) {
+                Instructor i = byName.get(table.lecturerName(l));
+                // instructors without declared availability are always available: nothing to relax
+                if (i != null && i.isAvailabilityDeclared()) declared[l] = i;
+            }
+
+            List<PrecedenceRule> rules = constraint.getPrecedenceRules();
+            ordering = constraint.isLabAfterTheory() ? rules.subList(1, rules.size()) : rules;
+            hardRules = new ArrayList<>();
+            for (ScheduleRule r : constraint.getRules()) if (r.isHard()) hardRules.add(r);
+            activeRule = new boolean[FIRST_ORDERING_RULE + ordering.size() + hardRules.size()];
+            activeRule[EXAM_BLOCK] = constraint.isFridayExamBlock() && schedule.getCalendar().getExamDay() >= 0;
+            activeRule[LAB_AFTER_THEORY] = constraint.isLabAfterTheory();
+            for (int r = FIRST_ORDERING_RULE; r < activeRule.length; r++) activeRule[r] = true;
+
+            lecturerBase = table.size();
+            ruleBase = lecturerBase + declared.length;
+        }
+
+        ConflictExplanation explain() {
+            boolean unknown = false;
+            List<int[]> groups = groups();
+            for (int g = 0; g < groups.size(); g++) {
+                int[] group = groups.get(g);
+                proven = true;
+                BitSet all = new BitSet();
+                for (int id : group) all.set(id);
+                if (consistent(all)) {
+                    // the timetable is feasible only when every connected group is
+                    if (!proven && g >= groups.size() - components) unknown = true;
+                    continue;
+                }
+                BitSet conflict = quickXplain(new BitSet(), false, group, 0, group.length);
+                List<ConflictExplanation.Requirement> out = new ArrayList<>();
+                for (int id : group) if (conflict.get(id)) out.add(requirement(id));
+                return new ConflictExplanation(proven ? ConflictExplanation.Status.MINIMAL : ConflictExplanation.Status.NOT_MINIMAL,
+                        out, group.length, checks, System.nanoTime() - start);
+            }
+            return new ConflictExplanation(unknown ? ConflictExplanation.Status.UNKNOWN : ConflictExplanation.Status.FEASIBLE,
+                    List.of(), ruleBase + activeRule.length, checks, System.nanoTime() - start);
+        }
+
+        // QuickXplain: background together with candidates[from..to) is known to conflict. Returns a minimal
+        // subset of those candidates that conflicts together with background.
+        private BitSet quickXplain(BitSet background, boolean grown, int[] candidates, int from, int to) {
+            if (grown && !consistent(background)) return new BitSet();
+            if (to - from == 1) {
+                BitSet one = new BitSet();
+                one.set(candidates[from]);
+                return one;
+            }
+            int mid = (from + to) >>> 1;
+            BitSet withFirst = (BitSet) background.clone();
+            for (int i = from; i < mid; i++) withFirst.set(candidates[i]);
+            BitSet second = quickXplain(withFirst, true, candidates, mid, to);
+            BitSet withSecond = (BitSet) background.clone();
+            withSecond.or(second);
+            BitSet first = quickXplain(withSecond, !second.isEmpty(), candidates, from, mid);
+            first.or(second);
+            return first;
+        }
+
+        // where a conflict is looked for, in this order: the courses of each lecturer, of each cohort, then each
+        // group of courses connected by shared lecturers or cohorts, smaller ones first. Local conflicts (an
+        // overloaded lecturer, an overfull cohort) are refuted in a few nodes even when the department as a
+        // whole is too large to refute in time.
+        private List<int[]> groups() {
+            int n = table.size();
+            List<List<Integer>> byLecturer = new ArrayList<>(), byCohort = new ArrayList<>();
+            for (int l = 0; l < table.lecturerCount(); l++) byLecturer.add(new ArrayList<>());
+            for (int c = 0; c < table.cohortCount(); c++) byCohort.add(new ArrayList<>());
+            int[] parent = new int[n];
+            for (int ci = 0; ci < n; ci++) {
+                parent[ci] = ci;
+                List<Integer> mates = new ArrayList<>();
+                if (table.lecturer(ci) >= 0) mates = byLecturer.get(table.lecturer(ci));
+                if (!mates.isEmpty()) union(parent, mates.get(0), ci);
+                mates.add(ci);
+                if (table.cohort(ci) >= 0) {
+                    List<Integer> cohort = byCohort.get(table.cohort(ci));
+                    if (!cohort.isEmpty()) union(parent, cohort.get(0), ci);
+                    cohort.add(ci);
+                }
+            }
+            Map<Integer, List<Integer>> connected = new HashMap<>();
+            for (int ci = 0; ci < n; ci++) connected.computeIfAbsent(find(parent, ci), k -> new ArrayList<>()).add(ci);
+            components = connected.size();
+
+            List<int[]> out = new ArrayList<>();
+            Set<List<Integer>> seen = new HashSet<>();
+            for (List<List<Integer>> tier : List.of(byLecturer, byCohort)) {
+                List<List<Integer>> sorted = new ArrayList<>(tier);
+                sorted.sort((a, b) -> Integer.compare(a.size(), b.size()));
+                for (List<Integer> rows : sorted) if (!rows.isEmpty() && seen.add(rows)) out.add(requirements(rows));
+            }
+            // every connected group is listed (last), even when it equals a lecturer or cohort group
+            List<List<Integer>> sorted = new ArrayList<>(connected.values());
+            sorted.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            for (List<Integer> rows : sorted) out.add(requirements(rows));
+            return out;
+        }
+
+        // the courses with their lecturers' declared availabilities and the active rules, ordered availabilities,
+        // courses, rules (QuickXplain keeps the earlier ones when several conflicts exist)
+        private int[] requirements(List<Integer> rows) {
+            List<Integer> ids = new ArrayList<>();
+            boolean[] listed = new boolean[declared.length];
+            for (int ci : rows) {
+                int l = table.lecturer(ci);
+                if (l >= 0 && declared[l] != null && !listed[l]) {
+                    listed[l] = true;
+                    ids.add(lecturerBase + l);
+                }
+            }
+            ids.addAll(rows);
+            for (int r = 0; r < activeRule.length; r++) if (activeRule[r]) ids.add(ruleBase + r);
+            return ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private int find(int[] parent, int x) {
+            while (parent[x] != x) x = parent[x] = parent[parent[x]];
+            return x;
+        }
+
+        private void union(int[] parent, int a, int b) {
+            parent[find(parent, a)] = find(parent, b);
+        }
+
+        // true when all requirements in set can be met; a sub-solve that runs out of time also answers true
+        // and clears proven
+        private boolean consistent(BitSet set) {
+            for (BitSet c : conflicts) if (subset(c, set)) return false;
+            for (BitSet s : schedulable) if (subset(set, s)) return true;
+            long remaining = (deadline - System.nanoTime()) / 1_000_000L;
+            if (remaining <= 0 || (cancel != null && cancel.get())) {
+                proven = false;
+                return true;
+            }
+            List<Course> courses = new ArrayList<>();
+            List<Instructor> instructors = new ArrayList<>();
+            for (int id = set.nextSetBit(0); id >= 0 && id < ruleBase; id = set.nextSetBit(id + 1)) {
+                if (id < lecturerBase) courses.add(table.course(id));
+                else instructors.add(declared[id - lecturerBase]);
+            }
+            work.setCourseList(courses);
+            Problem problem = new Problem(work, instructors, constraint(set));
+            SolverConfig sub = new SolverConfig(config.getSeed(), Math.min(remaining, Math.max(MIN_CHECK_MILLIS, remaining / 4)));
+            SolverResult result = new BacktrackingSolver(sub).solve(problem, problem.initialDomain, preferred(problem), cancel);
+            checks++;
+            switch (result.getStatus()) {
+                case SOLVED -> {
+                    for (int ci = 0; ci < problem.table.size(); ci++) {
+                        int[] blocks = problem.courseBlocks[ci];
+                        int[] slots = new int[blocks.length];
+                        for (int k = 0; k < blocks.length; k++) slots[k] = result.slotOf(blocks[k]);
+                        lastSlots.put(problem.table.course(ci), slots);
+                    }
+                    schedulable.add((BitSet) set.clone());
+                    return true;
+                }
+                case INFEASIBLE -> {
+                    conflicts.add((BitSet) set.clone());
+                    return false;
+                }
+                default -> {
+                    proven = false;
+                    return true;
+                }
+            }
+        }
+
+        // inner is contained in outer
+        private boolean subset(BitSet inner, BitSet outer) {
+            BitSet rest = (BitSet) inner.clone();
+            rest.andNot(outer);
+            return rest.isEmpty();
+        }
+
+        private Constraint constraint(BitSet set) {
+            Constraint c = new Constraint();
+            c.setFridayExamBlock(set.get(ruleBase + EXAM_BLOCK));
+            c.setLabAfterTheory(set.get(ruleBase + LAB_AFTER_THEORY));
+            for (int k = 0; k < ordering.size(); k++) {
+                if (set.get(ruleBase + FIRST_ORDERING_RULE + k)) c.addPrecedenceRule(ordering.get(k));
+            }
+            for (int k = 0; k < hardRules.size(); k++) {
+                if (set.get(ruleBase + FIRST_ORDERING_RULE + ordering.size() + k)) c.addRule(hardRules.get(k));
+            }
+            return c;
+        }
+
+        private int[] preferred(Problem problem) {
+            int[] preferred = new int[problem.blockCount];
+            Arrays.fill(preferred, -1);
+            for (int ci = 0; ci < problem.table.size(); ci++) {
+                int[] slots = lastSlots.get(problem.table.course(ci));
+                if (slots == null) continue;
+                int[] blocks = problem.courseBlocks[ci];
+                for (int k = 0; k < blocks.length && k < slots.length; k++) preferred[blocks[k]] = slots[k];
+            }
+            return preferred;
+        }
+
+        private ConflictExplanation.Requirement requirement(int id) {
+            SlotCalendar calendar = schedule.getCalendar();
+            if (id < lecturerBase) {
+                Course c = table.course(id);
+                StringBuilder d = new StringBuilder("Course ").append(c.getCourseId());
+                if (c.getName() != null) d.append(" (").append(c.getName()).append(')');
+                d.append(": ").append(Problem.theoryBlocks(c, calendar)).append(" theory");
+                if (c.getLabHours() > 0) d.append(" + ").append(Problem.labBlocks(c, calendar)).append(" lab");
+                d.append(" blocks");
+                if (c.getLecturer() != null) d.append(", lecturer ").append(c.getLecturer());
+                if (c.getCohort() != null) d.append(", cohort ").append(c.getCohort());
+                if (c.getLabHours() > 0 && c.getLabCapacity() > Constraint.MAX_LAB_CAPACITY) {
+                    d.append(", lab capacity ").append(c.getLabCapacity()).append(" (at most ").append(Constraint.MAX_LAB_CAPACITY).append(')');
+                }
+                int fixed = 0;
+                for (Placement p : work.getPinnedPlacements()) if (p.getCourse() == c) fixed++;
+                if (fixed > 0) d.append(", ").append(fixed).append(fixed == 1 ? " fixed slot" : " fixed slots");
+                return new ConflictExplanation.Requirement(ConflictExplanation.Kind.COURSE, c.getCourseId(), d.toString());
+            }
+            if (id < ruleBase) {
+                Instructor i = declared[id - lecturerBase];
+                long mask = i.getAvailabilityMask(schedule);
+                StringBuilder d = new StringBuilder("Availability of ").append(i.getName()).append(": ")
+                        .append(Long.bitCount(mask)).append(" of ").append(calendar.getSlotCount()).append(" slots");
+                String sep = " (";
+                for (int day = 0; day < calendar.getDayCount(); day++) {
+                    int free = Long.bitCount(mask & calendar.dayMask(day));
+                    if (free == 0) continue;
+                    d.append(sep).append(calendar.dayName(day));
+                    if (free < calendar.getSlotsPerDay()) d.append(' ').append(free).append('/').append(calendar.getSlotsPerDay());
+                    sep = ", ";
+                }
+                if (!sep.equals(" (")) d.append(')');
+                return new ConflictExplanation.Requirement(ConflictExplanation.Kind.AVAILABILITY, i.getName(), d.toString());
+            }
+            int r = id - ruleBase;
+            String name, description;
+            if (r == EXAM_BLOCK) {
+                name = "exam-block";
+                description = "No classes on " + calendar.dayName(calendar.getExamDay()) + " (exam block)";
+            } else if (r == LAB_AFTER_THEORY) {
+                name = "lab-after-theory";
+                description = "Labs come after all theory blocks of their course";
+            } else if (r < FIRST_ORDERING_RULE + ordering.size()) {
+                name = "ordering-" + (r - FIRST_ORDERING_RULE + 1);
+                description = "Ordering rule " + (r - FIRST_ORDERING_RULE + 1);
+            } else {
+                name = hardRules.get(r - FIRST_ORDERING_RULE - ordering.size()).getName();
+                description = "Rule " + name;
+            }
+            return new ConflictExplanation.Requirement(ConflictExplanation.Kind.RULE, name, description);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package solver;
+
+import datastructures.Constraint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of a ConflictExplainer run: a set of requirements that cannot all be met together.
+// MINIMAL: dropping any one of them makes the rest schedulable. NOT_MINIMAL: still a proven conflict, but some
+// checks ran out of time, so a smaller one may exist. FEASIBLE: all requirements fit, there is nothing to explain.
+// UNKNOWN: time ran out before any conflict could be proven.
+public class ConflictExplanation {
+    public enum Status { MINIMAL, NOT_MINIMAL, FEASIBLE, UNKNOWN }
+
+    public enum Kind { COURSE, AVAILABILITY, RULE }
+
+    // one requirement a planner can change: a course (with its fixed slots), an instructor's declared
+    // availability or a scheduling rule
+    public static final class Requirement {
+        private final Kind kind;
+        private final String name;
+        private final String description;
+
+        Requirement(Kind kind, String name, String description) {
+            this.kind = kind;
+            this.name = name;
+            this.description = description;
+        }
+
+        public Kind getKind() { return kind; }
+        // course id, instructor name or rule name
+        public String getName() { return name; }
+        public String getDescription() { return description; }
+
+        @Override
+        public String toString() { return description; }
+    }
+
+    private final Status status;
+    private final List<Requirement> conflict;
+    private final int candidates;
+    private final int checks;
+    private final long elapsedNanos;
+
+    ConflictExplanation(Status status, List<Requirement> conflict, int candidates, int checks, long elapsedNanos) {
+        this.status = status;
+        this.conflict = List.copyOf(conflict);
+        this.candidates = candidates;
+        this.checks = checks;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Status getStatus() { return status; }
+    public boolean isFound() { return status == Status.MINIMAL || status == Status.NOT_MINIMAL; }
+    public List<Requirement> getConflict() { return conflict; }
+    // requirements of the part of the timetable the conflict was searched in
+    public int getCandidates() { return candidates; }
+    // sub-problems that were solved (memoised answers not counted)
+    public int getChecks() { return checks; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000L; }
+
+    public List<String> getMessages() {
+        List<String> out = new ArrayList<>();
+        switch (status) {
+            case FEASIBLE -> out.add("All requirements can be met together.");
+            case UNKNOWN -> out.add("No conflict could be proven in time (" + candidates + " requirements checked).");
+            default -> {
+                if (conflict.size() == 1) out.add("This requirement cannot be met on its own:");
+                else out.add(status == Status.MINIMAL
+                        ? "These " + conflict.size() + " requirements cannot all be met; relaxing any one of them resolves the conflict:"
+                        : "These " + conflict.size() + " requirements cannot all be met (a smaller part of them may already conflict):");
+                for (Requirement r : conflict) out.add("  - " + r.getDescription());
+                out.add("(Lecturers and cohorts are never double-booked, and a lecturer teaches at most "
+                        + Constraint.MAX_THEORY_HOURS_PER_DAY + " theory hours a day.)");
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return status + ": " + conflict.size() + " of " + candidates + " requirements (" + checks + " checks, "
+                + getElapsedMillis() + " ms)";
+    }
+}
@@ -0,0 +1,312 @@
+package solver;
+
+import datastructures.ConflictGraph;
+import datastructures.Constraint;
+import datastructures.Course;
+import datastructures.CourseTable;
+import datastructures.Schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Exam mode: courses become vertices of a conflict graph (same cohort, or listed together in a group such as
+// one student's courses) and are coloured into exam periods.
+//  1. DSatur: always colour the exam with the most distinct neighbour colours (ties: most uncoloured neighbours)
+//     with the smallest free colour; the top colour class is then emptied where its exams fit a lower colour.
+//  2. Kempe chains: swapping the two colours of a connected two-coloured component keeps the colouring proper;
+//     swaps that do not raise the back-to-back penalty are kept until the time budget runs out.
+// Periods are the exam days' timeslots, week after week. With the Friday exam block on, only Friday is an
+// exam day, so exams stay in the block the weekly timetable keeps free.
+// The penalty counts conflicting exams on the same day, 16/8/4/2/1 for 1..5 periods apart, weighted by students.
+public class ExamScheduler {
+    private static final int[] PROXIMITY = {0, 16, 8, 4, 2, 1};
+
+    private final Schedule layout;
+    private final Constraint constraint;
+    private long timeBudgetMillis = 1_000L;
+    private long seed = 0L;
+    private int maxWeeks = 0;
+
+    public ExamScheduler(Schedule layout, Constraint constraint) {
+        this.layout = layout;
+        this.constraint = constraint;
+    }
+
+    public long getTimeBudgetMillis() { return timeBudgetMillis; }
+    public void setTimeBudgetMillis(long timeBudgetMillis) { this.timeBudgetMillis = timeBudgetMillis; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    // weeks available for exams; 0 = as many as the colouring needs
+    public int getMaxWeeks() { return maxWeeks; }
+    public void setMaxWeeks(int maxWeeks) { this.maxWeeks = maxWeeks; }
+
+    public ExamTimetable schedule(List<Course> courses) {
+        return schedule(courses, List.of());
+    }
+
+    // groups: further sets of course ids whose exams must not overlap, e.g. the courses of one student
+    public ExamTimetable schedule(List<Course> courses, Collection<? extends Collection<String>> groups) {
+        CourseTable table = CourseTable.of(courses);
+        ConflictGraph.Builder graph = ConflictGraph.builder(table.size());
+        int[][] cohorts = new int[table.cohortCount()][];
+        int[] fill = new int[cohorts.length];
+        for (int i = 0; i < table.size(); i++) if (table.cohort(i) >= 0) fill[table.cohort(i)]++;
+        for (int k = 0; k < cohorts.length; k++) cohorts[k] = new int[fill[k]];
+        Arrays.fill(fill, 0);
+        for (int i = 0; i < table.size(); i++) {
+            int k = table.cohort(i);
+            if (k >= 0) cohorts[k][fill[k]++] = i;
+        }
+        for (int[] members : cohorts) graph.addClique(members);
+        for (Collection<String> group : groups) {
+            int[] members = new int[group.size()];
+            int count = 0;
+            for (String id : group) {
+                int i = table.indexOf(id);
+                if (i >= 0) members[count++] = i;
+            }
+            graph.addClique(Arrays.copyOf(members, count));
+        }
+        int[] weight = new int[table.size()];
+        for (int i = 0; i < weight.length; i++) weight[i] = Math.max(1, table.students(i));
+        return schedule(courses, graph.build(), weight);
+    }
+
+    // the graph's vertex i is courses.get(i); weight[i] scales the penalty of its conflicts
+    public ExamTimetable schedule(List<Course> courses, ConflictGraph graph, int[] weight) {
+        return new Run(graph, weight).run(courses);
+    }
+
+    private final class Run {
+        private final ConflictGraph g;
+        private final int n;
+        private final int words;
+        private final int[] weight;
+        private final int spd;
+        private final int[] examDays;
+        private final int[] colour;
+        private long[][] classBits = new long[0][];
+
+        Run(ConflictGraph g, int[] weight) {
+            this.g = g;
+            this.n = g.size();
+            this.words = g.words();
+            this.weight = weight;
+            this.spd = layout.getSlotsPerDay();
+            int examDay = layout.getCalendar().getExamDay();
+            if (constraint.isFridayExamBlock() && examDay >= 0) {
+                examDays = new int[]{examDay};
+            } else {
+                examDays = new int[layout.getDayCount()];
+                for (int d = 0; d < examDays.length; d++) examDays[d] = d;
+            }
+            colour = new int[n];
+        }
+
+        ExamTimetable run(List<Course> courses) {
+            long begin = System.nanoTime();
+            List<String> messages = new ArrayList<>();
+            int colours = dsatur();
+            colours = emptyTopClasses(colours);
+
+            int perWeek = examDays.length * spd;
+            int weeks = Math.max(1, (colours + perWeek - 1) / perWeek);
+            if (maxWeeks > 0 && weeks > maxWeeks) {
+                messages.add("The exams need " + colours + " periods but " + maxWeeks + " weeks hold only "
+                        + maxWeeks * perWeek + ".");
+            } else if (maxWeeks > 0) {
+                weeks = maxWeeks;
+            }
+            int periods = weeks * perWeek;
+            buildClasses(Math.max(periods, colours));
+            long initial = penalty();
+            long moves = 0;
+            if (messages.isEmpty()) moves = kempe(periods, begin + timeBudgetMillis * 1_000_000L);
+            return new ExamTimetable(layout, examDays, courses, colour.clone(), colours, Math.max(periods, colours),
+                    initial, penalty(), moves, System.nanoTime() - begin, messages);
+        }
+
+        // ---- DSatur ----
+
+        private int dsatur() {
+            int colourWords = 1;
+            for (int v = 0; v < n; v++) colourWords = Math.max(colourWords, (g.degree(v) + 64) >>> 6);
+            long[] seen = new long[n * colourWords];    // colours among the coloured neighbours of v
+            int[] saturation = new int[n];
+            int[] freeDegree = new int[n];             // uncoloured neighbours
+            for (int v = 0; v < n; v++) {
+                colour[v] = -1;
+                freeDegree[v] = g.degree(v);
+            }
+            int used = 0;
+            for (int step = 0; step < n; step++) {
+                int v = -1;
+                for (int u = 0; u < n; u++) {
+                    if (colour[u] >= 0) continue;
+                    if (v < 0 || saturation[u] > saturation[v]
+                            || (saturation[u] == saturation[v] && freeDegree[u] > freeDegree[v])) v = u;
+                }
+                int c = 0;
+                int base = v * colourWords;
+                while (c >>> 6 < colourWords && seen[base + (c >>> 6)] == -1L) c += 64;
+                if (c >>> 6 < colourWords) c += Long.numberOfTrailingZeros(~seen[base + (c >>> 6)]);
+                colour[v] = c;
+                used = Math.max(used, c + 1);
+                for (int w = 0; w < words; w++) {
+                    long bits = g.word(v, w);
+                    while (bits != 0L) {
+                        int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        if (colour[u] >= 0) continue;
+                        freeDegree[u]--;
+                        long bit = 1L << c;
+                        int at = u * colourWords + (c >>> 6);
+                        if ((seen[at] & bit) == 0) {
+                            seen[at] |= bit;
+                            saturation[u]++;
+                        }
+                    }
+                }
+            }
+            return used;
+        }
+
+        // moves the exams of the highest colour into a lower colour none of their neighbours has;
+        // when the whole class moves, one period less is needed
+        private int emptyTopClasses(int colours) {
+            while (colours > 1) {
+                buildClasses(colours);
+                int top = colours - 1;
+                boolean emptied = true;
+                for (int v = 0; v < n && emptied; v++) {
+                    if (colour[v] != top) continue;
+                    int target = -1;
+                    for (int c = 0; c < top && target < 0; c++) if (!touches(v, classBits[c])) target = c;
+                    if (target < 0) {
+                        emptied = false;
+                    } else {
+                        setColour(v, target);
+                    }
+                }
+                if (!emptied) return colours;
+                colours--;
+            }
+            return colours;
+        }
+
+        private boolean touches(int v, long[] set) {
+            for (int w = 0; w < words; w++) if ((g.word(v, w) & set[w]) != 0) return true;
+            return false;
+        }
+
+        private void buildClasses(int count) {
+            classBits = new long[count][words];
+            for (int v = 0; v < n; v++) if (colour[v] >= 0) classBits[colour[v]][v >>> 6] |= 1L << v;
+        }
+
+        private void setColour(int v, int c) {
+            classBits[colour[v]][v >>> 6] &= ~(1L << v);
+            classBits[c][v >>> 6] |= 1L << v;
+            colour[v] = c;
+        }
+
+        // ---- Kempe chains ----
+
+        private long kempe(int periods, long deadline) {
+            if (n < 2 || periods < 2) return 0;
+            SplittableRandom random = new SplittableRandom(seed);
+            long[] chain = new long[words];
+            long[] near = new long[words];
+            int[] queue = new int[n];
+            long accepted = 0;
+            for (long iteration = 0; ; iteration++) {
+                if ((iteration & 63) == 0 && System.nanoTime() - deadline > 0) break;
+                int v = random.nextInt(n);
+                int a = colour[v];
+                int b = random.nextInt(periods - 1);
+                if (b >= a) b++;
+
+                // the component of v in the subgraph of colours a and b
+                Arrays.fill(chain, 0L);
+                chain[v >>> 6] |= 1L << v;
+                queue[0] = v;
+                int size = 1;
+                for (int head = 0; head < size; head++) {
+                    int x = queue[head];
+                    for (int w = 0; w < words; w++) {
+                        long bits = g.word(x, w) & (classBits[a][w] | classBits[b][w]) & ~chain[w];
+                        chain[w] |= bits;
+                        while (bits != 0L) {
+                            queue[size++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1;
+                        }
+                    }
+                }
+
+                // only neighbours on the same day as a or b can change the penalty
+                Arrays.fill(near, 0L);
+                orDay(near, a / spd);
+                if (b / spd != a / spd) orDay(near, b / spd);
+                long delta = 0, inner = 0;
+                for (int i = 0; i < size; i++) {
+                    int x = queue[i];
+                    int cx = colour[x], nx = cx == a ? b : a;
+                    for (int w = 0; w < words; w++) {
+                        long bits = g.word(x, w) & near[w];
+                        while (bits != 0L) {
+                            int y = (w << 6) + Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1;
+                            int cy = colour[y];
+                            boolean inChain = (chain[y >>> 6] & (1L << y)) != 0;
+                            int ny = inChain ? (cy == a ? b : a) : cy;
+                            long change = (long) Math.min(weight[x], weight[y]) * (proximity(nx, ny) - proximity(cx, cy));
+                            if (inChain) inner += change;
+                            else delta += change;
+                        }
+                    }
+                }
+                delta += inner / 2;
+                if (delta > 0) continue;
+                for (int i = 0; i < size; i++) {
+                    int x = queue[i];
+                    setColour(x, colour[x] == a ? b : a);
+                }
+                if (delta < 0) accepted++;
+            }
+            return accepted;
+        }
+
+        private void orDay(long[] into, int day) {
+            for (int c = day * spd; c < (day + 1) * spd && c < classBits.length; c++) {
+                for (int w = 0; w < words; w++) into[w] |= classBits[c][w];
+            }
+        }
+
+        private int proximity(int p, int q) {
+            if (p / spd != q / spd) return 0;
+            int d = Math.abs(p - q);
+            return d < PROXIMITY.length ? PROXIMITY[d] : 0;
+        }
+
+        long penalty() {
+            long sum = 0;
+            for (int x = 0; x < n; x++) {
+                for (int w = x >>> 6; w < words; w++) {
+                    long bits = g.word(x, w);
+                    if (w == x >>> 6) bits &= x == 63 + (w << 6) ? 0L : -1L << ((x & 63) + 1);
+                    while (bits != 0L) {
+                        int y = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        sum += (long) Math.min(weight[x], weight[y]) * proximity(colour[x], colour[y]);
+                    }
+                }
+            }
+            return sum;
+        }
+    }
+}
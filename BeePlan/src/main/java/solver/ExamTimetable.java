@@ -0,0 +1,74 @@
+package solver;
+
+import datastructures.Course;
+import datastructures.Schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of an ExamScheduler run: the exam period of every course plus colouring statistics.
+// Periods are numbered week by week through the exam days, timeslot by timeslot.
+public class ExamTimetable {
+    private final Schedule layout;
+    private final int[] examDays;
+    private final List<Course> courses;
+    private final int[] period;
+    private final int colours;
+    private final int periodCount;
+    private final long initialPenalty;
+    private final long penalty;
+    private final long kempeMoves;
+    private final long elapsedNanos;
+    private final List<String> messages;
+
+    ExamTimetable(Schedule layout, int[] examDays, List<Course> courses, int[] period, int colours, int periodCount,
+                  long initialPenalty, long penalty, long kempeMoves, long elapsedNanos, List<String> messages) {
+        this.layout = layout;
+        this.examDays = examDays;
+        this.courses = List.copyOf(courses);
+        this.period = period;
+        this.colours = colours;
+        this.periodCount = periodCount;
+        this.initialPenalty = initialPenalty;
+        this.penalty = penalty;
+        this.kempeMoves = kempeMoves;
+        this.elapsedNanos = elapsedNanos;
+        this.messages = List.copyOf(messages);
+    }
+
+    public List<Course> getCourses() { return courses; }
+    // period of the i-th course, -1 when it could not be given one
+    public int getPeriod(int exam) { return period[exam]; }
+    // conflict-free periods DSatur needed
+    public int getColours() { return colours; }
+    // periods the timetable spans (whole weeks)
+    public int getPeriodCount() { return periodCount; }
+    public int getPeriodsPerWeek() { return examDays.length * layout.getSlotsPerDay(); }
+    public int getWeeks() { return (periodCount + getPeriodsPerWeek() - 1) / getPeriodsPerWeek(); }
+    // weighted back-to-back penalty before and after the Kempe-chain pass
+    public long getInitialPenalty() { return initialPenalty; }
+    public long getPenalty() { return penalty; }
+    public long getKempeMoves() { return kempeMoves; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000L; }
+    public List<String> getMessages() { return messages; }
+    public boolean isComplete() { return messages.isEmpty(); }
+
+    public String periodLabel(int p) {
+        int spd = layout.getSlotsPerDay();
+        int inWeek = p % getPeriodsPerWeek();
+        return "Week " + (p / getPeriodsPerWeek() + 1) + " " + layout.getCalendar().dayName(examDays[inWeek / spd]) + " "
+                + layout.getTimeslots().get(inWeek % spd);
+    }
+
+    public List<Course> getExams(int p) {
+        List<Course> out = new ArrayList<>();
+        for (int i = 0; i < period.length; i++) if (period[i] == p) out.add(courses.get(i));
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return courses.size() + " exams in " + colours + " periods over " + getWeeks() + " weeks, penalty "
+                + initialPenalty + " -> " + penalty + " (" + kempeMoves + " Kempe moves, " + getElapsedMillis() + " ms)";
+    }
+}
@@ -0,0 +1,11 @@
+package solver;
+
+// Receives better assignments while a solve is still running (anytime solving).
+// Calls come from solver threads and are rate limited at the source; implementations must be thread safe.
+public interface ImprovementListener {
+    // an IN_PROGRESS snapshot that places more blocks than the previous one
+    void placed(SolverResult partial);
+
+    // a complete assignment whose soft-constraint score beats the previous one
+    default void optimized(SolverResult result, long score) { }
+}
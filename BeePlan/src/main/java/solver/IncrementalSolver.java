@@ -0,0 +1,206 @@
+package solver;
+
+import datastructures.InstructorDayLoad;
+import datastructures.Placement;
+import datastructures.Schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Warm-start re-solve after a small input change. The placements of the previous schedule are mapped onto
+// the blocks of the new Problem and kept in their slots; only the ones the change made impossible are freed
+// and the search repairs around the rest. When the freed blocks cannot be placed, the blocks sharing a course,
+// instructor or cohort with them are freed too, round by round, until the whole timetable is open.
+// Every freed block tries its previous slot first.
+public class IncrementalSolver {
+    // a round that cannot finish in this time gives way to a wider one
+    private static final long MIN_ROUND_MILLIS = 50L;
+
+    private final SolverConfig config;
+
+    public IncrementalSolver() {
+        this(new SolverConfig());
+    }
+
+    public IncrementalSolver(SolverConfig config) {
+        this.config = config;
+    }
+
+    public RepairResult resolve(Schedule previous, Problem problem, ChangeSet changes) {
+        return resolve(previous, problem, changes, null);
+    }
+
+    // previous may be the schedule the problem was built from; it is only read
+    public RepairResult resolve(Schedule previous, Problem problem, ChangeSet changes, AtomicBoolean cancel) {
+        long start = System.nanoTime();
+        long deadline = start + config.getTimeLimitMillis() * 1_000_000L;
+        int n = problem.blockCount;
+        int[] hint = previousSlots(previous, problem);
+        boolean[] free = new boolean[n];
+        int invalidated = keep(problem, hint, changes, free);
+        int added = 0;
+        for (int b = 0; b < n; b++) if (hint[b] < 0 && !problem.blockPinned[b]) added++;
+
+        SolverResult result;
+        int rounds = 0;
+        while (true) {
+            rounds++;
+            long[] domains = new long[n];
+            boolean all = true;
+            for (int b = 0; b < n; b++) {
+                if (free[b] || problem.blockPinned[b]) {
+                    domains[b] = problem.initialDomain[b];
+                } else {
+                    domains[b] = 1L << hint[b];
+                    all = false;
+                }
+            }
+            long remaining = Math.max(0L, (deadline - System.nanoTime()) / 1_000_000L);
+            SolverConfig round = new SolverConfig(config.getSeed(), all ? remaining : Math.max(MIN_ROUND_MILLIS, remaining / 4));
+            result = new BacktrackingSolver(round).solve(problem, domains, hint, cancel);
+            if (result.isSolved() || all || result.getStatus() == SolverResult.Status.CANCELLED) break;
+            // the problem itself is infeasible: widening cannot help
+            if (!problem.precheck().isEmpty()) break;
+            if (!widen(problem, free)) Arrays.fill(free, true);
+        }
+
+        int freed = 0, moved = 0;
+        for (int b = 0; b < n; b++) {
+            if (free[b]) freed++;
+            if (hint[b] >= 0 && !problem.blockPinned[b] && result.slotOf(b) != hint[b]) moved++;
+        }
+        return new RepairResult(result, invalidated, added, freed, moved, rounds, System.nanoTime() - start);
+    }
+
+    // slot of every block in the previous schedule (-1 = none): the placements of a course are matched by
+    // course id and kind, in ascending slot order, to the blocks left after the pinned ones
+    static int[] previousSlots(Schedule previous, Problem problem) {
+        Map<String, List<Integer>> theory = new HashMap<>();
+        Map<String, List<Integer>> lab = new HashMap<>();
+        for (Placement pl : previous.getPlacements()) {
+            if (pl.isPinned()) continue;
+            (pl.isLab() ? lab : theory).computeIfAbsent(pl.getCourse().getCourseId(), k -> new ArrayList<>()).add(pl.getSlot());
+        }
+        int[] hint = new int[problem.blockCount];
+        Arrays.fill(hint, -1);
+        for (int ci = 0; ci < problem.table.size(); ci++) {
+            String id = problem.table.id(ci);
+            int[] blocks = problem.courseBlocks[ci];
+            int t = problem.theoryBlocks(ci);
+            match(problem, hint, blocks, 0, t, theory.get(id));
+            match(problem, hint, blocks, t, blocks.length, lab.get(id));
+        }
+        return hint;
+    }
+
+    private static void match(Problem problem, int[] hint, int[] blocks, int from, int to, List<Integer> slots) {
+        if (slots == null) return;
+        slots.sort(null);
+        int next = 0;
+        for (int i = from; i < to && next < slots.size(); i++) {
+            if (!problem.blockPinned[blocks[i]]) hint[blocks[i]] = slots.get(next++);
+        }
+    }
+
+    // decides which previous placements survive: each must still be in its block's domain and agree with
+    // the pinned blocks and the placements kept before it; untouched placements are considered before the
+    // ones the change set touches. Marks the rest free and returns how many placed blocks were dropped.
+    private static int keep(Problem problem, int[] hint, ChangeSet changes, boolean[] free) {
+        int n = problem.blockCount;
+        long[] instructorUsed = new long[problem.instructorBlocks.length];
+        long[] cohortUsed = new long[problem.cohortBlocks.length];
+        long[] courseUsed = new long[problem.courseBlocks.length];
+        InstructorDayLoad load = new InstructorDayLoad(problem.days, problem.maxTheoryHoursPerDay, problem.instructorBlocks.length);
+        int[] kept = new int[n];
+        Arrays.fill(kept, -1);
+        RuleKernel.Evaluation rules = problem.ruleKernel.hasHard() ? problem.ruleKernel.evaluation(kept) : null;
+
+        List<Integer> untouched = new ArrayList<>(), touched = new ArrayList<>();
+        for (int b = 0; b < n; b++) {
+            if (problem.blockPinned[b]) {
+                if (problem.initialDomain[b] != 0L) {
+                    take(problem, b, Long.numberOfTrailingZeros(problem.initialDomain[b]), kept, instructorUsed, cohortUsed, courseUsed, load);
+                }
+            } else if (hint[b] < 0) {
+                free[b] = true;
+            } else {
+                (changes != null && changes.touches(problem.courseOf(b)) ? touched : untouched).add(b);
+            }
+        }
+        int dropped = 0;
+        for (List<Integer> group : List.of(untouched, touched)) {
+            for (int b : group) {
+                if (fits(problem, b, hint[b], kept, instructorUsed, cohortUsed, courseUsed, load)
+                        && keepsRules(problem, rules, b, hint[b], kept)) {
+                    take(problem, b, hint[b], kept, instructorUsed, cohortUsed, courseUsed, load);
+                } else {
+                    free[b] = true;
+                    dropped++;
+                }
+            }
+        }
+        return dropped;
+    }
+
+    private static boolean fits(Problem problem, int b, int s, int[] kept, long[] instructorUsed, long[] cohortUsed,
+                                long[] courseUsed, InstructorDayLoad load) {
+        long bit = 1L << s;
+        if ((problem.initialDomain[b] & bit) == 0) return false;
+        int inst = problem.blockInstructor[b], cohort = problem.blockCohort[b];
+        if ((courseUsed[problem.blockCourse[b]] & bit) != 0) return false;
+        if (inst >= 0 && (instructorUsed[inst] & bit) != 0) return false;
+        if (cohort >= 0 && (cohortUsed[cohort] & bit) != 0) return false;
+        if (inst >= 0 && !problem.blockLab[b] && !load.canTake(inst, s / problem.slotsPerDay, problem.slotHours[s])) return false;
+        for (int u : problem.precedence.predecessors(b)) if (kept[u] >= s) return false;
+        for (int u : problem.precedence.successors(b)) if (kept[u] >= 0 && kept[u] <= s) return false;
+        return true;
+    }
+
+    private static boolean keepsRules(Problem problem, RuleKernel.Evaluation rules, int b, int s, int[] kept) {
+        if (rules == null) return true;
+        kept[b] = s;
+        boolean ok = rules.hardSatisfied(problem.blockCourse[b]);
+        kept[b] = -1;
+        return ok;
+    }
+
+    private static void take(Problem problem, int b, int s, int[] kept, long[] instructorUsed, long[] cohortUsed,
+                             long[] courseUsed, InstructorDayLoad load) {
+        long bit = 1L << s;
+        kept[b] = s;
+        courseUsed[problem.blockCourse[b]] |= bit;
+        int inst = problem.blockInstructor[b], cohort = problem.blockCohort[b];
+        if (inst >= 0) instructorUsed[inst] |= bit;
+        if (cohort >= 0) cohortUsed[cohort] |= bit;
+        if (inst >= 0 && !problem.blockLab[b]) load.add(inst, s / problem.slotsPerDay, problem.slotHours[s]);
+    }
+
+    // frees every block sharing a course, instructor or cohort with a free block; false when nothing changed
+    private static boolean widen(Problem problem, boolean[] free) {
+        int n = problem.blockCount;
+        boolean[] course = new boolean[problem.courseBlocks.length];
+        boolean[] instructor = new boolean[problem.instructorBlocks.length];
+        boolean[] cohort = new boolean[problem.cohortBlocks.length];
+        for (int b = 0; b < n; b++) {
+            if (!free[b]) continue;
+            course[problem.blockCourse[b]] = true;
+            if (problem.blockInstructor[b] >= 0) instructor[problem.blockInstructor[b]] = true;
+            if (problem.blockCohort[b] >= 0) cohort[problem.blockCohort[b]] = true;
+        }
+        boolean changed = false;
+        for (int b = 0; b < n; b++) {
+            if (free[b] || problem.blockPinned[b]) continue;
+            if (course[problem.blockCourse[b]]
+                    || (problem.blockInstructor[b] >= 0 && instructor[problem.blockInstructor[b]])
+                    || (problem.blockCohort[b] >= 0 && cohort[problem.blockCohort[b]])) {
+                free[b] = true;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
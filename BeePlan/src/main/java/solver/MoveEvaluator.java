@@ -0,0 +1,139 @@
+package solver;
+
+import datastructures.Constraint;
+import datastructures.Course;
+import datastructures.Instructor;
+import datastructures.Placement;
+import datastructures.Schedule;
+import datastructures.ScheduleListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// What-if queries for editing a timetable by hand: where one placement may move and what each move costs.
+// The current placements are kept in AnnealingOptimizer's occupancy words, so a query is one mask
+// intersection plus an O(1) score delta per free slot, and move() updates them in place.
+// Changes made to the schedule by anything else are not followed: isCurrent() turns false, build a new one.
+public class MoveEvaluator implements ScheduleListener {
+    private final Schedule schedule;
+    private final Problem problem;
+    private final AnnealingOptimizer.Run session;
+    private final Map<Placement, Integer> blockOf = new IdentityHashMap<>();
+    private final long examMask;
+    private final long[] availability;   // per lecturer of the problem
+    private long score;
+    private boolean moving;
+    private volatile boolean current = true;
+
+    public MoveEvaluator(Schedule schedule, List<Instructor> instructors, Constraint constraint) {
+        this.schedule = schedule;
+        this.problem = new Problem(schedule, instructors, constraint);
+        this.examMask = constraint.isFridayExamBlock() ? schedule.getCalendar().examDayMask() : 0L;
+
+        Map<String, Instructor> byName = new HashMap<>();
+        if (instructors != null) for (Instructor i : instructors) byName.put(i.getName(), i);
+        availability = new long[problem.instructorNames.length];
+        for (int l = 0; l < availability.length; l++) {
+            Instructor i = byName.get(problem.instructorNames[l]);
+            availability[l] = i == null || !i.isAvailabilityDeclared() ? -1L : i.getAvailabilityMask(schedule);
+        }
+
+        int[] slots = new int[problem.blockCount];
+        Arrays.fill(slots, -1);
+        Map<Course, List<Placement>> theory = new IdentityHashMap<>();
+        Map<Course, List<Placement>> lab = new IdentityHashMap<>();
+        for (Placement pl : schedule.getPlacements()) {
+            (pl.isLab() ? lab : theory).computeIfAbsent(pl.getCourse(), k -> new ArrayList<>()).add(pl);
+        }
+        boolean all = true;
+        for (int ci = 0; ci < problem.table.size(); ci++) {
+            Course c = problem.table.course(ci);
+            int[] blocks = problem.courseBlocks[ci];
+            int t = problem.theoryBlocks(ci);
+            all &= match(slots, blocks, 0, t, theory.get(c));
+            all &= match(slots, blocks, t, blocks.length, lab.get(c));
+        }
+        SolverResult result = new SolverResult(problem, all ? SolverResult.Status.SOLVED : SolverResult.Status.IN_PROGRESS,
+                slots, List.of(), 0, 0, 0);
+        session = new AnnealingOptimizer().session(result);
+        score = session.total();
+        schedule.addListener(this);
+    }
+
+    // the pinned placements of a kind take its first blocks (as Problem pins them), the others the rest,
+    // each in ascending slot order; false when some block stays without a placement
+    private boolean match(int[] slots, int[] blocks, int from, int to, List<Placement> placements) {
+        if (placements == null) return from == to;
+        placements.sort(Comparator.comparing((Placement pl) -> !pl.isPinned()).thenComparingInt(Placement::getSlot));
+        int n = Math.min(placements.size(), to - from);
+        for (int i = 0; i < n; i++) {
+            int b = blocks[from + i];
+            slots[b] = placements.get(i).getSlot();
+            blockOf.put(placements.get(i), b);
+        }
+        return n == to - from;
+    }
+
+    public void detach() { schedule.removeListener(this); }
+
+    public Schedule getSchedule() { return schedule; }
+    // false once the schedule was changed other than through move()
+    public boolean isCurrent() { return current; }
+    // AnnealingOptimizer's score of the current placements (lower is better)
+    public long getScore() { return score; }
+
+    public MoveOptions options(Placement placement) {
+        long begin = System.nanoTime();
+        long week = schedule.allSlotsMask();
+        long[] costs = new long[schedule.getSlotCount()];
+        long[] blocked = new long[MoveOptions.Reason.values().length];
+        Integer b = blockOf.get(placement);
+        long own = 1L << placement.getSlot();
+        if (b == null || problem.blockPinned[b]) {
+            blocked[MoveOptions.Reason.FIXED.ordinal()] = week & ~own;
+            return new MoveOptions(placement, b == null ? -1 : b, own, costs, blocked, System.nanoTime() - begin);
+        }
+        long legal = session.relocations(b, costs, blocked);
+        int inst = problem.blockInstructor[b];
+        blocked[MoveOptions.Reason.EXAM_BLOCK.ordinal()] = examMask;
+        blocked[MoveOptions.Reason.UNAVAILABLE.ordinal()] = inst < 0 ? 0L : ~availability[inst];
+        blocked[MoveOptions.Reason.NOT_ALLOWED.ordinal()] = ~problem.initialDomain[b];
+        for (int r = 0; r < blocked.length; r++) blocked[r] &= week & ~own;
+        return new MoveOptions(placement, b, legal & week, costs, blocked, System.nanoTime() - begin);
+    }
+
+    // moves the placement to a legal slot and returns its replacement (the room is left to be assigned again)
+    public Placement move(Placement placement, int slot) {
+        MoveOptions options = options(placement);
+        if (!options.isLegal(slot)) {
+            throw new IllegalArgumentException("Cannot move " + placement.getCourse().getCourseId() + " to "
+                    + schedule.dayName(slot) + " " + schedule.timeslotName(slot) + ": " + options.describe(slot));
+        }
+        if (slot == placement.getSlot()) return placement;
+        int b = blockOf.remove(placement);
+        moving = true;
+        try {
+            schedule.remove(placement);
+            Placement moved = schedule.place(placement.getCourse(), slot, placement.isLab(), null);
+            blockOf.put(moved, b);
+            score += session.relocate(b, slot);
+            return moved;
+        } finally {
+            moving = false;
+        }
+    }
+
+    @Override
+    public void placed(Placement p) { if (!moving) current = false; }
+
+    @Override
+    public void removed(Placement p) { if (!moving) current = false; }
+
+    @Override
+    public void cleared() { current = false; }
+}
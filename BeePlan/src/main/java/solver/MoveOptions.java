@@ -0,0 +1,71 @@
+package solver;
+
+import datastructures.Placement;
+
+// Where one placed block may go, as answered by MoveEvaluator: a legal-slot mask, the score change of every
+// legal move (positive = worse, the same score AnnealingOptimizer minimises) and, per reason, the slots it
+// rules out. All lookups are O(1), so a drag can query it on every mouse move.
+public class MoveOptions {
+    // why a slot is not legal, in the order they are reported
+    public enum Reason {
+        FIXED("the block is fixed"),
+        EXAM_BLOCK("exam block"),
+        UNAVAILABLE("lecturer not available"),
+        NOT_ALLOWED("not allowed for this block"),
+        COURSE("course already meets then"),
+        INSTRUCTOR("lecturer teaches another course then"),
+        COHORT("cohort has another course then"),
+        DAILY_LIMIT("lecturer's daily theory limit reached"),
+        ORDER("breaks the lab/theory order"),
+        RULE("breaks a hard rule");
+
+        private final String text;
+
+        Reason(String text) { this.text = text; }
+
+        public String getText() { return text; }
+    }
+
+    private final Placement placement;
+    private final int block;
+    private final long legal;
+    private final long[] costs;
+    private final long[] blocked;
+    private final long elapsedNanos;
+
+    MoveOptions(Placement placement, int block, long legal, long[] costs, long[] blocked, long elapsedNanos) {
+        this.placement = placement;
+        this.block = block;
+        this.legal = legal;
+        this.costs = costs;
+        this.blocked = blocked;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Placement getPlacement() { return placement; }
+    public int getBlock() { return block; }
+    public int getFrom() { return placement.getSlot(); }
+    // bit s set when the block may move to slot s (its own slot included)
+    public long getLegalMask() { return legal; }
+    public boolean isLegal(int slot) { return slot >= 0 && slot < Long.SIZE && (legal & (1L << slot)) != 0; }
+    // score change of moving to a legal slot; 0 for the current one
+    public long cost(int slot) { return costs[slot]; }
+    public long getBlockedMask(Reason reason) { return blocked[reason.ordinal()]; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    // the first reason the slot is ruled out for, null when it is legal
+    public Reason reason(int slot) {
+        if (isLegal(slot)) return null;
+        long bit = 1L << slot;
+        for (Reason r : Reason.values()) if ((blocked[r.ordinal()] & bit) != 0) return r;
+        return Reason.NOT_ALLOWED;
+    }
+
+    // the cost (e.g. "+3", "-2", "±0") of a legal slot, otherwise the reason it is ruled out
+    public String describe(int slot) {
+        Reason r = reason(slot);
+        if (r != null) return r.getText();
+        long c = costs[slot];
+        return c == 0 ? "±0" : (c > 0 ? "+" : "") + c;
+    }
+}
@@ -0,0 +1,115 @@
+package solver;
+
+import java.util.Arrays;
+
+// Nogoods learned by the search: small sets of (block, slot) decisions that no solution contains together.
+// The store is a two-way set-associative hash table of fixed capacity: a nogood may live in one of two
+// entries picked by its hash, and when both are taken it replaces the one that pruned least recently.
+// Every stored nogood is linked into the list of each of its literals (block * 64 + slot), so checking a
+// placement only visits the nogoods that mention it.
+final class NogoodStore {
+    static final int MAX_LITERALS = 8;
+
+    private final int mask;
+    private final int[] literals;     // entry * MAX_LITERALS + k
+    private final int[] size;         // literals of the entry, 0 = free
+    private final long[] hash;
+    private final long[] lastUse;
+    // per literal: first link, -1 when no nogood mentions it; a link is entry * MAX_LITERALS + k
+    private final int[] head;
+    private final int[] next;
+    private final int[] prev;
+
+    private long learned;
+    private long evicted;
+    private long hits;
+
+    // capacity is rounded up to a power of two
+    NogoodStore(int blocks, int capacity) {
+        int entries = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        mask = entries - 1;
+        literals = new int[entries * MAX_LITERALS];
+        size = new int[entries];
+        hash = new long[entries];
+        lastUse = new long[entries];
+        head = new int[blocks * Long.SIZE];
+        Arrays.fill(head, -1);
+        next = new int[entries * MAX_LITERALS];
+        prev = new int[entries * MAX_LITERALS];
+    }
+
+    // stores the nogood lits[0..count) (any order, no duplicates); false when it is too long or already known
+    boolean add(int[] lits, int count, long stamp) {
+        if (count == 0 || count > MAX_LITERALS) return false;
+        Arrays.sort(lits, 0, count);
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < count; i++) h = (h ^ lits[i]) * 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 31;
+        int first = (int) h & mask, second = (int) (h >>> 32) & mask;
+        if (same(first, h, lits, count) || same(second, h, lits, count)) return false;
+        int entry;
+        if (size[first] == 0) entry = first;
+        else if (size[second] == 0) entry = second;
+        else {
+            entry = lastUse[first] <= lastUse[second] ? first : second;
+            unlink(entry);
+            evicted++;
+        }
+        size[entry] = count;
+        hash[entry] = h;
+        lastUse[entry] = stamp;
+        for (int k = 0; k < count; k++) {
+            int link = entry * MAX_LITERALS + k;
+            int lit = lits[k];
+            literals[link] = lit;
+            prev[link] = -1;
+            next[link] = head[lit];
+            if (head[lit] >= 0) prev[head[lit]] = link;
+            head[lit] = link;
+        }
+        learned++;
+        return true;
+    }
+
+    private boolean same(int entry, long h, int[] lits, int count) {
+        if (size[entry] != count || hash[entry] != h) return false;
+        for (int k = 0; k < count; k++) if (literals[entry * MAX_LITERALS + k] != lits[k]) return false;
+        return true;
+    }
+
+    private void unlink(int entry) {
+        for (int k = 0; k < size[entry]; k++) {
+            int link = entry * MAX_LITERALS + k;
+            if (prev[link] >= 0) next[prev[link]] = next[link];
+            else head[literals[link]] = next[link];
+            if (next[link] >= 0) prev[next[link]] = prev[link];
+        }
+        size[entry] = 0;
+    }
+
+    // a nogood that placing block in slot would complete, given the other placements in slotOf; -1 if none
+    int violated(int block, int slot, int[] slotOf, long stamp) {
+        for (int link = head[block * Long.SIZE + slot]; link >= 0; link = next[link]) {
+            int entry = link / MAX_LITERALS;
+            boolean all = true;
+            for (int k = 0; k < size[entry] && all; k++) {
+                int lit = literals[entry * MAX_LITERALS + k];
+                int b = lit >>> 6;
+                all = b == block || slotOf[b] == (lit & 63);
+            }
+            if (all) {
+                lastUse[entry] = stamp;
+                hits++;
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    int size(int entry) { return size[entry]; }
+    int block(int entry, int k) { return literals[entry * MAX_LITERALS + k] >>> 6; }
+
+    long getLearned() { return learned; }
+    long getEvicted() { return evicted; }
+    long getHits() { return hits; }
+}
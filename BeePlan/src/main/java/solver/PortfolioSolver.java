@@ -0,0 +1,121 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs several differently seeded BacktrackingSolver configurations in parallel on a ForkJoinPool.
+// The first SOLVED result wins and the other workers are told to stop through a flag of the portfolio's own
+// (the caller's cancel flag is only read, so it can be passed on to later steps);
+// when nobody solves the problem before the deadline, the result with the most placed blocks is returned.
+public class PortfolioSolver {
+    // how often the caller's cancel flag is checked while the workers run
+    private static final long CANCEL_POLL_MILLIS = 10L;
+
+    private final int workers;
+    private final long timeLimitMillis;
+    private final long baseSeed;
+
+    public PortfolioSolver() {
+        this(Runtime.getRuntime().availableProcessors(), 10_000L, 0L);
+    }
+
+    public PortfolioSolver(int workers, long timeLimitMillis, long baseSeed) {
+        if (workers < 1) throw new IllegalArgumentException("workers must be >= 1");
+        this.workers = workers;
+        this.timeLimitMillis = timeLimitMillis;
+        this.baseSeed = baseSeed;
+    }
+
+    public int getWorkers() { return workers; }
+
+    // worker 0 is the deterministic default search, the others diversify tie-breaks and slot order
+    public List<SolverConfig> configs() {
+        List<SolverConfig> configs = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            SolverConfig config = new SolverConfig(baseSeed + i, timeLimitMillis);
+            config.setRandomValueOrder(i % 2 == 1);
+            configs.add(config);
+        }
+        return configs;
+    }
+
+    public SolverResult solve(Problem problem) {
+        return solve(problem, new AtomicBoolean());
+    }
+
+    // cancel (may be null: never cancelled) stops every worker; the portfolio never sets it itself
+    public SolverResult solve(Problem problem, AtomicBoolean cancel) {
+        return solve(problem, cancel, null);
+    }
+
+    // listener (may be null) sees the best snapshot over all workers; snapshots that do not place more blocks
+    // than the last forwarded one are dropped, and forwarding is limited to one per progress interval
+    public SolverResult solve(Problem problem, AtomicBoolean cancel, ImprovementListener listener) {
+        List<SolverConfig> configs = configs();
+        if (workers == 1) return new BacktrackingSolver(configs.get(0)).solve(problem, cancel, listener);
+        ImprovementListener merged = listener == null ? null
+                : new CoalescingListener(listener, configs.get(0).getProgressIntervalMillis());
+
+        AtomicBoolean stop = new AtomicBoolean(cancel != null && cancel.get());
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            ExecutorCompletionService<SolverResult> completion = new ExecutorCompletionService<>(pool);
+            List<Future<SolverResult>> futures = new ArrayList<>();
+            for (SolverConfig config : configs) {
+                futures.add(completion.submit(() -> new BacktrackingSolver(config).solve(problem, stop, merged)));
+            }
+            SolverResult best = null;
+            for (int i = 0; i < futures.size(); i++) {
+                Future<SolverResult> done;
+                while ((done = completion.poll(CANCEL_POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                    if (cancel != null && cancel.get()) stop.set(true);
+                }
+                SolverResult r = done.get();
+                // every worker searches completely, so one proof of infeasibility is as final as a solution
+                if (r.isSolved() || r.getStatus() == SolverResult.Status.INFEASIBLE) return r;
+                if (best == null || r.getPlacedBlocks() > best.getPlacedBlocks()) best = r;
+            }
+            return best;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Portfolio solve interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Portfolio worker failed", e.getCause());
+        } finally {
+            stop.set(true);
+            pool.shutdown();
+        }
+    }
+
+    // merges the snapshots of all workers into one stream of improvements
+    private static final class CoalescingListener implements ImprovementListener {
+        private final ImprovementListener target;
+        private final long intervalNanos;
+        private int bestPlaced = -1;
+        private long lastForward;
+
+        CoalescingListener(ImprovementListener target, long intervalMillis) {
+            this.target = target;
+            this.intervalNanos = intervalMillis * 1_000_000L;
+            this.lastForward = System.nanoTime() - intervalNanos;
+        }
+
+        @Override
+        public void placed(SolverResult partial) {
+            int count = partial.getPlacedBlocks();
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (count <= bestPlaced || now - lastForward < intervalNanos) return;
+                bestPlaced = count;
+                lastForward = now;
+            }
+            target.placed(partial);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package solver;
+
+import datastructures.BlockKind;
+import datastructures.Constraint;
+import datastructures.Course;
+import datastructures.CourseTable;
+import datastructures.Instructor;
+import datastructures.Placement;
+import datastructures.PrecedenceGraph;
+import datastructures.PrecedenceRule;
+import datastructures.Schedule;
+import datastructures.ScheduleRule;
+import datastructures.SlotCalendar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Flat, index-based model of one scheduling run. Every course is split into blocks (one timeslot each,
+// SlotCalendar.blockHours hours), theory blocks first and lab blocks after them. A block counts the hours of the
+// timeslot it lands in against the lecturer's daily theory limit. The search only ever touches ints and slot masks.
+// Course data is read from a columnar CourseTable snapshot; instructor and cohort ids are the table's.
+// Pinned placements already in the schedule fix the first blocks of their kind to that slot.
+// Ordering between blocks (lab after theory, any added rule, and in-kind order) is a precedence graph.
+// The Constraint's ScheduleRules are compiled into a RuleKernel over the same block lists.
+public class Problem {
+    // blocks of one kind are interchangeable, so they are placed in ascending slots (symmetry breaking)
+    static final PrecedenceRule IN_KIND_ORDER = (course, blocks, graph) -> {
+        for (int[] ofKind : blocks) {
+            for (int i = 0; i < ofKind.length; i++) {
+                for (int j = i + 1; j < ofKind.length; j++) graph.addEdge(ofKind[i], ofKind[j]);
+            }
+        }
+    };
+
+    final Schedule schedule;
+    final CourseTable table;
+    final List<Course> courses;
+    final int slotCount;
+    final int days;
+    final int slotsPerDay;
+    final int blockCount;
+
+    // per block
+    final int[] blockCourse;
+    final boolean[] blockLab;
+    final int[] blockInstructor;   // -1 when the course has no lecturer
+    final int[] blockCohort;       // -1 when the course has no cohort
+    final long[] initialDomain;
+    final boolean[] blockPinned;
+
+    // resource -> blocks using it; blocks of one course are listed theory first, then lab
+    final int[][] courseBlocks;
+    final int[][] instructorBlocks;
+    final int[][] cohortBlocks;
+    final String[] instructorNames;
+
+    final long[] dayMasks;
+    final int blockHours;
+    final int[] slotHours;           // academic hours of every slot, counted against the daily theory limit
+    final int maxTheoryHoursPerDay;
+    private final long[] fittingSlots; // [h]: slots of at most h hours, h = 0 .. maxTheoryHoursPerDay
+    final PrecedenceGraph precedence;
+    // blocks whose domain only became empty because of the ordering rules
+    private final boolean[] emptiedByOrdering;
+    final RuleKernel ruleKernel;
+    // ScheduleRule.LABS_BACK_TO_BACK is registered: lab k of a course can only start a run of its labs at k
+    // places before, and the search fixes the other labs as soon as one is placed
+    final boolean labsBackToBack;
+
+    public Problem(Schedule schedule, List<Instructor> instructors, Constraint constraint) {
+        this.schedule = schedule;
+        this.table = CourseTable.of(schedule.getCourseList());
+        this.courses = table.asList();
+        this.slotCount = schedule.getSlotCount();
+        this.days = schedule.getDayCount();
+        this.slotsPerDay = schedule.getSlotsPerDay();
+        this.blockHours = schedule.getCalendar().blockHours();
+        this.maxTheoryHoursPerDay = Constraint.MAX_THEORY_HOURS_PER_DAY;
+
+        dayMasks = new long[days];
+        for (int d = 0; d < days; d++) dayMasks[d] = schedule.dayMask(d);
+        slotHours = new int[slotCount];
+        fittingSlots = new long[maxTheoryHoursPerDay + 1];
+        for (int s = 0; s < slotCount; s++) {
+            slotHours[s] = schedule.getCalendar().hours(schedule.timeslotOf(s));
+            for (int h = slotHours[s]; h <= maxTheoryHoursPerDay; h++) fittingSlots[h] |= 1L << s;
+        }
+        long weekMask = schedule.allSlotsMask();
+        if (constraint.isFridayExamBlock()) weekMask &= ~schedule.getCalendar().examDayMask();
+
+        labsBackToBack = constraint.getRules().contains(ScheduleRule.LABS_BACK_TO_BACK);
+        long[] labRuns = new long[slotsPerDay + 1];
+        for (int k = 1; k <= slotsPerDay; k++) labRuns[k] = schedule.getCalendar().runStarts(k);
+
+        Map<String, Instructor> byName = new HashMap<>();
+        if (instructors != null) for (Instructor i : instructors) byName.put(i.getName(), i);
+
+        int total = 0;
+        for (int ci = 0; ci < table.size(); ci++) total += theoryBlocks(ci) + labBlocks(ci);
+        blockCount = total;
+        blockCourse = new int[total];
+        blockLab = new boolean[total];
+        blockInstructor = new int[total];
+        blockCohort = new int[total];
+        initialDomain = new long[total];
+        blockPinned = new boolean[total];
+        courseBlocks = new int[table.size()][];
+        List<PrecedenceRule> rules = new ArrayList<>();
+        rules.add(IN_KIND_ORDER);
+        rules.addAll(constraint.getPrecedenceRules());
+        PrecedenceGraph.Builder graph = PrecedenceGraph.builder(total);
+
+        long[] availability = new long[table.lecturerCount()];
+        for (int l = 0; l < availability.length; l++) availability[l] = availabilityMask(byName.get(table.lecturerName(l)));
+        Map<Course, List<Integer>> pinnedTheory = new IdentityHashMap<>();
+        Map<Course, List<Integer>> pinnedLab = new IdentityHashMap<>();
+        for (Placement pl : schedule.getPinnedPlacements()) {
+            (pl.isLab() ? pinnedLab : pinnedTheory).computeIfAbsent(pl.getCourse(), k -> new ArrayList<>()).add(pl.getSlot());
+        }
+        int b = 0;
+        for (int ci = 0; ci < table.size(); ci++) {
+            Course c = table.course(ci);
+            int inst = table.lecturer(ci);
+            int cohort = table.cohort(ci);
+            long labDomain = weekMask & (inst < 0 ? -1L : availability[inst]);
+            // a timeslot longer than the daily theory limit never takes theory
+            long theoryDomain = labDomain & fitting(maxTheoryHoursPerDay);
+            if (table.labCapacity(ci) > Constraint.MAX_LAB_CAPACITY) labDomain = 0L;
+            int t = theoryBlocks(ci), l = labBlocks(ci);
+            courseBlocks[ci] = new int[t + l];
+            for (int k = 0; k < t + l; k++, b++) {
+                courseBlocks[ci][k] = b;
+                blockCourse[b] = ci;
+                blockLab[b] = k >= t;
+                blockInstructor[b] = inst;
+                blockCohort[b] = cohort;
+                initialDomain[b] = k >= t ? labDomain : theoryDomain;
+                if (labsBackToBack && k >= t && l > 1) initialDomain[b] &= l < labRuns.length ? labRuns[l] << (k - t) : 0L;
+            }
+            pin(courseBlocks[ci], 0, t, pinnedTheory.get(c));
+            pin(courseBlocks[ci], t, t + l, pinnedLab.get(c));
+            int[][] byKind = new int[BlockKind.values().length][];
+            byKind[BlockKind.THEORY.ordinal()] = Arrays.copyOfRange(courseBlocks[ci], 0, t);
+            byKind[BlockKind.LAB.ordinal()] = Arrays.copyOfRange(courseBlocks[ci], t, t + l);
+            graph.apply(rules, c, byKind);
+        }
+        precedence = graph.build();
+        // slots no ordering-consistent assignment can use are dropped up front (e.g. a lab never goes first)
+        long[] before = initialDomain.clone();
+        precedence.narrow(initialDomain);
+        emptiedByOrdering = new boolean[total];
+        for (int k = 0; k < total; k++) emptiedByOrdering[k] = before[k] != 0L && initialDomain[k] == 0L;
+
+        instructorNames = new String[table.lecturerCount()];
+        for (int l = 0; l < instructorNames.length; l++) instructorNames[l] = table.lecturerName(l);
+        instructorBlocks = groupBlocks(blockInstructor, table.lecturerCount());
+        cohortBlocks = groupBlocks(blockCohort, table.cohortCount());
+        ruleKernel = new RuleKernel(this, constraint.getRules());
+    }
+
+    // fixes blocks[from..to) to the pinned slots in ascending order, so the in-kind block ordering still holds
+    private void pin(int[] blocks, int from, int to, List<Integer> slots) {
+        if (slots == null) return;
+        slots.sort(null);
+        for (int i = 0; i < slots.size() && from + i < to; i++) {
+            int b = blocks[from + i];
+            initialDomain[b] = 1L << slots.get(i);
+            blockPinned[b] = true;
+        }
+    }
+
+    // instructors without any declared availability are treated as always available; a declared empty
+    // availability leaves no slot
+    private long availabilityMask(Instructor instructor) {
+        if (instructor == null || !instructor.isAvailabilityDeclared()) return -1L;
+        return instructor.getAvailabilityMask(schedule);
+    }
+
+    private int[][] groupBlocks(int[] owner, int groups) {
+        int[] counts = new int[groups];
+        for (int o : owner) if (o >= 0) counts[o]++;
+        int[][] out = new int[groups][];
+        for (int g = 0; g < groups; g++) out[g] = new int[counts[g]];
+        int[] fill = new int[groups];
+        for (int b = 0; b < owner.length; b++) if (owner[b] >= 0) out[owner[b]][fill[owner[b]]++] = b;
+        return out;
+    }
+
+    public static int theoryBlocks(Course c, SlotCalendar calendar) { return blocks(c.getTheoryHours(), calendar.blockHours()); }
+    public static int labBlocks(Course c, SlotCalendar calendar) { return blocks(c.getLabHours(), calendar.blockHours()); }
+    int theoryBlocks(int ci) { return blocks(table.theoryHours(ci), blockHours); }
+    int labBlocks(int ci) { return blocks(table.labHours(ci), blockHours); }
+
+    private static int blocks(int hours, int blockHours) { return (hours + blockHours - 1) / blockHours; }
+
+    // slots short enough to take one more theory block when the lecturer has hours left that day
+    long fitting(int hours) { return hours <= 0 ? 0L : fittingSlots[Math.min(hours, maxTheoryHoursPerDay)]; }
+
+    // most theory blocks that fit into the given slots of one day under the daily limit (shortest slots first)
+    private int dailyTheoryBlocks(long slots) {
+        int[] hours = new int[Long.bitCount(slots)];
+        int n = 0;
+        for (long m = slots; m != 0; m &= m - 1) hours[n++] = slotHours[Long.numberOfTrailingZeros(m)];
+        Arrays.sort(hours);
+        int taken = 0, sum = 0;
+        while (taken < n && sum + hours[taken] <= maxTheoryHoursPerDay) sum += hours[taken++];
+        return taken;
+    }
+
+    public Schedule getSchedule() { return schedule; }
+    public List<Course> getCourses() { return courses; }
+    public CourseTable getCourseTable() { return table; }
+    public int getBlockCount() { return blockCount; }
+    public int getSlotCount() { return slotCount; }
+    public Course courseOf(int block) { return table.course(blockCourse[block]); }
+    public boolean isLab(int block) { return blockLab[block]; }
+    public boolean isPinned(int block) { return blockPinned[block]; }
+
+    public PrecedenceGraph getPrecedence() { return precedence; }
+
+    // cheap counting arguments that prove infeasibility before any search; empty when none applies
+    public List<String> precheck() {
+        List<String> problems = new ArrayList<>();
+        if (!precedence.isAcyclic()) problems.add("The ordering rules contain a cycle.");
+        for (int b = 0; b < blockCount; b++) {
+            String reason = explainEmptyDomain(b);
+            if (reason != null && !problems.contains(reason)) problems.add(reason);
+        }
+        for (int i = 0; i < instructorBlocks.length; i++) {
+            long union = 0L, theoryUnion = 0L;
+            int theory = 0;
+            for (int b : instructorBlocks[i]) {
+                union |= initialDomain[b];
+                if (!blockLab[b]) {
+                    theoryUnion |= initialDomain[b];
+                    theory++;
+                }
+            }
+            int fit = 0;
+            for (long day : dayMasks) fit += dailyTheoryBlocks(theoryUnion & day);
+            if (theory > fit) {
+                problems.add("Instructor " + instructorNames[i] + " needs " + theory + " theory blocks but at most "
+                        + fit + " fit into the week (" + maxTheoryHoursPerDay + " theory hours a day)");
+            } else if (instructorBlocks[i].length > Long.bitCount(union)) {
+                problems.add("Instructor " + instructorNames[i] + " has " + instructorBlocks[i].length
+                        + " blocks but only " + Long.bitCount(union) + " usable slots");
+            }
+        }
+        for (int[] blocks : cohortBlocks) {
+            long union = 0L;
+            for (int b : blocks) union |= initialDomain[b];
+            if (blocks.length > Long.bitCount(union)) {
+                problems.add("Cohort " + table.cohortName(blockCohort[blocks[0]]) + " has " + blocks.length
+                        + " blocks but only " + Long.bitCount(union) + " usable slots");
+            }
+        }
+        return problems;
+    }
+
+    // why a block cannot be placed anywhere, or null when its initial domain is not empty
+    public String explainEmptyDomain(int block) {
+        if (initialDomain[block] != 0L) return null;
+        int ci = blockCourse[block];
+        if (emptiedByOrdering[block]) {
+            return "Ordering rules leave no slot for " + table.id(ci) + (blockLab[block] ? " (Lab)" : "");
+        }
+        if (blockLab[block] && table.labCapacity(ci) > Constraint.MAX_LAB_CAPACITY) {
+            return "Lab capacity exceeded for " + table.id(ci) + " (" + table.labCapacity(ci) + ")";
+        }
+        int inst = blockInstructor[block];
+        return "Instructor " + (inst < 0 ? null : instructorNames[inst]) + " has no available slot for " + table.id(ci);
+    }
+}
@@ -0,0 +1,40 @@
+package solver;
+
+// Outcome of an IncrementalSolver run: the repaired assignment plus how much of the old timetable moved
+public class RepairResult {
+    private final SolverResult result;
+    private final int invalidated;
+    private final int added;
+    private final int freed;
+    private final int moved;
+    private final int rounds;
+    private final long elapsedNanos;
+
+    RepairResult(SolverResult result, int invalidated, int added, int freed, int moved, int rounds, long elapsedNanos) {
+        this.result = result;
+        this.invalidated = invalidated;
+        this.added = added;
+        this.freed = freed;
+        this.moved = moved;
+        this.rounds = rounds;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public SolverResult getResult() { return result; }
+    // previous placements the change made impossible
+    public int getInvalidated() { return invalidated; }
+    // blocks that had no previous placement (new courses, extra hours)
+    public int getAdded() { return added; }
+    // blocks the last round was allowed to move
+    public int getFreed() { return freed; }
+    // previously placed blocks that ended up in another slot or unplaced
+    public int getMoved() { return moved; }
+    public int getRounds() { return rounds; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000L; }
+
+    @Override
+    public String toString() {
+        return result.getStatus() + ": " + invalidated + " invalidated, " + added + " new, " + moved + " moved ("
+                + freed + " freed, " + rounds + " rounds, " + getElapsedMillis() + " ms)";
+    }
+}
@@ -0,0 +1,240 @@
+package solver;
+
+import datastructures.Course;
+import datastructures.Placement;
+import datastructures.Room;
+import datastructures.Schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Gives every placed block a room once the time placement is done. Each slot is an independent bipartite
+// matching problem (blocks x free rooms of the right kind and size), solved with Hopcroft-Karp, so the
+// number of blocks that get a room is maximal in every slot.
+// Rooms of a kind are kept sorted by capacity, so a block's candidates are a suffix of that list: the
+// adjacency is implicit (one start index per block), a linear greedy pass seeds the matching, and a BFS
+// layer never rescans a room that an earlier expansion already reached.
+public class RoomAssigner {
+    private static final int NIL = -1;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final Room[] rooms;
+    private final int[] capacity;
+    private final Map<String, Integer> indexOf = new HashMap<>();
+    // room indices per kind (Room.Kind ordinal), ascending capacity
+    private final int[][] byKind;
+
+    // per-slot work arrays, reused across slots
+    private int[] left = new int[0];        // left vertex -> index into the slot's placement list
+    private int[] kindOf = new int[0];      // left vertex -> Room.Kind ordinal
+    private int[] from = new int[0];        // left vertex -> first fitting position in byKind[kindOf]
+    private long[] order = new long[0];
+    private int[] matchLeft = new int[0];   // left vertex -> room
+    private final int[] matchRight;         // room -> left vertex
+    private int[] dist = new int[0];
+    private int[] arc = new int[0];
+    private int[] queue = new int[0];
+    private final boolean[] taken;
+    private final int[] scanned;
+
+    public RoomAssigner(List<Room> rooms) {
+        this.rooms = rooms.toArray(new Room[0]);
+        this.capacity = new int[this.rooms.length];
+        for (int r = 0; r < this.rooms.length; r++) {
+            capacity[r] = this.rooms[r].getCapacity();
+            indexOf.put(this.rooms[r].getName(), r);
+        }
+        Room.Kind[] kinds = Room.Kind.values();
+        this.byKind = new int[kinds.length][];
+        for (Room.Kind kind : kinds) byKind[kind.ordinal()] = roomsOfKind(kind);
+        this.matchRight = new int[this.rooms.length];
+        this.taken = new boolean[this.rooms.length];
+        this.scanned = new int[kinds.length];
+    }
+
+    private int[] roomsOfKind(Room.Kind kind) {
+        List<Integer> ids = new ArrayList<>();
+        for (int r = 0; r < rooms.length; r++) if (rooms[r].getKind() == kind) ids.add(r);
+        ids.sort(Comparator.comparingInt(r -> capacity[r]));
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // seats a block needs: the lab group size for labs (falling back to enrolment), enrolment for theory
+    public static int seatsNeeded(Course c, boolean lab) {
+        return lab && c.getLabCapacity() > 0 ? c.getLabCapacity() : c.getStudents();
+    }
+
+    // gives every block without a room its matched room; blocks that already have one keep it
+    public RoomAssignment assign(Schedule schedule) {
+        RoomAssignmentEvent event = new RoomAssignmentEvent();
+        event.begin();
+        long begin = System.nanoTime();
+        int assigned = 0;
+        List<Placement> unassigned = new ArrayList<>();
+        List<String> messages = new ArrayList<>();
+        for (int slot = 0; slot < schedule.getSlotCount(); slot++) {
+            if (schedule.isSlotFree(slot)) continue;
+            List<Placement> inSlot = schedule.getPlacements(slot);
+            int n = buildGraph(inSlot);
+            if (n == 0) continue;
+            match(n);
+            String[] chosen = new String[inSlot.size()];
+            for (int u = 0; u < n; u++) {
+                Placement p = inSlot.get(left[u]);
+                if (matchLeft[u] == NIL) {
+                    unassigned.add(p);
+                    messages.add("No free " + (p.isLab() ? "lab" : "lecture room") + " with "
+                            + seatsNeeded(p.getCourse(), p.isLab()) + " seats for " + p.getCourse().getCourseId()
+                            + (p.isLab() ? " (Lab)" : "") + " on " + schedule.dayName(slot) + " " + schedule.timeslotName(slot));
+                    continue;
+                }
+                chosen[left[u]] = rooms[matchLeft[u]].getName();
+                assigned++;
+            }
+            schedule.setRooms(slot, chosen);
+        }
+        event.end();
+        SolverMetrics.roomAssignmentFinished();
+        if (event.shouldCommit()) {
+            event.assigned = assigned;
+            event.unassigned = unassigned.size();
+            event.commit();
+        }
+        return new RoomAssignment(assigned, unassigned, messages, System.nanoTime() - begin);
+    }
+
+    // left side: placements of the slot without a room; right side: rooms not already used in the slot.
+    // Returns the number of left vertices.
+    private int buildGraph(List<Placement> inSlot) {
+        Arrays.fill(taken, false);
+        int n = 0;
+        for (Placement p : inSlot) {
+            if (p.getRoom() == null) {
+                n++;
+            } else {
+                Integer r = indexOf.get(p.getRoom());
+                if (r != null) taken[r] = true;
+            }
+        }
+        if (left.length < n) {
+            left = new int[n];
+            kindOf = new int[n];
+            from = new int[n];
+            order = new long[n];
+            matchLeft = new int[n];
+            dist = new int[n];
+            arc = new int[n];
+            queue = new int[n];
+        }
+        int u = 0;
+        for (int i = 0; i < inSlot.size(); i++) {
+            Placement p = inSlot.get(i);
+            if (p.getRoom() != null) continue;
+            left[u] = i;
+            kindOf[u] = (p.isLab() ? Room.Kind.LAB : Room.Kind.LECTURE).ordinal();
+            from[u] = firstFitting(byKind[kindOf[u]], seatsNeeded(p.getCourse(), p.isLab()));
+            u++;
+        }
+        return n;
+    }
+
+    // binary search for the smallest room of the list with at least the given capacity
+    private int firstFitting(int[] kind, int seats) {
+        int lo = 0, hi = kind.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (capacity[kind[mid]] < seats) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // ---- Hopcroft-Karp ----
+
+    private void match(int n) {
+        Arrays.fill(matchLeft, 0, n, NIL);
+        Arrays.fill(matchRight, NIL);
+        greedy(n);
+        while (bfs(n)) {
+            for (int u = 0; u < n; u++) arc[u] = from[u];
+            for (int u = 0; u < n; u++) if (matchLeft[u] == NIL) dfs(u);
+        }
+    }
+
+    // smallest need first, each into the smallest free room that fits: with nested candidate lists this
+    // is already maximum, so the phases below only have to prove it
+    private void greedy(int n) {
+        for (int u = 0; u < n; u++) order[u] = ((long) kindOf[u] << 58) | ((long) from[u] << 29) | u;
+        Arrays.sort(order, 0, n);
+        int kind = -1, j = 0;
+        for (int i = 0; i < n; i++) {
+            int u = (int) (order[i] & ((1L << 29) - 1));
+            if (kindOf[u] != kind) {
+                kind = kindOf[u];
+                j = 0;
+            }
+            int[] list = byKind[kind];
+            j = Math.max(j, from[u]);
+            while (j < list.length && taken[list[j]]) j++;
+            if (j == list.length) continue;
+            matchLeft[u] = list[j];
+            matchRight[list[j]] = u;
+            j++;
+        }
+    }
+
+    // layers the graph from the free left vertices; true when some augmenting path exists.
+    // Rooms at positions >= scanned[kind] were reached already, so each room is scanned once per phase.
+    private boolean bfs(int n) {
+        int head = 0, tail = 0;
+        for (int u = 0; u < n; u++) {
+            if (matchLeft[u] == NIL) {
+                dist[u] = 0;
+                queue[tail++] = u;
+            } else {
+                dist[u] = UNREACHED;
+            }
+        }
+        for (int k = 0; k < byKind.length; k++) scanned[k] = byKind[k].length;
+        boolean found = false;
+        while (head < tail) {
+            int u = queue[head++];
+            int[] list = byKind[kindOf[u]];
+            int end = scanned[kindOf[u]];
+            for (int j = from[u]; j < end; j++) {
+                int r = list[j];
+                if (taken[r]) continue;
+                int w = matchRight[r];
+                if (w == NIL) found = true;
+                else if (dist[w] == UNREACHED) {
+                    dist[w] = dist[u] + 1;
+                    queue[tail++] = w;
+                }
+            }
+            if (from[u] < end) scanned[kindOf[u]] = from[u];
+        }
+        return found;
+    }
+
+    // augments along the layered graph; arc[] remembers the next candidate so each one is tried once per phase
+    private boolean dfs(int u) {
+        int[] list = byKind[kindOf[u]];
+        for (; arc[u] < list.length; arc[u]++) {
+            int r = list[arc[u]];
+            if (taken[r]) continue;
+            int w = matchRight[r];
+            if (w == NIL || (dist[w] == dist[u] + 1 && dfs(w))) {
+                matchLeft[u] = r;
+                matchRight[r] = u;
+                arc[u]++;
+                return true;
+            }
+        }
+        dist[u] = UNREACHED;
+        return false;
+    }
+}
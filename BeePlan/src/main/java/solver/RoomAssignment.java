@@ -0,0 +1,32 @@
+package solver;
+
+import datastructures.Placement;
+
+import java.util.List;
+
+// Outcome of a RoomAssigner run
+public class RoomAssignment {
+    private final int assigned;
+    private final List<Placement> unassigned;
+    private final List<String> messages;
+    private final long elapsedNanos;
+
+    RoomAssignment(int assigned, List<Placement> unassigned, List<String> messages, long elapsedNanos) {
+        this.assigned = assigned;
+        this.unassigned = List.copyOf(unassigned);
+        this.messages = List.copyOf(messages);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getAssigned() { return assigned; }
+    // blocks left without a room because every fitting room of the slot was taken (or none is big enough)
+    public List<Placement> getUnassigned() { return unassigned; }
+    public List<String> getMessages() { return messages; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000L; }
+    public boolean isComplete() { return unassigned.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return assigned + " rooms assigned, " + unassigned.size() + " blocks without room, " + getElapsedMillis() + " ms";
+    }
+}
@@ -0,0 +1,18 @@
+package solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// One RoomAssigner run over a schedule
+@Name("beeplan.RoomAssignment")
+@Label("Room Assignment")
+@Category({"BeePlan", "Solver"})
+final class RoomAssignmentEvent extends Event {
+    @Label("Assigned")
+    int assigned;
+
+    @Label("Without Room")
+    int unassigned;
+}
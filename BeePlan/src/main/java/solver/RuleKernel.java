@@ -0,0 +1,195 @@
+package solver;
+
+import datastructures.BlockView;
+import datastructures.Course;
+import datastructures.ScheduleRule;
+import datastructures.SlotCalendar;
+
+import java.util.List;
+
+// The ScheduleRules of a Problem compiled into flat arrays. Every (rule, resource) pair is one term that points
+// at the resource's block list; every course lists the terms its blocks take part in (CSR layout), so a move
+// re-evaluates only the terms of the moved courses. The layout is immutable and shared by all solver threads;
+// each run keeps its cached term values in its own Evaluation.
+final class RuleKernel {
+    private final Problem p;
+    private final ScheduleRule[] rules;
+    private final int[] termRule;
+    private final int[][] termBlocks;
+    private final int[] courseStart;
+    private final int[] courseTerms;
+    private final boolean[] courseHasHard;
+    private final boolean anyHard;
+
+    RuleKernel(Problem p, List<ScheduleRule> list) {
+        this.p = p;
+        this.rules = list.toArray(new ScheduleRule[0]);
+        int courses = p.courseBlocks.length;
+        int[] base = new int[rules.length];
+        int terms = 0;
+        for (int r = 0; r < rules.length; r++) {
+            base[r] = terms;
+            terms += groups(rules[r].getScope()).length;
+        }
+        termRule = new int[terms];
+        termBlocks = new int[terms][];
+        for (int r = 0; r < rules.length; r++) {
+            int[][] groups = groups(rules[r].getScope());
+            for (int g = 0; g < groups.length; g++) {
+                termRule[base[r] + g] = r;
+                termBlocks[base[r] + g] = groups[g];
+            }
+        }
+
+        // course -> terms: count, prefix sums, fill
+        courseStart = new int[courses + 1];
+        courseHasHard = new boolean[courses];
+        boolean hard = false;
+        for (int ci = 0; ci < courses; ci++) {
+            int count = 0;
+            if (p.courseBlocks[ci].length > 0) {
+                for (ScheduleRule rule : rules) {
+                    if (groupOf(rule.getScope(), ci, p.courseBlocks[ci][0]) < 0) continue;
+                    count++;
+                    if (rule.isHard()) courseHasHard[ci] = hard = true;
+                }
+            }
+            courseStart[ci + 1] = courseStart[ci] + count;
+        }
+        courseTerms = new int[courseStart[courses]];
+        for (int ci = 0; ci < courses; ci++) {
+            if (p.courseBlocks[ci].length == 0) continue;
+            int fill = courseStart[ci];
+            for (int r = 0; r < rules.length; r++) {
+                int g = groupOf(rules[r].getScope(), ci, p.courseBlocks[ci][0]);
+                if (g >= 0) courseTerms[fill++] = base[r] + g;
+            }
+        }
+        anyHard = hard;
+    }
+
+    private int[][] groups(ScheduleRule.Scope scope) {
+        switch (scope) {
+            case COURSE: return p.courseBlocks;
+            case INSTRUCTOR: return p.instructorBlocks;
+            default: return p.cohortBlocks;
+        }
+    }
+
+    private int groupOf(ScheduleRule.Scope scope, int course, int block) {
+        switch (scope) {
+            case COURSE: return course;
+            case INSTRUCTOR: return p.blockInstructor[block];
+            default: return p.blockCohort[block];
+        }
+    }
+
+    boolean isEmpty() { return termRule.length == 0; }
+    boolean hasHard() { return anyHard; }
+    int getTermCount() { return termRule.length; }
+    List<ScheduleRule> getRules() { return List.of(rules); }
+
+    // slotOf is the run's live assignment (-1 = unplaced); the evaluation reads it, never writes it
+    Evaluation evaluation(int[] slotOf) { return new Evaluation(slotOf); }
+
+    final class Evaluation implements BlockView {
+        private final int[] slotOf;
+        private int[] blocks;
+        // committed penalty per term, and the values of the move evaluated last
+        private final int[] value;
+        private final int[] pending;
+        private final int[] seen;
+        private int epoch;
+        private final int[] touched;
+        private int touchedCount;
+        private long pendingHard;
+        private long evaluations;
+
+        private Evaluation(int[] slotOf) {
+            this.slotOf = slotOf;
+            value = new int[termRule.length];
+            pending = new int[termRule.length];
+            seen = new int[termRule.length];
+            touched = new int[termRule.length];
+        }
+
+        private int evaluate(int t) {
+            evaluations++;
+            blocks = termBlocks[t];
+            return rules[termRule[t]].penalty(this);
+        }
+
+        // evaluates every term and caches the values; returns the weighted soft penalty
+        long softTotal() {
+            long sum = 0;
+            for (int t = 0; t < value.length; t++) {
+                value[t] = evaluate(t);
+                ScheduleRule rule = rules[termRule[t]];
+                if (!rule.isHard()) sum += (long) rule.getWeight() * value[t];
+            }
+            return sum;
+        }
+
+        // hard penalty of the cached values (call softTotal first)
+        long hardTotal() {
+            long sum = 0;
+            for (int t = 0; t < value.length; t++) if (rules[termRule[t]].isHard()) sum += value[t];
+            return sum;
+        }
+
+        // true when no hard term of the course reports a violation for the current assignment (not cached)
+        boolean hardSatisfied(int course) {
+            if (!courseHasHard[course]) return true;
+            for (int i = courseStart[course]; i < courseStart[course + 1]; i++) {
+                int t = courseTerms[i];
+                if (rules[termRule[t]].isHard() && evaluate(t) > 0) return false;
+            }
+            return true;
+        }
+
+        // re-evaluates the terms of course1 and course2 (-1 = none) after a move was applied; returns the change
+        // of the weighted soft penalty, hardDelta() the change of the hard one. commit() keeps the new values.
+        long delta(int course1, int course2) {
+            epoch++;
+            touchedCount = 0;
+            pendingHard = 0;
+            long soft = collect(course1);
+            if (course2 >= 0 && course2 != course1) soft += collect(course2);
+            return soft;
+        }
+
+        private long collect(int course) {
+            long soft = 0;
+            for (int i = courseStart[course]; i < courseStart[course + 1]; i++) {
+                int t = courseTerms[i];
+                if (seen[t] == epoch) continue;
+                seen[t] = epoch;
+                touched[touchedCount++] = t;
+                pending[t] = evaluate(t);
+                ScheduleRule rule = rules[termRule[t]];
+                long change = pending[t] - value[t];
+                if (rule.isHard()) pendingHard += change;
+                else soft += rule.getWeight() * change;
+            }
+            return soft;
+        }
+
+        long hardDelta() { return pendingHard; }
+
+        // rule terms evaluated so far
+        long getEvaluations() { return evaluations; }
+
+        void commit() {
+            for (int i = 0; i < touchedCount; i++) value[touched[i]] = pending[touched[i]];
+            touchedCount = 0;
+        }
+
+        // ---- BlockView over the term being evaluated ----
+
+        @Override public int size() { return blocks.length; }
+        @Override public int slot(int i) { return slotOf[blocks[i]]; }
+        @Override public boolean isLab(int i) { return p.blockLab[blocks[i]]; }
+        @Override public Course course(int i) { return p.courseOf(blocks[i]); }
+        @Override public SlotCalendar calendar() { return p.schedule.getCalendar(); }
+    }
+}
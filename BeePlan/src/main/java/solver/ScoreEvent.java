@@ -0,0 +1,20 @@
+package solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// A new best score of an AnnealingOptimizer run (at most one per millisecond)
+@Name("beeplan.BestScore")
+@Label("Best Score Improved")
+@Category({"BeePlan", "Solver"})
+@StackTrace(false)
+final class ScoreEvent extends Event {
+    @Label("Score")
+    long score;
+
+    @Label("Moves")
+    long moves;
+}
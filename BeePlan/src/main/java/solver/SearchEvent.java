@@ -0,0 +1,55 @@
+package solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// One BacktrackingSolver run; the event duration is the search time
+@Name("beeplan.Search")
+@Label("Schedule Search")
+@Category({"BeePlan", "Solver"})
+@Description("Backtracking search over the course blocks of one problem")
+final class SearchEvent extends Event {
+    @Label("Seed")
+    long seed;
+
+    @Label("Blocks")
+    int blocks;
+
+    @Label("Placed Blocks")
+    int placed;
+
+    @Label("Status")
+    String status;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Backtracks")
+    long backtracks;
+
+    @Label("Propagation Time")
+    @Description("Time spent placing blocks and pruning domains, estimated from a sample")
+    @Timespan(Timespan.NANOSECONDS)
+    long propagationTime;
+
+    @Label("Constraint Evaluations")
+    long constraintEvaluations;
+
+    @Label("Backjumps")
+    @Description("Dead ends that jumped back over at least one decision")
+    long backjumps;
+
+    @Label("Skipped Levels")
+    long skippedLevels;
+
+    @Label("Learned Nogoods")
+    long learnedNogoods;
+
+    @Label("Nogood Prunes")
+    @Description("Placements rejected because they would complete a stored nogood")
+    long nogoodPrunes;
+}
@@ -0,0 +1,273 @@
+package solver;
+
+import datastructures.CourseTable;
+import datastructures.ScheduleRule;
+import datastructures.SlotCalendar;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// On-disk cache of solved assignments, content addressed by a SHA-256 of the canonicalised Problem.
+// The Problem is the compiled form of the inputs: course fields, instructor availability (as slot masks in
+// the block domains), Constraint toggles (Friday in the domains, lab-after-theory and other rules in the
+// precedence edges) and the pinned blocks, plus the calendar's timeslot times and the caller's settings
+// string (how the stored assignments were produced, e.g. the optimiser's budget and seed). Courses are hashed in a sorted order, so reordering the input
+// files does not change the key. An entry is one byte per block; the least recently used entries are
+// deleted once the cache holds more than maxEntries files. File modification times carry the LRU order
+// across restarts.
+public class SolveCache {
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+    private static final int MAGIC = 0x42505343;   // "BPSC"
+    private static final int FORMAT = 4;
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final int maxEntries;
+    // key -> file, least recently used first
+    private final LinkedHashMap<String, Path> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public SolveCache() throws IOException {
+        this(defaultDirectory(), DEFAULT_MAX_ENTRIES);
+    }
+
+    public SolveCache(Path directory, int maxEntries) throws IOException {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be >= 1");
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> list = Files.list(directory)) {
+            list.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).forEach(files::add);
+        }
+        files.sort((a, b) -> lastModified(a).compareTo(lastModified(b)));
+        for (Path f : files) {
+            String name = f.getFileName().toString();
+            entries.put(name.substring(0, name.length() - SUFFIX.length()), f);
+        }
+    }
+
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".beeplan", "solve-cache");
+    }
+
+    public Path getDirectory() { return directory; }
+    public int getMaxEntries() { return maxEntries; }
+    public synchronized int size() { return entries.size(); }
+
+    // the stored assignment for an identical problem, or null on a miss (or an unreadable entry)
+    public SolverResult lookup(Problem problem) { return lookup(problem, ""); }
+
+    // only entries stored under the same settings match
+    public synchronized SolverResult lookup(Problem problem, String settings) {
+        long begin = System.nanoTime();
+        Canonical key = canonicalise(problem, settings);
+        Path file = entries.get(key.hash);
+        if (file == null) return null;
+        int[] slots = new int[problem.blockCount];
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT || in.readInt() != key.blocks.length) {
+                throw new IOException("stale entry");
+            }
+            byte[] stored = in.readNBytes(key.blocks.length);
+            if (stored.length != key.blocks.length) throw new IOException("truncated entry");
+            for (int i = 0; i < stored.length; i++) {
+                int b = key.blocks[i], s = stored[i];
+                // a slot outside the block's domain means the entry does not belong to this problem
+                if (s < 0 || (problem.initialDomain[b] & (1L << s)) == 0) throw new IOException("entry does not fit");
+                slots[b] = s;
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            remove(key.hash);
+            return null;
+        }
+        return new SolverResult(problem, SolverResult.Status.SOLVED, slots, List.of(), 0, 0, System.nanoTime() - begin);
+    }
+
+    // keeps a solved assignment; anything else is ignored
+    public void store(SolverResult result) throws IOException { store(result, ""); }
+
+    public synchronized void store(SolverResult result, String settings) throws IOException {
+        if (!result.isSolved()) return;
+        Canonical key = canonicalise(result.getProblem(), settings);
+        byte[] payload = new byte[key.blocks.length];
+        for (int i = 0; i < payload.length; i++) payload[i] = (byte) result.slotOf(key.blocks[i]);
+
+        Path file = directory.resolve(key.hash + SUFFIX);
+        Path tmp = Files.createTempFile(directory, key.hash, ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tmp))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(payload.length);
+            out.write(payload);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        entries.put(key.hash, file);
+        evict();
+    }
+
+    public synchronized void clear() throws IOException {
+        for (Path f : entries.values()) Files.deleteIfExists(f);
+        entries.clear();
+    }
+
+    private void evict() throws IOException {
+        Iterator<Map.Entry<String, Path>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            Files.deleteIfExists(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    private void remove(String hash) {
+        Path f = entries.remove(hash);
+        try {
+            if (f != null) Files.deleteIfExists(f);
+        } catch (IOException ignored) {
+            // an entry that cannot be deleted is simply rewritten by the next store
+        }
+    }
+
+    private static FileTime lastModified(Path f) {
+        try {
+            return Files.getLastModifiedTime(f);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    // ---- canonical form ----
+
+    // hex digest plus the problem's block ids in canonical order (the order of the stored bytes)
+    static final class Canonical {
+        final String hash;
+        final int[] blocks;
+
+        Canonical(String hash, int[] blocks) {
+            this.hash = hash;
+            this.blocks = blocks;
+        }
+    }
+
+    // the key of a problem; same inputs in any course order give the same key
+    public static String keyOf(Problem problem) { return keyOf(problem, ""); }
+    public static String keyOf(Problem problem, String settings) { return canonicalise(problem, settings).hash; }
+
+    static Canonical canonicalise(Problem p, String settings) {
+        int courses = p.courseBlocks.length;
+        byte[][] records = new byte[courses][];
+        Integer[] order = new Integer[courses];
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(buf);
+        try {
+            for (int ci = 0; ci < courses; ci++) {
+                buf.reset();
+                writeCourse(out, p, ci);
+                out.flush();
+                records[ci] = buf.toByteArray();
+                order[ci] = ci;
+            }
+            Arrays.sort(order, (a, b) -> Arrays.compare(records[a], records[b]));
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            DataOutputStream header = new DataOutputStream(new DigestSink(digest));
+            header.writeInt(FORMAT);
+            header.writeUTF(settings);
+            header.writeInt(p.days);
+            header.writeInt(p.slotsPerDay);
+            header.writeInt(p.maxTheoryHoursPerDay);
+            // timeslot lengths decide how many blocks a course has and what they weigh against the daily limit;
+            // the times themselves are what the stored slots mean
+            header.writeInt(p.blockHours);
+            SlotCalendar calendar = p.schedule.getCalendar();
+            for (int t = 0; t < p.slotsPerDay; t++) {
+                header.writeInt(calendar.startMinute(t));
+                header.writeInt(calendar.endMinute(t));
+                header.writeInt(p.slotHours[t]);
+            }
+            header.writeInt(courses);
+            // pluggable rules are code: their declaration stands in for them
+            header.writeInt(p.ruleKernel.getRules().size());
+            for (ScheduleRule rule : p.ruleKernel.getRules()) {
+                header.writeUTF(rule.getName());
+                header.writeInt(rule.getScope().ordinal());
+                header.writeBoolean(rule.isHard());
+                header.writeInt(rule.getWeight());
+            }
+            header.flush();
+            int[] blocks = new int[p.blockCount];
+            int n = 0;
+            for (int ci : order) {
+                digest.update(records[ci]);
+                for (int b : p.courseBlocks[ci]) blocks[n++] = b;
+            }
+            return new Canonical(HexFormat.of().formatHex(digest.digest()), blocks);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash problem", e);
+        }
+    }
+
+    // everything the solver sees about one course; block-level data uses positions inside the course
+    private static void writeCourse(DataOutputStream out, Problem p, int ci) throws IOException {
+        CourseTable t = p.table;
+        writeString(out, t.id(ci));
+        writeString(out, t.lecturer(ci) < 0 ? null : t.lecturerName(t.lecturer(ci)));
+        writeString(out, t.cohort(ci) < 0 ? null : t.cohortName(t.cohort(ci)));
+        out.writeInt(t.theoryHours(ci));
+        out.writeInt(t.labHours(ci));
+        out.writeInt(t.labCapacity(ci));
+        int[] blocks = p.courseBlocks[ci];
+        out.writeInt(blocks.length);
+        for (int k = 0; k < blocks.length; k++) {
+            int b = blocks[k];
+            out.writeLong(p.initialDomain[b]);
+            out.writeBoolean(p.blockLab[b]);
+            out.writeBoolean(p.blockPinned[b]);
+            // precedence edges stay inside a course: write successors as positions in the course
+            for (int succ : p.precedence.successors(b)) {
+                out.writeInt(succ - blocks[0]);
+            }
+            out.writeInt(-1);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            out.writeUTF(s);
+        }
+    }
+
+    private static final class DigestSink extends OutputStream {
+        private final MessageDigest digest;
+
+        DigestSink(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(int b) { digest.update((byte) b); }
+
+        @Override
+        public void write(byte[] b, int off, int len) { digest.update(b, off, len); }
+    }
+}
@@ -0,0 +1,42 @@
+package solver;
+
+// Tuning knobs of one solver run
+public class SolverConfig {
+    private long seed = 0L;
+    private long timeLimitMillis = 10_000L;
+    private boolean randomValueOrder = false;
+    private long progressIntervalMillis = 250L;
+    private boolean backjumping = true;
+    private int nogoodCapacity = 0;
+
+    public SolverConfig() {}
+
+    public SolverConfig(long seed, long timeLimitMillis) {
+        this.seed = seed;
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    // seed for breaking ties between equally constrained blocks
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public long getTimeLimitMillis() { return timeLimitMillis; }
+    public void setTimeLimitMillis(long timeLimitMillis) { this.timeLimitMillis = timeLimitMillis; }
+
+    // false: try slots earliest first; true: try them in a seeded random order
+    public boolean isRandomValueOrder() { return randomValueOrder; }
+    public void setRandomValueOrder(boolean randomValueOrder) { this.randomValueOrder = randomValueOrder; }
+
+    // minimum time between two snapshots handed to an ImprovementListener
+    public long getProgressIntervalMillis() { return progressIntervalMillis; }
+    public void setProgressIntervalMillis(long progressIntervalMillis) { this.progressIntervalMillis = progressIntervalMillis; }
+
+    // true: jump back to the deepest decision that caused a dead end; false: plain chronological backtracking
+    public boolean isBackjumping() { return backjumping; }
+    public void setBackjumping(boolean backjumping) { this.backjumping = backjumping; }
+
+    // nogoods kept by a backjumping search, least recently useful ones are evicted; 0 (default) disables
+    // learning: it saves at most a fifth of the nodes on the SearchBenchmark instances and is slower on both
+    public int getNogoodCapacity() { return nogoodCapacity; }
+    public void setNogoodCapacity(int nogoodCapacity) { this.nogoodCapacity = nogoodCapacity; }
+}
@@ -0,0 +1,116 @@
+package solver;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide solver counters. Runs keep plain local counters and add them here only when they poll the
+// clock (every few hundred steps) and when they finish, so telemetry stays on without slowing the inner loops.
+// snapshot() is safe to call from any thread, e.g. a UI timer; since() gives the share of one solve.
+public final class SolverMetrics {
+    private static final int TRAJECTORY_CAPACITY = 128;
+
+    private static final LongAdder searches = new LongAdder();
+    private static final LongAdder nodes = new LongAdder();
+    private static final LongAdder backtracks = new LongAdder();
+    private static final LongAdder propagationNanos = new LongAdder();
+    private static final LongAdder constraintEvaluations = new LongAdder();
+    private static final LongAdder annealMoves = new LongAdder();
+    private static final LongAdder roomAssignments = new LongAdder();
+    // best score over time of the optimizer runs, newest last
+    private static final ArrayDeque<AnnealingResult.Sample> trajectory = new ArrayDeque<>();
+    private static long recorded;     // samples ever recorded, guarded by trajectory
+
+    private SolverMetrics() {}
+
+    static void searchStarted() { searches.increment(); }
+
+    static void addSearch(long nodeCount, long backtrackCount, long propagation, long evaluations) {
+        if (nodeCount != 0) nodes.add(nodeCount);
+        if (backtrackCount != 0) backtracks.add(backtrackCount);
+        if (propagation != 0) propagationNanos.add(propagation);
+        if (evaluations != 0) constraintEvaluations.add(evaluations);
+    }
+
+    static void addAnneal(long moves, long evaluations) {
+        if (moves != 0) annealMoves.add(moves);
+        if (evaluations != 0) constraintEvaluations.add(evaluations);
+    }
+
+    static void roomAssignmentFinished() { roomAssignments.increment(); }
+
+    static void recordBestScore(AnnealingResult.Sample sample) {
+        synchronized (trajectory) {
+            if (trajectory.size() == TRAJECTORY_CAPACITY) trajectory.removeFirst();
+            trajectory.addLast(sample);
+            recorded++;
+        }
+    }
+
+    public static Snapshot snapshot() {
+        List<AnnealingResult.Sample> samples;
+        long count;
+        synchronized (trajectory) {
+            samples = List.copyOf(trajectory);
+            count = recorded;
+        }
+        return new Snapshot(searches.sum(), nodes.sum(), backtracks.sum(), propagationNanos.sum(),
+                constraintEvaluations.sum(), annealMoves.sum(), roomAssignments.sum(), samples, count);
+    }
+
+    // counter values at one moment
+    public static final class Snapshot {
+        private final long searches;
+        private final long nodes;
+        private final long backtracks;
+        private final long propagationNanos;
+        private final long constraintEvaluations;
+        private final long annealMoves;
+        private final long roomAssignments;
+        private final List<AnnealingResult.Sample> trajectory;
+        private final long recorded;
+
+        Snapshot(long searches, long nodes, long backtracks, long propagationNanos, long constraintEvaluations,
+                 long annealMoves, long roomAssignments, List<AnnealingResult.Sample> trajectory, long recorded) {
+            this.searches = searches;
+            this.nodes = nodes;
+            this.backtracks = backtracks;
+            this.propagationNanos = propagationNanos;
+            this.constraintEvaluations = constraintEvaluations;
+            this.annealMoves = annealMoves;
+            this.roomAssignments = roomAssignments;
+            this.trajectory = trajectory;
+            this.recorded = recorded;
+        }
+
+        // what happened after earlier was taken; the trajectory keeps only the newer samples
+        public Snapshot since(Snapshot earlier) {
+            int newer = (int) Math.min(trajectory.size(), recorded - earlier.recorded);
+            return new Snapshot(searches - earlier.searches, nodes - earlier.nodes, backtracks - earlier.backtracks,
+                    propagationNanos - earlier.propagationNanos, constraintEvaluations - earlier.constraintEvaluations,
+                    annealMoves - earlier.annealMoves, roomAssignments - earlier.roomAssignments,
+                    trajectory.subList(trajectory.size() - newer, trajectory.size()), newer);
+        }
+
+        public long getSearches() { return searches; }
+        public long getNodes() { return nodes; }
+        public long getBacktracks() { return backtracks; }
+        // estimated from a sample of the propagation steps
+        public long getPropagationMillis() { return propagationNanos / 1_000_000L; }
+        public long getConstraintEvaluations() { return constraintEvaluations; }
+        public long getAnnealMoves() { return annealMoves; }
+        public long getRoomAssignments() { return roomAssignments; }
+        public List<AnnealingResult.Sample> getTrajectory() { return trajectory; }
+
+        // best score reached, -1 before any optimizer run
+        public long getBestScore() {
+            return trajectory.isEmpty() ? -1 : trajectory.get(trajectory.size() - 1).getScore();
+        }
+
+        @Override
+        public String toString() {
+            return nodes + " nodes, " + backtracks + " backtracks, propagation " + getPropagationMillis() + " ms, "
+                    + constraintEvaluations + " evaluations" + (trajectory.isEmpty() ? "" : ", best score " + getBestScore());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package solver;
+
+import datastructures.Schedule;
+
+import java.util.List;
+
+// Outcome of a solver run: the slot of every block (-1 = not placed) plus search statistics.
+// When the run did not finish, the slots are the deepest partial assignment that was reached.
+public class SolverResult {
+    // IN_PROGRESS marks the snapshots handed to an ImprovementListener while the run continues
+    public enum Status { SOLVED, INFEASIBLE, TIMEOUT, CANCELLED, IN_PROGRESS }
+
+    private final Problem problem;
+    private final Status status;
+    private final int[] slots;
+    private final List<String> messages;
+    private final long nodes;
+    private final long backtracks;
+    private final long elapsedNanos;
+
+    SolverResult(Problem problem, Status status, int[] slots, List<String> messages,
+                 long nodes, long backtracks, long elapsedNanos) {
+        this.problem = problem;
+        this.status = status;
+        this.slots = slots;
+        this.messages = List.copyOf(messages);
+        this.nodes = nodes;
+        this.backtracks = backtracks;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // same run, different assignment (used by optimizers that start from this result)
+    SolverResult withSlots(int[] newSlots) {
+        return new SolverResult(problem, status, newSlots.clone(), messages, nodes, backtracks, elapsedNanos);
+    }
+
+    public Problem getProblem() { return problem; }
+    public Status getStatus() { return status; }
+    public boolean isSolved() { return status == Status.SOLVED; }
+    public List<String> getMessages() { return messages; }
+    public long getNodes() { return nodes; }
+    public long getBacktracks() { return backtracks; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000L; }
+
+    public int slotOf(int block) { return slots[block]; }
+
+    public int getPlacedBlocks() {
+        int placed = 0;
+        for (int s : slots) if (s >= 0) placed++;
+        return placed;
+    }
+
+    // replaces the placements of the schedule with the blocks placed by this run; pinned blocks stay pinned
+    public void applyTo(Schedule schedule) {
+        schedule.clearPlacements();
+        for (int b = 0; b < slots.length; b++) {
+            if (slots[b] < 0) continue;
+            if (problem.isPinned(b)) schedule.pin(problem.courseOf(b), slots[b], problem.isLab(b), null);
+            else schedule.place(problem.courseOf(b), slots[b], problem.isLab(b), null);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return status + ": " + getPlacedBlocks() + "/" + slots.length + " blocks placed, "
+                + nodes + " nodes, " + backtracks + " backtracks, " + getElapsedMillis() + " ms";
+    }
+}